@@ -3,33 +3,88 @@ package com.glenn.address.binary;
 import com.glenn.address.domain.*;
 import com.google.gson.Gson;
 import org.apache.avro.Schema;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileConstants;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.file.SeekableFileInput;
 import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.io.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
+import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
 
 /**
  * Implementation of BinaryService for reading/writing entries in Apache Avro binary format.
  * Provides efficient schema-based serialization with compression for address book entries.
+ * Bare datums are written and read with the hand-written EntryAvroCodec; container files go through
+ * GenericRecords, so a file written with a different but compatible schema still resolves.
+ * By default entries are written as bare concatenated datums. In container mode they are written as an
+ * Avro Object Container File: a header holding the schema, then deflate-compressed blocks separated by sync
+ * markers, which readEntriesParallel uses to split the file across a fork-join pool.
+ * Readers recognise either layout from the first bytes of the file.
  */
 public class AvroService implements BinaryService {
     private static final Logger logger = LoggerFactory.getLogger(AvroService.class);
     private static final String OUT_FILE_NAME = "output-data.avro";
     private static final String SCHEMA_FILE = "entry-schema.avsc";
+    public static final int DEFAULT_BLOCK_BYTES = 256 * 1024;
+    private static final long MIN_SPLIT_BYTES = 1024 * 1024;
 
     private final Schema schema;
+    private final DatumWriter<GenericRecord> datumWriter;
+    private final DatumReader<GenericRecord> datumReader;
+    private final ThreadLocal<EntryAvroCodec> codecs = ThreadLocal.withInitial(EntryAvroCodec::new);
+    private final boolean container;
+    private final int blockBytes;
+    private final int deflateLevel;
 
+    /**
+     * Writes bare concatenated datums
+     */
     public AvroService() {
+        this(false, DEFAULT_BLOCK_BYTES, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Writes Avro Object Container Files
+     *
+     * @param blockBytes   approximate uncompressed size of each block, and so the spacing of sync markers
+     * @param deflateLevel deflate level from 1 to 9, -1 for the default, or 0 to leave blocks uncompressed
+     */
+    public AvroService(int blockBytes, int deflateLevel) {
+        this(true, blockBytes, deflateLevel);
+    }
+
+    private AvroService(boolean container, int blockBytes, int deflateLevel) {
         this.schema = loadSchema();
+        this.datumWriter = new org.apache.avro.generic.GenericDatumWriter<>(schema);
+        this.datumReader = new org.apache.avro.generic.GenericDatumReader<>(schema);
+        this.container = container;
+        this.blockBytes = blockBytes;
+        this.deflateLevel = deflateLevel;
     }
 
     /**
@@ -56,15 +111,8 @@ public class AvroService implements BinaryService {
      */
     @Override
     public void writeEntries(List<Entry> entries, String outputFile) {
-        try (FileOutputStream fos = new FileOutputStream(outputFile)) {
-            Encoder encoder = EncoderFactory.get().binaryEncoder(fos, null);
-            DatumWriter<GenericRecord> datumWriter = new org.apache.avro.generic.GenericDatumWriter<>(schema);
-
-            for (Entry entry : entries) {
-                GenericRecord avroRecord = entryToAvroRecord(entry);
-                datumWriter.write(avroRecord, encoder);
-            }
-            encoder.flush();
+        try {
+            writeEntries(entries.iterator(), outputFile);
             logger.info("Successfully wrote {} entries to Avro binary file: {}", entries.size(), outputFile);
         } catch (IOException e) {
             logger.error("Failed to write entries to Avro file: {}", outputFile, e);
@@ -72,6 +120,101 @@ public class AvroService implements BinaryService {
         }
     }
 
+    /**
+     * Open a sink writing each Entry as an Avro binary datum, or as a record of a container file in container mode
+     *
+     * @param out Output stream, flushed but left open when the sink is closed
+     * @return EntrySink for the stream
+     */
+    @Override
+    public EntrySink openSink(OutputStream out) throws IOException {
+        if (container) {
+            return openContainerSink(out);
+        }
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        EntryAvroCodec codec = new EntryAvroCodec();
+        return new EntryWriter() {
+            @Override
+            protected void write(Entry entry) throws IOException {
+                codec.write(entry, encoder);
+            }
+
+            @Override
+            protected void finish() throws IOException {
+                encoder.flush();
+            }
+        };
+    }
+
+    private EntrySink openContainerSink(OutputStream out) throws IOException {
+        DataFileWriter<GenericRecord> writer = new DataFileWriter<>(datumWriter)
+                .setCodec(deflateLevel == 0 ? CodecFactory.nullCodec() : CodecFactory.deflateCodec(deflateLevel))
+                .setSyncInterval(blockBytes);
+        writer.create(schema, out);
+        return new EntryWriter() {
+            @Override
+            protected void write(Entry entry) throws IOException {
+                writer.append(entryToAvroRecord(entry));
+            }
+
+            @Override
+            protected void finish() throws IOException {
+                // flush writes the last block; a container file needs no trailer, and close would close the stream
+                writer.flush();
+            }
+        };
+    }
+
+    /**
+     * Write entries with the encoding spread over the executor. Bare datums are encoded in parallel chunks;
+     * a container file is written serially, as its blocks carry the sync marker of the one DataFileWriter
+     * that writes the header.
+     */
+    @Override
+    public long writeEntriesParallel(Iterator<Entry> entries, WritableByteChannel channel, ExecutorService executor)
+            throws IOException {
+        if (container) {
+            return writeEntries(entries, Channels.newOutputStream(channel));
+        }
+        return BinaryService.super.writeEntriesParallel(entries, channel, executor);
+    }
+
+    /**
+     * Write one Entry as a single Avro binary datum, for callers that frame records themselves.
+     * Binary encoders go through the calling thread's EntryAvroCodec; other encoders through a GenericRecord.
+     *
+     * @param entry   Entry to serialize
+     * @param encoder Encoder to write to; not flushed
+     */
+    public void encode(Entry entry, Encoder encoder) throws IOException {
+        if (encoder instanceof BinaryEncoder binaryEncoder) {
+            codecs.get().write(entry, binaryEncoder);
+        } else {
+            encodeGeneric(entry, encoder);
+        }
+    }
+
+    /**
+     * Read one Entry from a single Avro binary datum
+     *
+     * @param decoder Decoder positioned at the datum
+     * @return the decoded Entry
+     */
+    public Entry decode(Decoder decoder) throws IOException {
+        if (decoder instanceof BinaryDecoder binaryDecoder) {
+            return codecs.get().read(binaryDecoder);
+        }
+        return decodeGeneric(decoder);
+    }
+
+    void encodeGeneric(Entry entry, Encoder encoder) throws IOException {
+        datumWriter.write(entryToAvroRecord(entry), encoder);
+    }
+
+    Entry decodeGeneric(Decoder decoder) throws IOException {
+        return avroRecordToEntry(datumReader.read(null, decoder));
+    }
+
     /**
      * Convert Entry object to Avro GenericRecord
      */
@@ -136,27 +279,146 @@ public class AvroService implements BinaryService {
      */
     @Override
     public List<Entry> readEntries(String inputFile) {
-        List<Entry> entries = new ArrayList<>();
-        try (FileInputStream fis = new FileInputStream(inputFile)) {
-            Decoder decoder = DecoderFactory.get().binaryDecoder(fis, null);
-            DatumReader<GenericRecord> datumReader = new org.apache.avro.generic.GenericDatumReader<>(schema);
-
-            GenericRecord avroRecord;
-            while (true) {
-                try {
-                    avroRecord = datumReader.read(null, decoder);
-                    Entry entry = avroRecordToEntry(avroRecord);
-                    entries.add(entry);
-                } catch (java.io.EOFException e) {
-                    // End of file reached
-                    break;
+        List<Entry> entries;
+        try (Stream<Entry> stream = streamEntries(inputFile)) {
+            entries = stream.toList();
+            logger.info("Successfully read {} entries from Avro binary file: {}", entries.size(), inputFile);
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Failed to read entries from Avro file: {}", inputFile, e);
+            throw new RuntimeException("Failed to read entries from Avro file", e);
+        }
+        return entries;
+    }
+
+    /**
+     * Read entries lazily from Avro binary data, one datum per call to next
+     *
+     * @param in Input stream of concatenated Avro binary datums or of a container file, closed with the returned iterator
+     * @return CloseableIterator of Entry objects
+     */
+    @Override
+    public CloseableIterator<Entry> iterateEntries(InputStream in) throws IOException {
+        if (!in.markSupported()) {
+            in = new BufferedInputStream(in);
+        }
+        if (isContainer(in)) {
+            return iterateContainer(in);
+        }
+        BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(in, null);
+        EntryAvroCodec codec = new EntryAvroCodec();
+        return new EntryReader(in) {
+            @Override
+            protected Entry readNext() throws IOException {
+                if (decoder.isEnd()) {
+                    return null;
                 }
+                return codec.read(decoder);
             }
-            logger.info("Successfully read {} entries from Avro binary file: {}", entries.size(), inputFile);
-        } catch (IOException e) {
+        };
+    }
+
+    /**
+     * Checks for the container file magic without consuming it.
+     * A bare datum cannot start with it: "O" is not a valid union index for the entryId field.
+     */
+    private static boolean isContainer(InputStream in) throws IOException {
+        byte[] magic = new byte[DataFileConstants.MAGIC.length];
+        in.mark(magic.length);
+        int read = in.readNBytes(magic, 0, magic.length);
+        in.reset();
+        return read == magic.length && Arrays.equals(magic, DataFileConstants.MAGIC);
+    }
+
+    private CloseableIterator<Entry> iterateContainer(InputStream in) throws IOException {
+        // DataFileStream gives its reader the writer schema from the header, so each file gets its own reader
+        DataFileStream<GenericRecord> stream;
+        try {
+            stream = new DataFileStream<>(in, new GenericDatumReader<>(schema));
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+        return new EntryReader(stream) {
+            private GenericRecord reuse;
+
+            @Override
+            protected Entry readNext() throws IOException {
+                if (!stream.hasNext()) {
+                    return null;
+                }
+                reuse = stream.next(reuse);
+                return avroRecordToEntry(reuse);
+            }
+        };
+    }
+
+    /**
+     * Read entries from an Avro container file on the common fork-join pool
+     *
+     * @param inputFile Path to the Avro file
+     * @return List of Entry objects in file order
+     */
+    public List<Entry> readEntriesParallel(String inputFile) {
+        return readEntriesParallel(inputFile, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Read entries from an Avro container file, decoding its blocks in parallel.
+     * The file is cut into byte ranges; each task seeks to the first sync marker in its range and decodes the
+     * blocks that start before the next range, so every block is decoded exactly once.
+     * A file of bare datums has no sync markers and is read sequentially.
+     *
+     * @param inputFile Path to the Avro file
+     * @param pool      Pool to decode on
+     * @return List of Entry objects in file order
+     */
+    public List<Entry> readEntriesParallel(String inputFile, ForkJoinPool pool) {
+        return readEntriesParallel(inputFile, pool, Math.max(MIN_SPLIT_BYTES, new File(inputFile).length() / (pool.getParallelism() * 4L)));
+    }
+
+    List<Entry> readEntriesParallel(String inputFile, ForkJoinPool pool, long splitBytes) {
+        long ts = System.nanoTime();
+        try {
+            try (InputStream in = new BufferedInputStream(new FileInputStream(inputFile))) {
+                if (!isContainer(in)) {
+                    return readEntries(inputFile);
+                }
+            }
+            File file = new File(inputFile);
+            long length = file.length();
+            List<ForkJoinTask<List<Entry>>> tasks = new ArrayList<>();
+            for (long start = 0; start < length; start += splitBytes) {
+                long from = start;
+                long to = Math.min(start + splitBytes, length);
+                tasks.add(pool.submit(() -> readSplit(file, from, to)));
+            }
+            List<Entry> entries = new ArrayList<>();
+            for (ForkJoinTask<List<Entry>> task : tasks) {
+                entries.addAll(task.join());
+            }
+            logger.info("Successfully read {} entries from Avro container file {} in {} splits in {} ms",
+                    entries.size(), inputFile, tasks.size(), (System.nanoTime() - ts) / 1_000_000);
+            return entries;
+        } catch (IOException | RuntimeException e) {
             logger.error("Failed to read entries from Avro file: {}", inputFile, e);
             throw new RuntimeException("Failed to read entries from Avro file", e);
         }
+    }
+
+    /**
+     * Decode the blocks whose sync marker lies in [start, end)
+     */
+    private List<Entry> readSplit(File file, long start, long end) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (DataFileReader<GenericRecord> reader = new DataFileReader<>(new SeekableFileInput(file),
+                new GenericDatumReader<>(schema))) {
+            reader.sync(start);
+            GenericRecord reuse = null;
+            while (reader.hasNext() && !reader.pastSync(end)) {
+                reuse = reader.next(reuse);
+                entries.add(avroRecordToEntry(reuse));
+            }
+        }
         return entries;
     }
 
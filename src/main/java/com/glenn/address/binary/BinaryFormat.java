@@ -0,0 +1,43 @@
+package com.glenn.address.binary;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.zip.Deflater;
+
+/**
+ * Binary file formats offered for export and import, each with its file extension and BinaryService.
+ * The format name is the file extension, so a request's format parameter and its file name agree.
+ * avrc is an Avro Object Container File with deflate-compressed blocks; both Avro formats read either layout.
+ */
+public enum BinaryFormat {
+    AVRO("avro", new AvroService()),
+    AVRC("avrc", new AvroService(AvroService.DEFAULT_BLOCK_BYTES, Deflater.DEFAULT_COMPRESSION)),
+    BSON("bson", new BsonService()),
+    GZ("gz", new GzipService()),
+    ADDR("addr", new EncodedService());
+
+    private final String extension;
+    private final BinaryService service;
+
+    BinaryFormat(String extension, BinaryService service) {
+        this.extension = extension;
+        this.service = service;
+    }
+
+    /**
+     * @return the binary format with this name, or empty for json and unknown names
+     */
+    public static Optional<BinaryFormat> of(String name) {
+        return Arrays.stream(values())
+                .filter(format -> format.extension.equals(name))
+                .findFirst();
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public BinaryService getService() {
+        return service;
+    }
+}
@@ -2,17 +2,141 @@ package com.glenn.address.binary;
 
 import com.glenn.address.domain.Entry;
 
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 /**
  * Interface defining methods for serializing and deserializing address book entries
  * to various binary and compressed formats.
  * Implementations provide format-specific read/write functionality for Entry objects.
+ * Besides the List forms, every format can be written through an Iterator or an EntrySink and read through
+ * a CloseableIterator or Stream, one entry at a time, so datasets larger than the heap can be moved.
+ * writeEntriesParallel encodes chunks of entries on a pool and writes them in order, for exports that would
+ * otherwise be bound by encoding on one thread.
  */
 public interface BinaryService {
+    int FILE_BUFFER_SIZE = 64 * 1024;
+
     void writeEntries(List<Entry> entries, String outputFile);
 
     void writeString(String jsonString);
 
     List<Entry> readEntries(String inputFile);
+
+    /**
+     * Opens a sink that encodes each entry it accepts onto the output stream.
+     * Closing the sink finishes the format and flushes the stream, but leaves it open.
+     */
+    EntrySink openSink(OutputStream out) throws IOException;
+
+    /**
+     * Reads entries lazily, decoding one entry per call to next.
+     * Closing the iterator closes the input; read errors surface as UncheckedIOException.
+     */
+    CloseableIterator<Entry> iterateEntries(InputStream in) throws IOException;
+
+    /**
+     * Writes entries one at a time as they are pulled from the iterator, so memory use does not grow
+     * with the number of entries. The output stream is flushed but left open.
+     *
+     * @return number of entries written
+     */
+    default long writeEntries(Iterator<Entry> entries, OutputStream out) throws IOException {
+        try (EntrySink sink = openSink(out)) {
+            entries.forEachRemaining(sink);
+            return sink.count();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Writes entries one at a time as they are pulled from the iterator to a new file.
+     *
+     * @return number of entries written
+     */
+    default long writeEntries(Iterator<Entry> entries, String outputFile) throws IOException {
+        try (OutputStream out = new FileOutputStream(outputFile)) {
+            return writeEntries(entries, out);
+        }
+    }
+
+    /**
+     * Writes entries to a new file, encoding chunks of them in parallel on the common fork-join pool.
+     *
+     * @return number of entries written
+     */
+    default long writeEntriesParallel(Iterator<Entry> entries, String outputFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(outputFile),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            return writeEntriesParallel(entries, channel, ForkJoinPool.commonPool());
+        }
+    }
+
+    /**
+     * Writes entries to the channel, encoding chunks of them in parallel on the executor.
+     * The calling thread pulls the entries and writes the encoded chunks in order, so the output holds the
+     * entries in iterator order; for formats that are a plain run of encoded entries it is byte-identical to
+     * writeEntries. A few chunks per thread are buffered at a time. The channel is left open.
+     *
+     * @return number of entries written
+     */
+    default long writeEntriesParallel(Iterator<Entry> entries, WritableByteChannel channel, ExecutorService executor)
+            throws IOException {
+        int parallelism = executor instanceof ForkJoinPool pool ? pool.getParallelism() : Runtime.getRuntime().availableProcessors();
+        return new ParallelEntryWriter(this, executor, ParallelEntryWriter.DEFAULT_CHUNK_ENTRIES, parallelism * 2)
+                .write(entries, channel);
+    }
+
+    /**
+     * Encodes one chunk of a parallel write into its own buffer, along with whatever the format puts before
+     * the first entry or after the last. Called concurrently for different chunks.
+     * The default writes the chunk through its own sink, which suits formats with no header or trailer.
+     *
+     * @param first true for the chunk that starts the output
+     * @param last  true for the chunk that ends the output
+     */
+    default void encodeChunk(List<Entry> chunk, boolean first, boolean last, OutputStream out) throws IOException {
+        try (EntrySink sink = openSink(out)) {
+            chunk.forEach(sink);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Reads entries lazily from a file. Closing the iterator closes the file.
+     */
+    default CloseableIterator<Entry> iterateEntries(String inputFile) throws IOException {
+        return iterateEntries(new BufferedInputStream(new FileInputStream(inputFile), FILE_BUFFER_SIZE));
+    }
+
+    /**
+     * Reads entries lazily, decoding one entry per element pulled from the stream.
+     * Closing the stream closes the input; read errors surface as UncheckedIOException.
+     */
+    default Stream<Entry> streamEntries(InputStream in) throws IOException {
+        return iterateEntries(in).stream();
+    }
+
+    /**
+     * Reads entries lazily from a file. Closing the stream closes the file.
+     */
+    default Stream<Entry> streamEntries(String inputFile) throws IOException {
+        return iterateEntries(inputFile).stream();
+    }
 }
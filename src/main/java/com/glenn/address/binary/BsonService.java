@@ -4,26 +4,50 @@ import com.glenn.address.domain.*;
 import com.google.gson.Gson;
 import org.bson.*;
 import org.bson.codecs.BsonDocumentCodec;
-import org.bson.codecs.DecoderContext;
 import org.bson.codecs.EncoderContext;
 import org.bson.io.BasicOutputBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Implementation of BinaryService for reading/writing entries in BSON binary format.
  * Uses MongoDB's BSON codec for efficient document serialization of address book entries.
+ * Files are read through a memory mapping and decoded field by field straight into Entry records.
  */
 public class BsonService implements BinaryService {
     private static final Logger logger = LoggerFactory.getLogger(BsonService.class);
     private static final String OUT_FILE_NAME = "output-data.bson";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final long MAP_WINDOW_BYTES = 1024L * 1024 * 1024;
+    private final long mapWindowBytes;
+
+    public BsonService() {
+        this(MAP_WINDOW_BYTES);
+    }
+
+    /**
+     * @param mapWindowBytes how much of a file to map at a time when reading
+     */
+    BsonService(long mapWindowBytes) {
+        this.mapWindowBytes = mapWindowBytes;
+    }
 
     /**
      * Write Entry objects to BSON binary format
@@ -33,17 +57,8 @@ public class BsonService implements BinaryService {
      */
     @Override
     public void writeEntries(List<Entry> entries, String outputFile) {
-        try (FileOutputStream fos = new FileOutputStream(outputFile)) {
-            BsonDocumentCodec codec = new BsonDocumentCodec();
-            for (Entry entry : entries) {
-                BsonDocument document = entryToBsonDocument(entry);
-                BasicOutputBuffer buffer = new BasicOutputBuffer();
-                BsonBinaryWriter writer = new BsonBinaryWriter(buffer);
-                codec.encode(writer, document, EncoderContext.builder().build());
-                byte[] bsonBytes = buffer.toByteArray();
-                // Write the complete BSON document as-is (it includes the size at the beginning)
-                fos.write(bsonBytes);
-            }
+        try {
+            writeEntries(entries.iterator(), outputFile);
             logger.info("Successfully wrote {} entries to BSON binary file: {}", entries.size(), outputFile);
         } catch (IOException e) {
             logger.error("Failed to write entries to BSON file: {}", outputFile, e);
@@ -51,6 +66,33 @@ public class BsonService implements BinaryService {
         }
     }
 
+    /**
+     * Open a sink writing each Entry as one BSON document
+     *
+     * @param out Output stream, flushed but left open when the sink is closed
+     * @return EntrySink for the stream
+     */
+    @Override
+    public EntrySink openSink(OutputStream out) {
+        BsonDocumentCodec codec = new BsonDocumentCodec();
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        BufferedOutputStream bos = new BufferedOutputStream(out, WRITE_BUFFER_SIZE);
+        return new EntryWriter() {
+            @Override
+            protected void write(Entry entry) throws IOException {
+                buffer.truncateToPosition(0);
+                codec.encode(new BsonBinaryWriter(buffer), entryToBsonDocument(entry), EncoderContext.builder().build());
+                // Write the complete BSON document as-is (it includes the size at the beginning)
+                buffer.pipe(bos);
+            }
+
+            @Override
+            protected void finish() throws IOException {
+                bos.flush();
+            }
+        };
+    }
+
     /**
      * Convert Entry object to BSON Document
      */
@@ -107,6 +149,8 @@ public class BsonService implements BinaryService {
 
     /**
      * Read entries from BSON binary file
+     * The file is memory-mapped and each document decoded in place from a slice of the mapping, so the
+     * file is never copied onto the heap; files over the window size are mapped one window at a time.
      *
      * @param inputFile Path to the BSON binary file
      * @return List of Entry objects read from the file
@@ -114,43 +158,8 @@ public class BsonService implements BinaryService {
     @Override
     public List<Entry> readEntries(String inputFile) {
         List<Entry> entries = new ArrayList<>();
-        try (FileInputStream fis = new FileInputStream(inputFile)) {
-            byte[] buffer = fis.readAllBytes();
-            int offset = 0;
-            BsonDocumentCodec codec = new BsonDocumentCodec();
-
-            while (offset < buffer.length) {
-                // Read the BSON document size (first 4 bytes, little-endian)
-                if (offset + 4 > buffer.length) {
-                    break;
-                }
-
-                // Extract the size from the buffer
-                byte[] sizeBytes = new byte[4];
-                System.arraycopy(buffer, offset, sizeBytes, 0, 4);
-                ByteBuffer sizeBuffer = ByteBuffer.wrap(sizeBytes);
-                sizeBuffer.order(java.nio.ByteOrder.LITTLE_ENDIAN);
-                int size = sizeBuffer.getInt();
-
-                // Validate size
-                if (size <= 0 || offset + size > buffer.length) {
-                    logger.warn("Invalid BSON document size {} at offset {}", size, offset);
-                    break;
-                }
-
-                // Extract and decode the BSON document
-                byte[] docBytes = new byte[size];
-                System.arraycopy(buffer, offset, docBytes, 0, size);
-                ByteBuffer docBuffer = ByteBuffer.wrap(docBytes);
-                docBuffer.order(java.nio.ByteOrder.LITTLE_ENDIAN);
-                BsonBinaryReader reader = new BsonBinaryReader(docBuffer);
-                BsonDocument document = codec.decode(reader, DecoderContext.builder().build());
-
-                Entry entry = bsonDocumentToEntry(document);
-                entries.add(entry);
-
-                offset += size;
-            }
+        try (Stream<Entry> stream = streamEntries(inputFile)) {
+            stream.forEach(entries::add);
             logger.info("Successfully read {} entries from BSON binary file: {}", entries.size(), inputFile);
         } catch (IOException e) {
             logger.error("Failed to read entries from BSON file: {}", inputFile, e);
@@ -163,47 +172,195 @@ public class BsonService implements BinaryService {
     }
 
     /**
-     * Convert BSON Document to Entry object
+     * Read entries lazily from a memory-mapped BSON file.
+     * A document that runs past the end of the current window starts the next window, so no document is split.
+     * A document whose size is invalid or runs past the end of the file, or trailing bytes too short to hold
+     * a size, fail the read with an IOException, as they do for the stream reader.
+     *
+     * @param inputFile BSON binary file, closed with the returned iterator
+     * @return CloseableIterator of Entry objects
      */
-    private Entry bsonDocumentToEntry(BsonDocument document) {
-        BsonDocument personDoc = document.getDocument("person");
-        String genderStr = getBsonString(personDoc, "gender");
-        String maritalStatusStr = getBsonString(personDoc, "maritalStatus");
-
-        Person person = new Person(
-                getBsonString(personDoc, "firstName"),
-                getBsonString(personDoc, "lastName"),
-                personDoc.getInt32("age").getValue(),
+    @Override
+    public CloseableIterator<Entry> iterateEntries(String inputFile) throws IOException {
+        FileChannel channel = FileChannel.open(Path.of(inputFile), StandardOpenOption.READ);
+        long fileSize = channel.size();
+        return new EntryReader(channel) {
+            private MappedByteBuffer window;
+            private long windowStart = 0;
+            private long position = 0;
+
+            @Override
+            protected Entry readNext() throws IOException {
+                if (position == fileSize) {
+                    return null;
+                }
+                if (fileSize - position < 4) {
+                    throw new IOException("Truncated BSON document size of " + (fileSize - position)
+                            + " bytes at offset " + position);
+                }
+                // The BSON document size is the first 4 bytes, little-endian, and counts itself
+                int size = region(position, 4).getInt(0);
+                if (size < 5) {
+                    throw new IOException("Invalid BSON document size " + size + " at offset " + position);
+                }
+                if (position + size > fileSize) {
+                    throw new IOException("Truncated BSON document of size " + size + " at offset " + position);
+                }
+                try (BsonBinaryReader reader = new BsonBinaryReader(region(position, size))) {
+                    position += size;
+                    return readEntry(reader);
+                }
+            }
+
+            private ByteBuffer region(long offset, int length) throws IOException {
+                if (window == null || offset < windowStart || offset + length > windowStart + window.capacity()) {
+                    windowStart = offset;
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+                            Math.min(Math.max(mapWindowBytes, length), fileSize - offset));
+                }
+                return window.slice((int) (offset - windowStart), length).order(ByteOrder.LITTLE_ENDIAN);
+            }
+        };
+    }
+
+    /**
+     * Read entries lazily from concatenated BSON documents, one document per call to next.
+     * Each document is read into a reused buffer sized to the largest document so far.
+     *
+     * @param in Input stream of BSON documents, closed with the returned iterator
+     * @return CloseableIterator of Entry objects
+     */
+    @Override
+    public CloseableIterator<Entry> iterateEntries(InputStream in) {
+        DataInputStream dis = new DataInputStream(in);
+        return new EntryReader(in) {
+            private byte[] docBytes = new byte[1024];
+
+            @Override
+            protected Entry readNext() throws IOException {
+                int first = dis.read();
+                if (first < 0) {
+                    return null;
+                }
+                // The BSON document size is the first 4 bytes, little-endian, and counts itself
+                docBytes[0] = (byte) first;
+                dis.readFully(docBytes, 1, 3);
+                int size = ByteBuffer.wrap(docBytes, 0, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+                if (size < 5) {
+                    throw new IOException("Invalid BSON document size " + size);
+                }
+                if (size > docBytes.length) {
+                    docBytes = Arrays.copyOf(docBytes, Math.max(size, docBytes.length * 2));
+                }
+                try {
+                    dis.readFully(docBytes, 4, size - 4);
+                } catch (EOFException e) {
+                    throw new IOException("Truncated BSON document of size " + size, e);
+                }
+                ByteBuffer docBuffer = ByteBuffer.wrap(docBytes, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+                try (BsonBinaryReader reader = new BsonBinaryReader(docBuffer)) {
+                    return readEntry(reader);
+                }
+            }
+        };
+    }
+
+    /**
+     * Decode one BSON document straight into an Entry, field by field, without building a BsonDocument.
+     * Fields may come in any order; unknown fields are skipped.
+     */
+    private Entry readEntry(BsonReader reader) {
+        Integer entryId = null;
+        Person person = null;
+        Address address = null;
+        String notes = null;
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "entryId" -> entryId = readInt(reader);
+                case "notes" -> notes = readString(reader);
+                case "person" -> person = readPerson(reader);
+                case "address" -> address = readAddress(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return new Entry(entryId, person, address, notes);
+    }
+
+    private Person readPerson(BsonReader reader) {
+        if (readNull(reader)) {
+            return null;
+        }
+        String firstName = null;
+        String lastName = null;
+        Integer age = null;
+        String genderStr = null;
+        String maritalStatusStr = null;
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "firstName" -> firstName = readString(reader);
+                case "lastName" -> lastName = readString(reader);
+                case "age" -> age = readInt(reader);
+                case "gender" -> genderStr = readString(reader);
+                case "maritalStatus" -> maritalStatusStr = readString(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return new Person(
+                firstName,
+                lastName,
+                age,
                 genderStr != null && !genderStr.isEmpty() ? Gender.valueOf(genderStr) : null,
                 maritalStatusStr != null && !maritalStatusStr.isEmpty() ? MaritalStatus.valueOf(maritalStatusStr) : null
         );
+    }
 
-        BsonDocument addressDoc = document.getDocument("address");
-        Address address = new Address(
-                getBsonString(addressDoc, "street"),
-                getBsonString(addressDoc, "city"),
-                getBsonString(addressDoc, "state"),
-                getBsonString(addressDoc, "zip"),
-                getBsonString(addressDoc, "email"),
-                getBsonString(addressDoc, "phone")
-        );
-
-        return new Entry(
-                document.getInt32("entryId").getValue(),
-                person,
-                address,
-                getBsonString(document, "notes")
-        );
+    private Address readAddress(BsonReader reader) {
+        if (readNull(reader)) {
+            return null;
+        }
+        String street = null;
+        String city = null;
+        String state = null;
+        String zip = null;
+        String email = null;
+        String phone = null;
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "street" -> street = readString(reader);
+                case "city" -> city = readString(reader);
+                case "state" -> state = readString(reader);
+                case "zip" -> zip = readString(reader);
+                case "email" -> email = readString(reader);
+                case "phone" -> phone = readString(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return new Address(street, city, state, zip, email, phone);
     }
 
     /**
-     * Safely get a string value from a BSON document, handling null values
+     * Safely read a string value, handling null values
      */
-    private String getBsonString(BsonDocument doc, String key) {
-        if (doc.containsKey(key) && !doc.get(key).isNull()) {
-            return doc.getString(key).getValue();
+    private String readString(BsonReader reader) {
+        return readNull(reader) ? null : reader.readString();
+    }
+
+    private Integer readInt(BsonReader reader) {
+        return readNull(reader) ? null : reader.readInt32();
+    }
+
+    private boolean readNull(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.NULL) {
+            reader.readNull();
+            return true;
         }
-        return null;
+        return false;
     }
 
 }
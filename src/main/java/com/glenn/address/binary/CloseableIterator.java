@@ -0,0 +1,28 @@
+package com.glenn.address.binary;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterator over an open input that must be closed once the caller is done with it.
+ * Use it in a try-with-resources block; errors reading or closing the input surface as UncheckedIOException.
+ *
+ * @param <T> element type
+ */
+public interface CloseableIterator<T> extends Iterator<T>, Closeable {
+
+    @Override
+    void close();
+
+    /**
+     * Wraps the remaining elements in a sequential stream that closes this iterator when the stream is closed.
+     */
+    default Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+}
@@ -9,15 +9,15 @@ import org.apache.avro.io.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Implementation of BinaryService for reading/writing entries in Avro format with three-layer obfuscation.
@@ -115,15 +115,8 @@ public class EncodedService implements BinaryService {
      */
     @Override
     public void writeEntries(List<Entry> entries, String outputFile) {
-        try (FileOutputStream fos = new FileOutputStream(outputFile)) {
-            Encoder encoder = EncoderFactory.get().binaryEncoder(fos, null);
-            DatumWriter<GenericRecord> datumWriter = new org.apache.avro.generic.GenericDatumWriter<>(schema);
-
-            for (Entry entry : entries) {
-                GenericRecord avroRecord = entryToAvroRecord(entry);
-                datumWriter.write(avroRecord, encoder);
-            }
-            encoder.flush();
+        try {
+            writeEntries(entries.iterator(), outputFile);
             logger.info("Successfully wrote {} entries to Avro encoded file: {}", entries.size(), outputFile);
         } catch (IOException e) {
             logger.error("Failed to write entries to Avro encoded file: {}", outputFile, e);
@@ -131,6 +124,29 @@ public class EncodedService implements BinaryService {
         }
     }
 
+    /**
+     * Opens a sink writing each Entry in obfuscated Avro binary format.
+     *
+     * @param out Output stream, flushed but left open when the sink is closed
+     * @return EntrySink for the stream
+     */
+    @Override
+    public EntrySink openSink(OutputStream out) {
+        Encoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        DatumWriter<GenericRecord> datumWriter = new org.apache.avro.generic.GenericDatumWriter<>(schema);
+        return new EntryWriter() {
+            @Override
+            protected void write(Entry entry) throws IOException {
+                datumWriter.write(entryToAvroRecord(entry), encoder);
+            }
+
+            @Override
+            protected void finish() throws IOException {
+                encoder.flush();
+            }
+        };
+    }
+
     /**
      * Convert Entry object to Avro GenericRecord with Base64-encoded strings
      */
@@ -198,30 +214,41 @@ public class EncodedService implements BinaryService {
      */
     @Override
     public List<Entry> readEntries(String inputFile) {
-        List<Entry> entries = new ArrayList<>();
-        try (FileInputStream fis = new FileInputStream(inputFile)) {
-            Decoder decoder = DecoderFactory.get().binaryDecoder(fis, null);
-            DatumReader<GenericRecord> datumReader = new org.apache.avro.generic.GenericDatumReader<>(schema);
-
-            GenericRecord avroRecord;
-            while (true) {
-                try {
-                    avroRecord = datumReader.read(null, decoder);
-                    Entry entry = avroRecordToEntry(avroRecord);
-                    entries.add(entry);
-                } catch (java.io.EOFException e) {
-                    // End of file reached
-                    break;
-                }
-            }
+        List<Entry> entries;
+        try (Stream<Entry> stream = streamEntries(inputFile)) {
+            entries = stream.toList();
             logger.info("Successfully read {} entries from Avro encoded binary file: {}", entries.size(), inputFile);
-        } catch (IOException e) {
+        } catch (IOException | UncheckedIOException e) {
             logger.error("Failed to read entries from Avro encoded file: {}", inputFile, e);
             throw new RuntimeException("Failed to read entries from Avro encoded file", e);
         }
         return entries;
     }
 
+    /**
+     * Reads entries lazily from obfuscated Avro binary data, deobfuscating each one as it is pulled.
+     *
+     * @param in Input stream of concatenated Avro binary datums, closed with the returned iterator
+     * @return CloseableIterator of Entry objects with deobfuscated plaintext strings
+     */
+    @Override
+    public CloseableIterator<Entry> iterateEntries(InputStream in) {
+        BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(in, null);
+        DatumReader<GenericRecord> datumReader = new org.apache.avro.generic.GenericDatumReader<>(schema);
+        return new EntryReader(in) {
+            private GenericRecord reuse;
+
+            @Override
+            protected Entry readNext() throws IOException {
+                if (decoder.isEnd()) {
+                    return null;
+                }
+                reuse = datumReader.read(reuse, decoder);
+                return avroRecordToEntry(reuse);
+            }
+        };
+    }
+
     /**
      * Convert Avro GenericRecord to Entry object, decoding Base64 strings
      */
@@ -0,0 +1,201 @@
+package com.glenn.address.binary;
+
+import com.glenn.address.domain.*;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.util.Utf8;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Hand-written Avro binary codec for Entry, wire-compatible with entry-schema.avsc.
+ * Fields are written straight from the Entry, Person and Address records in schema order, with no
+ * GenericRecord in between: strings are UTF-8 encoded into a reused buffer, and gender and marital status
+ * use their names' bytes, encoded once. Reading decodes strings through a reused Utf8 and matches enum names
+ * against the same bytes, so the only objects allocated per entry are the records and their strings.
+ * An instance keeps those buffers between calls, so it must not be shared between threads.
+ */
+public final class EntryAvroCodec {
+    private static final Gender[] GENDERS = Gender.values();
+    private static final MaritalStatus[] MARITAL_STATUSES = MaritalStatus.values();
+    private static final byte[][] GENDER_NAMES = names(GENDERS);
+    private static final byte[][] MARITAL_STATUS_NAMES = names(MARITAL_STATUSES);
+
+    private byte[] scratch = new byte[256];
+    private Utf8 utf8 = new Utf8();
+
+    private static byte[][] names(Enum<?>[] values) {
+        return Arrays.stream(values)
+                .map(value -> value.toString().getBytes(StandardCharsets.UTF_8))
+                .toArray(byte[][]::new);
+    }
+
+    /**
+     * Write one Entry as a single Avro binary datum
+     *
+     * @param entry   Entry to serialize; person, first name and last name are required by the schema
+     * @param encoder Encoder to write to; not flushed
+     */
+    public void write(Entry entry, BinaryEncoder encoder) throws IOException {
+        writeNullableInt(entry.entryId(), encoder);
+
+        Person person = required(entry.person(), "person");
+        writeString(required(person.firstName(), "person.firstName"), encoder);
+        writeString(required(person.lastName(), "person.lastName"), encoder);
+        writeNullableInt(person.age(), encoder);
+        writeNullableName(person.gender() != null ? GENDER_NAMES[person.gender().ordinal()] : null, encoder);
+        writeNullableName(person.maritalStatus() != null ? MARITAL_STATUS_NAMES[person.maritalStatus().ordinal()] : null, encoder);
+
+        Address address = required(entry.address(), "address");
+        writeNullableString(address.street(), encoder);
+        writeNullableString(address.city(), encoder);
+        writeNullableString(address.state(), encoder);
+        writeNullableString(address.zip(), encoder);
+        writeNullableString(address.email(), encoder);
+        writeNullableString(address.phone(), encoder);
+
+        writeNullableString(entry.notes(), encoder);
+    }
+
+    /**
+     * Read one Entry from a single Avro binary datum
+     *
+     * @param decoder Decoder positioned at the datum
+     * @return the decoded Entry
+     */
+    public Entry read(BinaryDecoder decoder) throws IOException {
+        Integer entryId = readNullable(decoder) ? decoder.readInt() : null;
+
+        String firstName = readString(decoder);
+        String lastName = readString(decoder);
+        Integer age = readNullable(decoder) ? decoder.readInt() : null;
+        Gender gender = readNullable(decoder) ? readEnum(decoder, GENDERS, GENDER_NAMES) : null;
+        MaritalStatus maritalStatus = readNullable(decoder)
+                ? readEnum(decoder, MARITAL_STATUSES, MARITAL_STATUS_NAMES) : null;
+        Person person = new Person(firstName, lastName, age, gender, maritalStatus);
+
+        Address address = new Address(
+                readNullableString(decoder),
+                readNullableString(decoder),
+                readNullableString(decoder),
+                readNullableString(decoder),
+                readNullableString(decoder),
+                readNullableString(decoder)
+        );
+
+        return new Entry(entryId, person, address, readNullableString(decoder));
+    }
+
+    private static <T> T required(T value, String field) {
+        if (value == null) {
+            throw new NullPointerException("null value for (non-nullable) field Entry." + field);
+        }
+        return value;
+    }
+
+    /**
+     * A ["null", x] union is written as branch index 0 for null, or 1 followed by the value
+     */
+    private static void writeNullableInt(Integer value, BinaryEncoder encoder) throws IOException {
+        if (value == null) {
+            encoder.writeIndex(0);
+        } else {
+            encoder.writeIndex(1);
+            encoder.writeInt(value);
+        }
+    }
+
+    private static void writeNullableName(byte[] name, BinaryEncoder encoder) throws IOException {
+        if (name == null) {
+            encoder.writeIndex(0);
+        } else {
+            encoder.writeIndex(1);
+            // a string is written exactly like bytes: length, then the UTF-8 bytes
+            encoder.writeBytes(name, 0, name.length);
+        }
+    }
+
+    private void writeNullableString(String value, BinaryEncoder encoder) throws IOException {
+        if (value == null) {
+            encoder.writeIndex(0);
+        } else {
+            encoder.writeIndex(1);
+            writeString(value, encoder);
+        }
+    }
+
+    private void writeString(String value, BinaryEncoder encoder) throws IOException {
+        encoder.writeBytes(scratch, 0, encodeUtf8(value));
+    }
+
+    /**
+     * UTF-8 encode into the scratch buffer, as String.getBytes would, with '?' for an unpaired surrogate
+     *
+     * @return number of bytes
+     */
+    private int encodeUtf8(String value) {
+        int length = value.length();
+        if (scratch.length < length * 3) {
+            scratch = new byte[Math.max(length * 3, scratch.length * 2)];
+        }
+        byte[] bytes = scratch;
+        int pos = 0;
+        for (int xx = 0; xx < length; xx++) {
+            char ch = value.charAt(xx);
+            if (ch < 0x80) {
+                bytes[pos++] = (byte) ch;
+            } else if (ch < 0x800) {
+                bytes[pos++] = (byte) (0xc0 | (ch >> 6));
+                bytes[pos++] = (byte) (0x80 | (ch & 0x3f));
+            } else if (Character.isHighSurrogate(ch) && xx + 1 < length && Character.isLowSurrogate(value.charAt(xx + 1))) {
+                int cp = Character.toCodePoint(ch, value.charAt(++xx));
+                bytes[pos++] = (byte) (0xf0 | (cp >> 18));
+                bytes[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                bytes[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                bytes[pos++] = (byte) (0x80 | (cp & 0x3f));
+            } else if (Character.isSurrogate(ch)) {
+                bytes[pos++] = '?';
+            } else {
+                bytes[pos++] = (byte) (0xe0 | (ch >> 12));
+                bytes[pos++] = (byte) (0x80 | ((ch >> 6) & 0x3f));
+                bytes[pos++] = (byte) (0x80 | (ch & 0x3f));
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * @return true if the union holds a value, false for null
+     */
+    private static boolean readNullable(BinaryDecoder decoder) throws IOException {
+        int index = decoder.readIndex();
+        if (index != 0 && index != 1) {
+            throw new AvroRuntimeException("Invalid union index " + index + " for a nullable field");
+        }
+        return index == 1;
+    }
+
+    private String readNullableString(BinaryDecoder decoder) throws IOException {
+        return readNullable(decoder) ? readString(decoder) : null;
+    }
+
+    private String readString(BinaryDecoder decoder) throws IOException {
+        utf8 = decoder.readString(utf8);
+        return new String(utf8.getBytes(), 0, utf8.getByteLength(), StandardCharsets.UTF_8);
+    }
+
+    private <E extends Enum<E>> E readEnum(BinaryDecoder decoder, E[] values, byte[][] names) throws IOException {
+        utf8 = decoder.readString(utf8);
+        for (int xx = 0; xx < names.length; xx++) {
+            if (Arrays.equals(utf8.getBytes(), 0, utf8.getByteLength(), names[xx], 0, names[xx].length)) {
+                return values[xx];
+            }
+        }
+        // not a name this build knows; fail as Enum.valueOf would
+        throw new IllegalArgumentException("No enum constant " + values.getClass().getComponentType().getName()
+                + "." + utf8);
+    }
+}
@@ -0,0 +1,65 @@
+package com.glenn.address.binary;
+
+import com.glenn.address.domain.Entry;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.NoSuchElementException;
+
+/**
+ * Base for the lazy readers behind BinaryService.iterateEntries.
+ * Subclasses decode one entry per call to readNext, so only the entry being decoded is held in memory;
+ * read errors surface as UncheckedIOException.
+ */
+abstract class EntryReader implements CloseableIterator<Entry> {
+    private final Closeable input;
+    private Entry next;
+    private boolean done = false;
+
+    /**
+     * @param input closed with this reader
+     */
+    EntryReader(Closeable input) {
+        this.input = input;
+    }
+
+    /**
+     * @return the next entry, or null at the end of the input
+     */
+    protected abstract Entry readNext() throws IOException;
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !done) {
+            try {
+                next = readNext();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            done = next == null;
+        }
+        return next != null;
+    }
+
+    @Override
+    public Entry next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Entry entry = next;
+        next = null;
+        return entry;
+    }
+
+    @Override
+    public void close() {
+        done = true;
+        next = null;
+        try {
+            input.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
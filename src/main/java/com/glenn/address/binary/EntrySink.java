@@ -0,0 +1,23 @@
+package com.glenn.address.binary;
+
+import com.glenn.address.domain.Entry;
+
+import java.io.Closeable;
+import java.util.function.Consumer;
+
+/**
+ * Push-style writer of entries in a binary format, for producers that hand over one entry at a time,
+ * such as Stream.forEach. Each accepted entry is encoded at once, so memory use does not grow with the
+ * number of entries. Write errors surface as UncheckedIOException.
+ * Closing the sink finishes the format and flushes the output stream, but leaves the stream open.
+ */
+public interface EntrySink extends Consumer<Entry>, Closeable {
+
+    /**
+     * @return number of entries written so far
+     */
+    long count();
+
+    @Override
+    void close();
+}
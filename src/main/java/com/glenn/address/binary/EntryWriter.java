@@ -0,0 +1,53 @@
+package com.glenn.address.binary;
+
+import com.glenn.address.domain.Entry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Base for the sinks behind BinaryService.openSink.
+ * Subclasses encode one entry per call to write and complete the format in finish, which runs once on close.
+ */
+abstract class EntryWriter implements EntrySink {
+    private long count = 0;
+    private boolean closed = false;
+
+    protected abstract void write(Entry entry) throws IOException;
+
+    /**
+     * Writes whatever ends the format and flushes the output stream, without closing it.
+     */
+    protected abstract void finish() throws IOException;
+
+    @Override
+    public void accept(Entry entry) {
+        if (closed) {
+            throw new IllegalStateException("Entry sink is closed");
+        }
+        try {
+            write(entry);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        count++;
+    }
+
+    @Override
+    public long count() {
+        return count;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
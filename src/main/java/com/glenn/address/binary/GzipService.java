@@ -2,14 +2,16 @@ package com.glenn.address.binary;
 
 import com.glenn.address.domain.Entry;
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Stream;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
@@ -20,6 +22,9 @@ import java.util.zip.GZIPOutputStream;
 public class GzipService implements BinaryService {
     private static final Logger logger = LoggerFactory.getLogger(GzipService.class);
     private static final String OUT_FILE_NAME = "output-data.gz";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Gson gson = new Gson();
 
     /**
      * Write Entry objects to gzip-compressed JSON format
@@ -29,14 +34,8 @@ public class GzipService implements BinaryService {
      */
     @Override
     public void writeEntries(List<Entry> entries, String outputFile) {
-        try (FileOutputStream fos = new FileOutputStream(outputFile);
-             GZIPOutputStream gzos = new GZIPOutputStream(fos);
-             OutputStreamWriter osw = new OutputStreamWriter(gzos, StandardCharsets.UTF_8)) {
-
-            Gson gson = new Gson();
-            gson.toJson(entries, osw);
-            osw.flush();
-
+        try {
+            writeEntries(entries.iterator(), outputFile);
             logger.info("Successfully wrote {} entries to gzip file: {}", entries.size(), outputFile);
         } catch (IOException e) {
             logger.error("Failed to write entries to gzip file: {}", outputFile, e);
@@ -44,6 +43,61 @@ public class GzipService implements BinaryService {
         }
     }
 
+    /**
+     * Open a sink writing each Entry as an element of a gzip-compressed JSON array.
+     * A Gson JsonWriter emits the same compact array as writing the whole list at once.
+     *
+     * @param out Output stream, left open once the array is closed and the gzip trailer written
+     * @return EntrySink for the stream
+     */
+    @Override
+    public EntrySink openSink(OutputStream out) throws IOException {
+        GZIPOutputStream gzos = new GZIPOutputStream(out, BUFFER_SIZE);
+        JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(gzos, StandardCharsets.UTF_8), BUFFER_SIZE));
+        writer.beginArray();
+        return new EntryWriter() {
+            @Override
+            protected void write(Entry entry) {
+                gson.toJson(entry, Entry.class, writer);
+            }
+
+            @Override
+            protected void finish() throws IOException {
+                writer.endArray();
+                writer.flush();
+                gzos.finish();
+                out.flush();
+            }
+        };
+    }
+
+    /**
+     * Encode one chunk of a parallel write as a gzip member of its own, holding its part of the JSON array:
+     * the opening bracket in the first chunk, a comma before every element but the first, the closing bracket
+     * in the last. GZIPInputStream reads concatenated members as one stream, so the members decompress to the
+     * same array the serial writer produces.
+     *
+     * @param out Buffer for the chunk, closed with the gzip member
+     */
+    @Override
+    public void encodeChunk(List<Entry> chunk, boolean first, boolean last, OutputStream out) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(out, BUFFER_SIZE),
+                StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            if (first) {
+                writer.write('[');
+            }
+            for (int xx = 0; xx < chunk.size(); xx++) {
+                if (!first || xx > 0) {
+                    writer.write(',');
+                }
+                gson.toJson(chunk.get(xx), Entry.class, writer);
+            }
+            if (last) {
+                writer.write(']');
+            }
+        }
+    }
+
     /**
      * Serialize JSON string to gzip-compressed format
      *
@@ -68,6 +122,34 @@ public class GzipService implements BinaryService {
         }
     }
 
+    /**
+     * Read entries lazily from gzip-compressed JSON, binding one array element at a time with a Gson JsonReader
+     *
+     * @param in Input stream of a gzip-compressed JSON array, closed with the returned iterator
+     * @return CloseableIterator of Entry objects
+     */
+    @Override
+    public CloseableIterator<Entry> iterateEntries(InputStream in) throws IOException {
+        JsonReader reader;
+        try {
+            reader = new JsonReader(new InputStreamReader(new GZIPInputStream(in, BUFFER_SIZE), StandardCharsets.UTF_8));
+            reader.beginArray();
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+        return new EntryReader(reader) {
+            @Override
+            protected Entry readNext() throws IOException {
+                if (!reader.hasNext()) {
+                    reader.endArray();
+                    return null;
+                }
+                return gson.fromJson(reader, Entry.class);
+            }
+        };
+    }
+
     /**
      * Read entries from gzip-compressed JSON file
      *
@@ -76,20 +158,11 @@ public class GzipService implements BinaryService {
      */
     @Override
     public List<Entry> readEntries(String inputFile) {
-        List<Entry> entries = new ArrayList<>();
-        try (FileInputStream fis = new FileInputStream(inputFile);
-             GZIPInputStream gzis = new GZIPInputStream(fis);
-             InputStreamReader isr = new InputStreamReader(gzis, StandardCharsets.UTF_8)) {
-
-            Gson gson = new Gson();
-            Entry[] entriesArray = gson.fromJson(isr, Entry[].class);
-
-            if (entriesArray != null) {
-                entries = Arrays.asList(entriesArray);
-            }
-
+        List<Entry> entries;
+        try (Stream<Entry> stream = streamEntries(inputFile)) {
+            entries = stream.toList();
             logger.info("Successfully read {} entries from gzip file: {}", entries.size(), inputFile);
-        } catch (IOException e) {
+        } catch (IOException | UncheckedIOException e) {
             logger.error("Failed to read entries from gzip file: {}", inputFile, e);
             throw new RuntimeException("Failed to read entries from gzip file", e);
         }
@@ -0,0 +1,125 @@
+package com.glenn.address.binary;
+
+import com.glenn.address.domain.Entry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Writes entries with the encoding spread over a pool, for BinaryService.writeEntriesParallel.
+ * The calling thread pulls chunks of entries from the iterator and submits each to the pool, which encodes
+ * it into its own buffer through BinaryService.encodeChunk; the calling thread then writes the buffers to the
+ * channel in submission order. At most maxInFlight chunks are held at once, so memory use stays bounded
+ * however many entries there are.
+ */
+final class ParallelEntryWriter {
+    static final int DEFAULT_CHUNK_ENTRIES = 4096;
+
+    private final BinaryService service;
+    private final ExecutorService executor;
+    private final int chunkEntries;
+    private final int maxInFlight;
+
+    ParallelEntryWriter(BinaryService service, ExecutorService executor, int chunkEntries, int maxInFlight) {
+        this.service = service;
+        this.executor = executor;
+        this.chunkEntries = chunkEntries;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Buffer whose contents can be written without copying them to a new array
+     */
+    private static class ChunkBuffer extends ByteArrayOutputStream {
+        ChunkBuffer(int size) {
+            super(size);
+        }
+
+        ByteBuffer contents() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+
+    /**
+     * @return number of entries written
+     */
+    long write(Iterator<Entry> entries, WritableByteChannel channel) throws IOException {
+        Deque<Future<ByteBuffer>> inFlight = new ArrayDeque<>();
+        long count = 0;
+        try {
+            List<Entry> chunk = nextChunk(entries);
+            boolean first = true;
+            // one chunk of look-ahead tells the encoder which chunk is last; an empty input is one empty chunk
+            do {
+                List<Entry> current = chunk;
+                chunk = nextChunk(entries);
+                boolean isFirst = first;
+                boolean isLast = chunk.isEmpty();
+                inFlight.add(executor.submit(() -> encode(current, isFirst, isLast)));
+                count += current.size();
+                first = false;
+                if (inFlight.size() >= maxInFlight) {
+                    writeFully(channel, await(inFlight.removeFirst()));
+                }
+            } while (!chunk.isEmpty());
+            while (!inFlight.isEmpty()) {
+                writeFully(channel, await(inFlight.removeFirst()));
+            }
+            return count;
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private List<Entry> nextChunk(Iterator<Entry> entries) {
+        List<Entry> chunk = new ArrayList<>(chunkEntries);
+        while (chunk.size() < chunkEntries && entries.hasNext()) {
+            chunk.add(entries.next());
+        }
+        return chunk;
+    }
+
+    private ByteBuffer encode(List<Entry> chunk, boolean first, boolean last) throws IOException {
+        ChunkBuffer buffer = new ChunkBuffer(Math.max(1024, chunk.size() * 128));
+        service.encodeChunk(chunk, first, last, buffer);
+        return buffer.contents();
+    }
+
+    private static ByteBuffer await(Future<ByteBuffer> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while encoding entries", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Failed to encode entries", cause);
+        }
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.glenn.address.config;
+
+import com.glenn.address.store.LogEntryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Spring configuration used with the "local" profile, for edge deployments without a MongoDB server.
+ * Entries are kept in an embedded log-structured store under store.directory and served by AddressApi;
+ * MongoService and the endpoints that depend on MongoDB are not created.
+ */
+@Configuration
+@Profile("local")
+public class LocalStoreConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public LogEntryRepository logEntryRepository(@Value("${store.directory:data}") String directory,
+                                                 @Value("${store.segmentBytes:67108864}") long segmentBytes,
+                                                 @Value("${store.compactionRatio:0.5}") double compactionRatio,
+                                                 @Value("${store.compactionIntervalSeconds:60}") long compactionIntervalSeconds,
+                                                 @Value("${store.syncWrites:false}") boolean syncWrites) throws IOException {
+        return new LogEntryRepository(Paths.get(directory), segmentBytes, compactionRatio,
+                compactionIntervalSeconds, syncWrites);
+    }
+}
@@ -0,0 +1,54 @@
+package com.glenn.address.config;
+
+import com.glenn.address.mongo.ConnectionPoolStats;
+import com.glenn.address.mongo.DatabaseConfig;
+import com.glenn.address.mongo.EntryCache;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Spring configuration for the MongoDB client.
+ * Builds a single application-wide MongoClient from the pool, timeout, compression and read preference
+ * settings in database.properties, with pool events recorded by ConnectionPoolStats: the blocking driver's
+ * client normally, or the reactive-streams driver's with the "reactive" profile, never both.
+ * Spring closes the client on shutdown. Also provides the entry cache shared by MongoService and StatsApi.
+ */
+@Configuration
+@Profile("!local")
+public class MongoConfig {
+
+    @Bean
+    public DatabaseConfig databaseConfig() {
+        return new DatabaseConfig();
+    }
+
+    @Bean
+    public ConnectionPoolStats connectionPoolStats() {
+        return new ConnectionPoolStats();
+    }
+
+    @Bean
+    public EntryCache entryCache(DatabaseConfig databaseConfig) {
+        return new EntryCache(databaseConfig);
+    }
+
+    @Bean(destroyMethod = "close")
+    @Profile("!reactive")
+    public MongoClient mongoClient(DatabaseConfig databaseConfig, ConnectionPoolStats connectionPoolStats) {
+        return MongoClients.create(databaseConfig.clientSettings()
+                .applyToConnectionPoolSettings(pool -> pool.addConnectionPoolListener(connectionPoolStats))
+                .build());
+    }
+
+    @Bean(destroyMethod = "close")
+    @Profile("reactive")
+    public com.mongodb.reactivestreams.client.MongoClient reactiveMongoClient(DatabaseConfig databaseConfig,
+                                                                             ConnectionPoolStats connectionPoolStats) {
+        return com.mongodb.reactivestreams.client.MongoClients.create(databaseConfig.clientSettings()
+                .applyToConnectionPoolSettings(pool -> pool.addConnectionPoolListener(connectionPoolStats))
+                .build());
+    }
+}
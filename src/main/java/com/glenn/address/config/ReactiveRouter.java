@@ -0,0 +1,54 @@
+package com.glenn.address.config;
+
+import com.glenn.address.web.ReactiveAddressHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.reactive.config.CorsRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Spring WebFlux configuration used with the "reactive" profile.
+ * Maps the /api/entries endpoints onto ReactiveAddressHandler and applies the same CORS rules as WebConfig.
+ * File-based export, import and printing are only available on the servlet stack.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveRouter implements WebFluxConfigurer {
+
+    @Bean
+    public RouterFunction<ServerResponse> entryRoutes(ReactiveAddressHandler handler) {
+        return route()
+                .path("/api/entries", builder -> builder
+                        .GET("", handler::getAllEntries)
+                        .GET("/stream", handler::streamAllEntries)
+                        .GET("/summary", handler::getEntrySummaries)
+                        .GET("/sortById", handler::getAllEntriesSortedById)
+                        .GET("/sortByLastName", handler::getAllEntriesSortedByLastName)
+                        .GET("/search/lastName/{lastName}", handler::searchByLastName)
+                        .GET("/search/name/{firstName}/{lastName}", handler::searchByFirstAndLastName)
+                        .GET("/{entryId}", handler::getEntryById)
+                        .POST("/saveList", handler::saveEntries)
+                        .POST("/save", handler::saveOneEntry)
+                        .POST("/batchGet", handler::batchGet)
+                        .POST("/batchDelete", handler::batchDelete)
+                        .DELETE("/range/{fromId}/{toId}", handler::deleteEntryIdRange)
+                        .PUT("/{entryId}", handler::replaceEntry)
+                        .PATCH("/{entryId}", handler::patchEntry)
+                        .DELETE("/{entryId}", handler::deleteEntryById))
+                .build();
+    }
+
+    @Override
+    public void addCorsMappings(CorsRegistry registry) {
+        registry.addMapping("/api/**")
+                .allowedOrigins("*")
+                .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
+                .allowedHeaders("*")
+                .maxAge(3600);
+    }
+}
@@ -0,0 +1,14 @@
+package com.glenn.address.domain;
+
+import java.util.List;
+
+/**
+ * Represents the result of deleting several entries in one request.
+ * A delete by ID range reports only the count, so found and missing are null.
+ *
+ * @param deleted number of entries deleted
+ * @param found requested IDs that matched at least one entry and were deleted
+ * @param missing requested IDs that matched no entry
+ */
+public record BatchDeleteResult(long deleted, List<Integer> found, List<Integer> missing) {
+}
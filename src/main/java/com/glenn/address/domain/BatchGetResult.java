@@ -0,0 +1,13 @@
+package com.glenn.address.domain;
+
+import java.util.List;
+
+/**
+ * Represents the result of looking up several entry IDs in one request.
+ *
+ * @param entries entries found, in the order their IDs were requested
+ * @param found requested IDs that matched at least one entry
+ * @param missing requested IDs that matched no entry
+ */
+public record BatchGetResult(List<Entry> entries, List<Integer> found, List<Integer> missing) {
+}
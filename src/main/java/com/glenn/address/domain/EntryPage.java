@@ -0,0 +1,13 @@
+package com.glenn.address.domain;
+
+import java.util.List;
+
+/**
+ * Represents one page of a keyset-paginated entry listing.
+ * The continuation token is opaque to clients and is null on the last page.
+ *
+ * @param entries entries on this page, in the requested sort order
+ * @param next continuation token for the following page, or null when there are no more entries
+ */
+public record EntryPage(List<Entry> entries, String next) {
+}
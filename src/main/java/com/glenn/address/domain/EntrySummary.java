@@ -0,0 +1,17 @@
+package com.glenn.address.domain;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Represents the identifying fields of an entry, for listings that do not need the full record.
+ * Serialized as a compact JSON array, [entryId, firstName, lastName], instead of an object.
+ *
+ * @param entryId unique identifier for the entry
+ * @param firstName person's first name
+ * @param lastName person's last name
+ */
+@JsonFormat(shape = JsonFormat.Shape.ARRAY)
+@JsonPropertyOrder({"entryId", "firstName", "lastName"})
+public record EntrySummary(Integer entryId, String firstName, String lastName) {
+}
@@ -0,0 +1,157 @@
+package com.glenn.address.jobs;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One background job: its state, progress counters, result and artifact.
+ * The worker reports progress through entryProcessed and counting; cancellation is cooperative,
+ * so a running job stops at its next progress report rather than being interrupted mid-write.
+ */
+public class Job {
+    private final String jobId;
+    private final JobType type;
+    private final Instant created = Instant.now();
+    private final AtomicReference<JobState> state = new AtomicReference<>(JobState.QUEUED);
+    private final LongAdder entriesProcessed = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private volatile boolean cancelRequested = false;
+    private volatile Instant started;
+    private volatile Instant finished;
+    private volatile String error;
+    private volatile Object result;
+    private volatile Path artifact;
+    private volatile Future<?> future;
+
+    Job(String jobId, JobType type) {
+        this.jobId = jobId;
+        this.type = type;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public JobType getType() {
+        return type;
+    }
+
+    public JobState getState() {
+        return state.get();
+    }
+
+    /**
+     * @return the artifact of a succeeded job, or null
+     */
+    public Path getArtifact() {
+        return state.get() == JobState.SUCCEEDED ? artifact : null;
+    }
+
+    /**
+     * Counts one processed entry. Throws CancellationException once cancellation has been requested,
+     * which unwinds the worker through its normal cleanup.
+     */
+    public void entryProcessed() {
+        checkCancelled();
+        entriesProcessed.increment();
+    }
+
+    /**
+     * Wraps an artifact output stream so every byte written is counted.
+     */
+    OutputStream counting(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                bytesWritten.increment();
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+                bytesWritten.add(len);
+            }
+        };
+    }
+
+    void checkCancelled() {
+        if (cancelRequested) {
+            throw new CancellationException("Job " + jobId + " was cancelled");
+        }
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    void setArtifact(Path artifact) {
+        this.artifact = artifact;
+    }
+
+    Path artifactPath() {
+        return artifact;
+    }
+
+    /**
+     * Moves a queued job to RUNNING; false if it was cancelled before it started.
+     */
+    boolean start() {
+        if (state.compareAndSet(JobState.QUEUED, JobState.RUNNING)) {
+            started = Instant.now();
+            return true;
+        }
+        return false;
+    }
+
+    void succeed(Object result) {
+        this.result = result;
+        finish(JobState.SUCCEEDED);
+    }
+
+    void fail(String error) {
+        this.error = error;
+        finish(JobState.FAILED);
+    }
+
+    void cancelled() {
+        finish(JobState.CANCELLED);
+    }
+
+    private void finish(JobState finalState) {
+        if (state.compareAndSet(JobState.RUNNING, finalState)) {
+            finished = Instant.now();
+        }
+    }
+
+    /**
+     * Requests cancellation. A queued job is cancelled at once; a running job stops at its next progress report.
+     *
+     * @return true if the job was still queued and is now cancelled
+     */
+    boolean cancel() {
+        cancelRequested = true;
+        if (state.compareAndSet(JobState.QUEUED, JobState.CANCELLED)) {
+            finished = Instant.now();
+            Future<?> queued = future;
+            if (queued != null) {
+                queued.cancel(false);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    public JobStatus status() {
+        JobState current = state.get();
+        return new JobStatus(jobId, type, current, entriesProcessed.sum(), bytesWritten.sum(), created, started,
+                finished, error, result, current == JobState.SUCCEEDED && artifact != null);
+    }
+}
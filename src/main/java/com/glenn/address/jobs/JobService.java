@@ -0,0 +1,251 @@
+package com.glenn.address.jobs;
+
+import com.glenn.address.domain.Entry;
+import com.glenn.address.mongo.FileDataUtil;
+import com.glenn.address.mongo.MongoService;
+import com.glenn.address.web.AddressBookPdf;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Runs imports, exports and PDF generation as background jobs, off the request threads.
+ * Jobs run on a bounded pool of jobs.maxConcurrent threads behind a queue of jobs.queueCapacity; a submission
+ * beyond that is rejected rather than queued without limit. Artifacts are written to jobs.directory (a temporary
+ * directory by default) and kept, with their job, until jobs.retainFinished newer jobs have finished.
+ * Jobs live in memory only and do not survive a restart.
+ */
+@Service
+@Profile("!reactive & !local")
+public class JobService {
+    private static final Logger logger = LoggerFactory.getLogger(JobService.class);
+
+    private final MongoService mongoService;
+    private final Path directory;
+    private final int retainFinished;
+    private final ThreadPoolExecutor executor;
+    private final AddressBookPdf addressBookPdf = new AddressBookPdf();
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Job> finished = new ConcurrentLinkedQueue<>();
+
+    @Autowired
+    public JobService(MongoService mongoService,
+                      @Value("${jobs.maxConcurrent:2}") int maxConcurrent,
+                      @Value("${jobs.queueCapacity:10}") int queueCapacity,
+                      @Value("${jobs.retainFinished:50}") int retainFinished,
+                      @Value("${jobs.directory:}") String directory) throws IOException {
+        this.mongoService = mongoService;
+        this.retainFinished = Math.max(1, retainFinished);
+        this.directory = directory.isBlank()
+                ? Files.createTempDirectory("address-jobs")
+                : Files.createDirectories(Paths.get(directory));
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                Thread.ofPlatform().name("job-", 1).daemon().factory());
+        logger.info("Running up to {} background jobs, writing artifacts to {}", maxConcurrent, this.directory);
+    }
+
+    /**
+     * Imports a JSON file under new entry IDs, streaming it into batched inserts.
+     * The result is the bulk write summary.
+     *
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public JobStatus submitImport(String fileName) {
+        return submit(JobType.IMPORT, job -> {
+            try (Stream<Entry> entries = new FileDataUtil(fileName).streamData()) {
+                return mongoService.importEntries(entries.peek(entry -> job.entryProcessed()));
+            }
+        });
+    }
+
+    /**
+     * Exports every entry in entryId order to a JSON artifact.
+     *
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public JobStatus submitExport(boolean compact) {
+        return submit(JobType.EXPORT, job -> {
+            try (Stream<Entry> entries = mongoService.streamSortedById();
+                 OutputStream out = artifactStream(job)) {
+                return new FileDataUtil(job.artifactPath().toString())
+                        .writeData(entries.peek(entry -> job.entryProcessed()), compact, out);
+            }
+        });
+    }
+
+    /**
+     * Renders every entry in entryId order to a PDF artifact.
+     *
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public JobStatus submitPrint() {
+        return submit(JobType.PRINT, job -> {
+            try (Stream<Entry> entries = mongoService.streamSortedById();
+                 OutputStream out = artifactStream(job)) {
+                return addressBookPdf.write(entries.iterator(), out, entry -> job.entryProcessed());
+            }
+        });
+    }
+
+    public Optional<Job> find(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * @return every known job, newest first
+     */
+    public List<JobStatus> list() {
+        return jobs.values().stream()
+                .map(Job::status)
+                .sorted(Comparator.comparing(JobStatus::created).reversed())
+                .toList();
+    }
+
+    /**
+     * Requests cancellation of a job.
+     *
+     * @return the job's status, or empty if there is no such job
+     */
+    public Optional<JobStatus> cancel(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return Optional.empty();
+        }
+        if (job.cancel()) {
+            // cancelled before it started: free its queue slot now
+            executor.purge();
+            retire(job);
+        }
+        return Optional.of(job.status());
+    }
+
+    /**
+     * Forgets a finished job and deletes its artifact.
+     *
+     * @return false if the job is unknown or still active
+     */
+    public boolean remove(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null || !job.getState().isFinished()) {
+            return false;
+        }
+        finished.remove(job);
+        discard(job);
+        return true;
+    }
+
+    private JobStatus submit(JobType type, JobWork work) {
+        Job job = new Job(UUID.randomUUID().toString(), type);
+        jobs.put(job.getJobId(), job);
+        try {
+            job.setFuture(executor.submit(() -> run(job, work)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getJobId());
+            throw e;
+        }
+        logger.debug("Submitted {} job {}", type, job.getJobId());
+        return job.status();
+    }
+
+    private void run(Job job, JobWork work) {
+        if (!job.start()) {
+            return;
+        }
+        try {
+            job.succeed(work.run(job));
+            logger.info("{} job {} finished after {} entries", job.getType(), job.getJobId(), job.status().entriesProcessed());
+        } catch (CancellationException e) {
+            job.cancelled();
+            deleteArtifact(job);
+            logger.info("{} job {} cancelled", job.getType(), job.getJobId());
+        } catch (Exception e) {
+            logger.error("{} job {} failed", job.getType(), job.getJobId(), e);
+            job.fail(e.getMessage());
+            deleteArtifact(job);
+        } finally {
+            retire(job);
+        }
+    }
+
+    private OutputStream artifactStream(Job job) throws IOException {
+        Path artifact = directory.resolve(job.getJobId() + "-" + job.getType().getArtifactName());
+        job.setArtifact(artifact);
+        return job.counting(Files.newOutputStream(artifact));
+    }
+
+    /**
+     * Records a finished job and evicts the oldest finished jobs beyond the retention limit.
+     */
+    private void retire(Job job) {
+        finished.add(job);
+        while (finished.size() > retainFinished) {
+            Job oldest = finished.poll();
+            if (oldest != null) {
+                discard(oldest);
+            }
+        }
+    }
+
+    private void discard(Job job) {
+        jobs.remove(job.getJobId());
+        deleteArtifact(job);
+    }
+
+    private void deleteArtifact(Job job) {
+        Path artifact = job.artifactPath();
+        if (artifact != null) {
+            try {
+                Files.deleteIfExists(artifact);
+            } catch (IOException e) {
+                logger.warn("Failed to delete job artifact {}", artifact, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(Job::cancel);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        jobs.values().forEach(this::deleteArtifact);
+        logger.info("Background jobs stopped");
+    }
+
+    /**
+     * The work of one job; returns the job's result.
+     */
+    @FunctionalInterface
+    private interface JobWork {
+        Object run(Job job) throws IOException;
+    }
+}
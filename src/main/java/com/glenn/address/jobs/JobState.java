@@ -0,0 +1,12 @@
+package com.glenn.address.jobs;
+
+/**
+ * Lifecycle of a background job. QUEUED and RUNNING are active; the others are final.
+ */
+public enum JobState {
+    QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED;
+
+    public boolean isFinished() {
+        return this != QUEUED && this != RUNNING;
+    }
+}
@@ -0,0 +1,23 @@
+package com.glenn.address.jobs;
+
+import java.time.Instant;
+
+/**
+ * Point-in-time view of a background job, as returned by the jobs API.
+ *
+ * @param jobId            job identifier
+ * @param type             kind of job
+ * @param state            current lifecycle state
+ * @param entriesProcessed entries read, written or rendered so far
+ * @param bytesWritten     bytes written to the artifact so far
+ * @param created          when the job was submitted
+ * @param started          when the job started running, or null while queued
+ * @param finished         when the job reached a final state, or null while active
+ * @param error            failure message, or null
+ * @param result           job-specific result, such as the bulk write summary of an import, or null
+ * @param downloadable     true once an artifact can be downloaded
+ */
+public record JobStatus(String jobId, JobType type, JobState state, long entriesProcessed, long bytesWritten,
+                        Instant created, Instant started, Instant finished, String error, Object result,
+                        boolean downloadable) {
+}
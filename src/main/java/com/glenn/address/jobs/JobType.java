@@ -0,0 +1,29 @@
+package com.glenn.address.jobs;
+
+/**
+ * Kinds of background job, with the file name and media type of the artifact each one produces.
+ */
+public enum JobType {
+    IMPORT(null, null),
+    EXPORT("export-data.json", "application/json"),
+    PRINT("address-book.pdf", "application/pdf");
+
+    private final String artifactName;
+    private final String mediaType;
+
+    JobType(String artifactName, String mediaType) {
+        this.artifactName = artifactName;
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * @return download file name of the artifact, or null if the job produces none
+     */
+    public String getArtifactName() {
+        return artifactName;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+}
@@ -0,0 +1,14 @@
+package com.glenn.address.mongo;
+
+/**
+ * Outcome of one unordered bulk insert batch.
+ *
+ * @param batch 1-based batch number in submission order
+ * @param size number of entries sent in the batch
+ * @param inserted number of entries inserted
+ * @param duplicates number of entries rejected because their entryId already exists
+ * @param failures number of entries rejected for any other reason
+ * @param error first error message for the batch, or null when it had no failures
+ */
+public record BatchResult(int batch, int size, int inserted, int duplicates, int failures, String error) {
+}
@@ -0,0 +1,34 @@
+package com.glenn.address.mongo;
+
+import java.util.List;
+
+/**
+ * Summary of a bulk insert, with totals and the per-batch results they were built from.
+ *
+ * @param batches number of batches sent
+ * @param inserted total entries inserted
+ * @param duplicates total entries rejected as duplicate entry IDs
+ * @param failures total entries rejected for any other reason
+ * @param results per-batch results in submission order
+ */
+public record BulkWriteSummary(int batches, long inserted, long duplicates, long failures, List<BatchResult> results) {
+
+    public static BulkWriteSummary of(List<BatchResult> results) {
+        long inserted = 0;
+        long duplicates = 0;
+        long failures = 0;
+        for (BatchResult result : results) {
+            inserted += result.inserted();
+            duplicates += result.duplicates();
+            failures += result.failures();
+        }
+        return new BulkWriteSummary(results.size(), inserted, duplicates, failures, List.copyOf(results));
+    }
+
+    /**
+     * @return true when every entry was inserted
+     */
+    public boolean complete() {
+        return duplicates == 0 && failures == 0;
+    }
+}
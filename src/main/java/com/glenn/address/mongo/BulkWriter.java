@@ -0,0 +1,177 @@
+package com.glenn.address.mongo;
+
+import com.glenn.address.domain.Entry;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.WriteModel;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bulk insert engine for address book entries.
+ * Splits the input into batches of a configurable size and sends each batch as an unordered bulkWrite,
+ * so one duplicate key no longer aborts the rest of the import. Batches run on a worker pool with a
+ * bounded number in flight: the calling thread encodes the next batch to BSON while earlier batches
+ * are on the network, and memory stays bounded by batchSize * (maxInFlight + 1) entries. A listener hears about
+ * the entries each batch inserted as soon as that batch finishes.
+ */
+public class BulkWriter {
+    private static final Logger logger = LoggerFactory.getLogger(BulkWriter.class);
+    private static final BulkWriteOptions UNORDERED = new BulkWriteOptions().ordered(false);
+
+    private final MongoCollection<RawBsonDocument> collection;
+    private final Codec<Entry> codec;
+    private final ExecutorService executor;
+    private final int batchSize;
+    private final int maxInFlight;
+
+    public BulkWriter(MongoCollection<Entry> collection, Codec<Entry> codec, ExecutorService executor,
+                      int batchSize, int maxInFlight) {
+        this.collection = collection.withDocumentClass(RawBsonDocument.class);
+        this.codec = codec;
+        this.executor = executor;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxInFlight = Math.max(1, maxInFlight);
+    }
+
+    /**
+     * Receives the entries a batch inserted, leaving out those rejected, on the worker thread that ran the batch.
+     */
+    @FunctionalInterface
+    public interface BatchListener {
+        void inserted(List<Entry> entries);
+    }
+
+    /**
+     * Insert all entries from the iterator and wait for every batch to finish.
+     *
+     * @param entries entries to insert, consumed on the calling thread
+     * @return totals and per-batch results
+     */
+    public BulkWriteSummary write(Iterator<Entry> entries) {
+        return write(entries, inserted -> {
+        });
+    }
+
+    /**
+     * Insert all entries from the iterator and wait for every batch to finish.
+     *
+     * @param entries  entries to insert, consumed on the calling thread
+     * @param listener told about each batch's inserted entries once the batch has finished
+     * @return totals and per-batch results
+     */
+    public BulkWriteSummary write(Iterator<Entry> entries, BatchListener listener) {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        List<Future<BatchResult>> futures = new ArrayList<>();
+        int batchNumber = 0;
+        try {
+            while (entries.hasNext()) {
+                List<WriteModel<RawBsonDocument>> batch = new ArrayList<>(batchSize);
+                List<Entry> batchEntries = new ArrayList<>(batchSize);
+                while (entries.hasNext() && batch.size() < batchSize) {
+                    Entry entry = entries.next();
+                    batch.add(new InsertOneModel<>(new RawBsonDocument(entry, codec)));
+                    batchEntries.add(entry);
+                }
+                inFlight.acquire();
+                int number = ++batchNumber;
+                try {
+                    futures.add(executor.submit(() -> {
+                        try {
+                            return insertBatch(number, batch, batchEntries, listener);
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                } catch (RuntimeException e) {
+                    inFlight.release();
+                    throw e;
+                }
+            }
+            return BulkWriteSummary.of(collect(futures));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new RuntimeException("Bulk write interrupted", e);
+        }
+    }
+
+    private List<BatchResult> collect(List<Future<BatchResult>> futures) throws InterruptedException {
+        List<BatchResult> results = new ArrayList<>(futures.size());
+        for (Future<BatchResult> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Bulk write batch failed", e.getCause());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Classify the write errors of a partially applied unordered batch into duplicates and other failures.
+     */
+    static BatchResult partialResult(int number, int size, MongoBulkWriteException e) {
+        int duplicates = 0;
+        for (BulkWriteError error : e.getWriteErrors()) {
+            if (ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+                duplicates++;
+            }
+        }
+        int inserted = e.getWriteResult().getInsertedCount();
+        int failures = size - inserted - duplicates;
+        String error = e.getWriteErrors().isEmpty() ? e.getMessage() : e.getWriteErrors().getFirst().getMessage();
+        logger.warn("Bulk batch {}: inserted {}, duplicates {}, failures {}", number, inserted, duplicates, failures);
+        return new BatchResult(number, size, inserted, duplicates, failures, error);
+    }
+
+    /**
+     * The entries of a partially applied unordered batch that were not rejected by a write error.
+     */
+    static List<Entry> insertedEntries(List<Entry> entries, MongoBulkWriteException e) {
+        boolean[] rejected = new boolean[entries.size()];
+        for (BulkWriteError error : e.getWriteErrors()) {
+            rejected[error.getIndex()] = true;
+        }
+        return IntStream.range(0, entries.size())
+                .filter(xx -> !rejected[xx])
+                .mapToObj(entries::get)
+                .toList();
+    }
+
+    private BatchResult insertBatch(int number, List<WriteModel<RawBsonDocument>> batch, List<Entry> entries,
+                                    BatchListener listener) {
+        BatchResult result;
+        List<Entry> inserted;
+        try {
+            int count = collection.bulkWrite(batch, UNORDERED).getInsertedCount();
+            logger.debug("Bulk batch {}: inserted {} of {}", number, count, batch.size());
+            result = new BatchResult(number, batch.size(), count, 0, 0, null);
+            inserted = entries;
+        } catch (MongoBulkWriteException e) {
+            result = partialResult(number, batch.size(), e);
+            inserted = insertedEntries(entries, e);
+        } catch (RuntimeException e) {
+            logger.error("Bulk batch {} failed", number, e);
+            return new BatchResult(number, batch.size(), 0, 0, batch.size(), e.getMessage());
+        }
+        // outside the try, so a failing listener is not counted against the batch
+        listener.inserted(inserted);
+        return result;
+    }
+}
@@ -0,0 +1,97 @@
+package com.glenn.address.mongo;
+
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection pool listener that keeps running counters for the MongoDB client pools.
+ * Makes pool saturation visible: how many connections are open and in use, how many operations
+ * are waiting for one, how long check-outs take, and how many timed out waiting.
+ */
+public class ConnectionPoolStats implements ConnectionPoolListener {
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPoolStats.class);
+
+    private final AtomicLong open = new AtomicLong();
+    private final AtomicLong inUse = new AtomicLong();
+    private final AtomicLong waiting = new AtomicLong();
+    private final LongAdder checkedOut = new LongAdder();
+    private final LongAdder checkOutFailures = new LongAdder();
+    private final LongAdder checkOutTimeouts = new LongAdder();
+    private final LongAdder totalWaitMicros = new LongAdder();
+    private final LongAccumulator maxWaitMicros = new LongAccumulator(Long::max, 0);
+
+    /**
+     * Point-in-time view of the pool counters.
+     *
+     * @param open             connections currently open
+     * @param inUse            connections currently checked out
+     * @param waiting          operations waiting for a connection
+     * @param checkedOut       total successful check-outs
+     * @param checkOutFailures total failed check-outs
+     * @param checkOutTimeouts failed check-outs that timed out waiting in the queue
+     * @param averageWaitMicros average time to check out a connection
+     * @param maxWaitMicros    longest time to check out a connection
+     */
+    public record Snapshot(long open, long inUse, long waiting, long checkedOut, long checkOutFailures,
+                           long checkOutTimeouts, long averageWaitMicros, long maxWaitMicros) {
+    }
+
+    public Snapshot snapshot() {
+        long count = checkedOut.sum();
+        return new Snapshot(open.get(), inUse.get(), waiting.get(), count, checkOutFailures.sum(),
+                checkOutTimeouts.sum(), count > 0 ? totalWaitMicros.sum() / count : 0, maxWaitMicros.get());
+    }
+
+    @Override
+    public void connectionCreated(ConnectionCreatedEvent event) {
+        open.incrementAndGet();
+    }
+
+    @Override
+    public void connectionClosed(ConnectionClosedEvent event) {
+        open.decrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+        waiting.incrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        waiting.decrementAndGet();
+        inUse.incrementAndGet();
+        checkedOut.increment();
+        long waitMicros = event.getElapsedTime(TimeUnit.MICROSECONDS);
+        totalWaitMicros.add(waitMicros);
+        maxWaitMicros.accumulate(waitMicros);
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        waiting.decrementAndGet();
+        checkOutFailures.increment();
+        if (event.getReason() == ConnectionCheckOutFailedEvent.Reason.TIMEOUT) {
+            checkOutTimeouts.increment();
+            logger.warn("Connection pool saturated: check-out timed out after {} ms with {} in use and {} waiting",
+                    event.getElapsedTime(TimeUnit.MILLISECONDS), inUse.get(), waiting.get());
+        }
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        inUse.decrementAndGet();
+    }
+}
@@ -1,15 +1,25 @@
 package com.glenn.address.mongo;
 
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadPreference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Manages MongoDB connection configuration loaded from database.properties file.
- * Provides access to MongoDB host, port, database name, and collection name settings.
+ * Provides access to MongoDB host, port, database name, collection name and counter collection settings,
+ * plus the connection pool, timeout, compression and read preference settings used to build the client
+ * and the sizing of the entry cache and in-memory name index.
  * Configuration values have sensible defaults if not specified in the properties file.
  */
 public class DatabaseConfig {
@@ -20,6 +30,23 @@ public class DatabaseConfig {
     private final int port;
     private final String database;
     private final String collection;
+    private final String counters;
+    private final int bulkBatchSize;
+    private final int bulkMaxInFlight;
+    private final int poolMinSize;
+    private final int poolMaxSize;
+    private final int poolMaxConnecting;
+    private final long poolMaxWaitMillis;
+    private final long poolMaxIdleMillis;
+    private final long connectTimeoutMillis;
+    private final long socketTimeoutMillis;
+    private final long serverSelectionTimeoutMillis;
+    private final List<String> compressors;
+    private final String readPreference;
+    private final long cacheMaxEntries;
+    private final long cacheMaxQueries;
+    private final long cacheTtlSeconds;
+    private final boolean nameIndexEnabled;
 
     public DatabaseConfig() {
         Properties props = new Properties();
@@ -36,9 +63,31 @@ public class DatabaseConfig {
             this.port = Integer.parseInt(props.getProperty("mongodb.port", "27017"));
             this.database = props.getProperty("mongodb.database", "mongo1j");
             this.collection = props.getProperty("mongodb.collection", "entries");
+            this.counters = props.getProperty("mongodb.counters", "counters");
+            this.bulkBatchSize = Integer.parseInt(props.getProperty("mongodb.bulk.batchSize", "1000"));
+            this.bulkMaxInFlight = Integer.parseInt(props.getProperty("mongodb.bulk.maxInFlight", "4"));
+            this.poolMinSize = Integer.parseInt(props.getProperty("mongodb.pool.minSize", "0"));
+            this.poolMaxSize = Integer.parseInt(props.getProperty("mongodb.pool.maxSize", "100"));
+            this.poolMaxConnecting = Integer.parseInt(props.getProperty("mongodb.pool.maxConnecting", "2"));
+            this.poolMaxWaitMillis = Long.parseLong(props.getProperty("mongodb.pool.maxWaitTimeMs", "120000"));
+            this.poolMaxIdleMillis = Long.parseLong(props.getProperty("mongodb.pool.maxIdleTimeMs", "0"));
+            this.connectTimeoutMillis = Long.parseLong(props.getProperty("mongodb.connectTimeoutMs", "10000"));
+            this.socketTimeoutMillis = Long.parseLong(props.getProperty("mongodb.socketTimeoutMs", "0"));
+            this.serverSelectionTimeoutMillis = Long.parseLong(props.getProperty("mongodb.serverSelectionTimeoutMs", "30000"));
+            this.compressors = Arrays.stream(props.getProperty("mongodb.compressors", "").split(","))
+                    .map(String::trim)
+                    .filter(name -> !name.isEmpty())
+                    .toList();
+            this.readPreference = props.getProperty("mongodb.readPreference", "primary");
+            this.cacheMaxEntries = Long.parseLong(props.getProperty("cache.entries.maxSize", "10000"));
+            this.cacheMaxQueries = Long.parseLong(props.getProperty("cache.queries.maxSize", "1000"));
+            this.cacheTtlSeconds = Long.parseLong(props.getProperty("cache.ttlSeconds", "300"));
+            this.nameIndexEnabled = Boolean.parseBoolean(props.getProperty("search.nameIndex.enabled", "false"));
 
-            logger.info("Database configuration loaded: host={}, port={}, database={}, collection={}",
-                       host, port, database, collection);
+            logger.info("Database configuration loaded: host={}, port={}, database={}, collection={}, counters={}",
+                       host, port, database, collection, counters);
+            logger.info("Connection pool configuration: minSize={}, maxSize={}, maxWaitTimeMs={}, compressors={}, readPreference={}",
+                       poolMinSize, poolMaxSize, poolMaxWaitMillis, compressors, readPreference);
         } catch (IOException e) {
             logger.error("Failed to load database configuration", e);
             throw new RuntimeException("Failed to load database configuration", e);
@@ -61,7 +110,83 @@ public class DatabaseConfig {
         return collection;
     }
 
+    public String getCounters() {
+        return counters;
+    }
+
+    public int getBulkBatchSize() {
+        return bulkBatchSize;
+    }
+
+    public int getBulkMaxInFlight() {
+        return bulkMaxInFlight;
+    }
+
     public String getConnectionString() {
         return String.format("mongodb://%s:%d", host, port);
     }
+
+    public int getPoolMinSize() {
+        return poolMinSize;
+    }
+
+    public int getPoolMaxSize() {
+        return poolMaxSize;
+    }
+
+    public List<String> getCompressors() {
+        return compressors;
+    }
+
+    public String getReadPreference() {
+        return readPreference;
+    }
+
+    public long getCacheMaxEntries() {
+        return cacheMaxEntries;
+    }
+
+    public long getCacheMaxQueries() {
+        return cacheMaxQueries;
+    }
+
+    public long getCacheTtlSeconds() {
+        return cacheTtlSeconds;
+    }
+
+    public boolean isNameIndexEnabled() {
+        return nameIndexEnabled;
+    }
+
+    /**
+     * Builds client settings from this configuration: connection string, pool sizing and wait queue
+     * timeout, connect/socket/server selection timeouts, wire compression and read preference.
+     * Returned as a builder so callers can add listeners before building.
+     */
+    public MongoClientSettings.Builder clientSettings() {
+        return MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(getConnectionString()))
+                .applyToConnectionPoolSettings(pool -> pool
+                        .minSize(poolMinSize)
+                        .maxSize(poolMaxSize)
+                        .maxConnecting(poolMaxConnecting)
+                        .maxWaitTime(poolMaxWaitMillis, TimeUnit.MILLISECONDS)
+                        .maxConnectionIdleTime(poolMaxIdleMillis, TimeUnit.MILLISECONDS))
+                .applyToSocketSettings(socket -> socket
+                        .connectTimeout(connectTimeoutMillis, TimeUnit.MILLISECONDS)
+                        .readTimeout(socketTimeoutMillis, TimeUnit.MILLISECONDS))
+                .applyToClusterSettings(cluster -> cluster
+                        .serverSelectionTimeout(serverSelectionTimeoutMillis, TimeUnit.MILLISECONDS))
+                .compressorList(compressors.stream().map(DatabaseConfig::compressor).toList())
+                .readPreference(ReadPreference.valueOf(readPreference));
+    }
+
+    private static MongoCompressor compressor(String name) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "zlib" -> MongoCompressor.createZlibCompressor();
+            case "snappy" -> MongoCompressor.createSnappyCompressor();
+            case "zstd" -> MongoCompressor.createZstdCompressor();
+            default -> throw new IllegalArgumentException("Unknown MongoDB compressor: " + name);
+        };
+    }
 }
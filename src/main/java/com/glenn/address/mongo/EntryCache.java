@@ -0,0 +1,181 @@
+package com.glenn.address.mongo;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.glenn.address.domain.Entry;
+import com.glenn.address.domain.Person;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-through cache for entry lookups in front of MongoDB.
+ * Holds by-id results and name search results in two size-bounded Caffeine caches (W-TinyLFU eviction)
+ * with a time-to-live. Writers invalidate precisely after the database write: the by-id slot of every
+ * written or deleted ID, plus every cached name search the entry matches or contains. Bulk inserts invalidate
+ * per batch, as each batch finishes. A name search still loading during a write is not visible to that pass,
+ * so every invalidation also bumps a write generation, and a search that saw the generation change while it
+ * loaded drops its own result once it is published.
+ */
+public class EntryCache {
+    /**
+     * Bulk write batches larger than this clear the name search cache instead of matching each entry against it.
+     */
+    static final int QUERY_SCAN_LIMIT = 256;
+
+    private final Cache<Integer, List<Entry>> byId;
+    private final Cache<NameQuery, List<Entry>> byName;
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Key for a name search, holding the normalized names; firstName is null for a last-name-only search.
+     * Both names are prefixes, matched the way EntryQueries matches them.
+     */
+    record NameQuery(String firstName, String lastName) {
+
+        boolean matches(Entry entry) {
+            Person person = entry.person();
+            return person != null
+                    && prefixMatches(lastName, person.lastName())
+                    && (firstName == null || prefixMatches(firstName, person.firstName()));
+        }
+
+        private static boolean prefixMatches(String prefix, String value) {
+            return value != null && NameKey.normalize(value).startsWith(prefix);
+        }
+    }
+
+    /**
+     * Hit, miss and eviction counters for one cache.
+     */
+    public record Stats(long size, long hits, long misses, double hitRate, long evictions) {
+
+        static Stats of(Cache<?, ?> cache) {
+            CacheStats stats = cache.stats();
+            return new Stats(cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                    stats.hitRate(), stats.evictionCount());
+        }
+    }
+
+    public record Snapshot(Stats byId, Stats byName) {
+    }
+
+    /**
+     * @param maxEntries maximum number of cached by-id results
+     * @param maxQueries maximum number of cached name searches
+     * @param ttl        how long a cached result may be served
+     */
+    public EntryCache(long maxEntries, long maxQueries, Duration ttl) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.byName = Caffeine.newBuilder()
+                .maximumSize(maxQueries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public EntryCache(DatabaseConfig config) {
+        this(config.getCacheMaxEntries(), config.getCacheMaxQueries(), Duration.ofSeconds(config.getCacheTtlSeconds()));
+    }
+
+    /**
+     * Returns the cached entries for an ID, loading them on a miss.
+     * A loader exception is passed to the caller and nothing is cached.
+     */
+    List<Entry> byId(Integer entryId, Function<Integer, List<Entry>> loader) {
+        return byId.get(entryId, id -> List.copyOf(loader.apply(id)));
+    }
+
+    /**
+     * Returns the cached entries for a name search, loading them on a miss.
+     * If a write was invalidated while the search ran, its result may predate the write, so it is returned
+     * but not kept; invalidating the key is ordered after the load by Caffeine.
+     */
+    List<Entry> byName(String firstName, String lastName, Function<NameQuery, List<Entry>> loader) {
+        NameQuery key = new NameQuery(NameKey.normalize(firstName), NameKey.normalize(lastName));
+        long start = generation.get();
+        List<Entry> entries = byName.get(key, query -> List.copyOf(loader.apply(query)));
+        if (generation.get() != start) {
+            byName.invalidate(key);
+        }
+        return entries;
+    }
+
+    /**
+     * Cached by-id results for the given IDs; IDs not in the cache are absent from the map.
+     */
+    Map<Integer, List<Entry>> present(Collection<Integer> entryIds) {
+        return byId.getAllPresent(entryIds);
+    }
+
+    void put(Integer entryId, List<Entry> entries) {
+        byId.put(entryId, List.copyOf(entries));
+    }
+
+    /**
+     * Invalidates everything a newly written entry could make stale.
+     */
+    void written(Entry entry) {
+        generation.incrementAndGet();
+        if (entry.entryId() != null) {
+            removed(entry.entryId());
+        }
+        byName.asMap().keySet().removeIf(query -> query.matches(entry));
+    }
+
+    /**
+     * Invalidates everything a batch of newly written entries could make stale.
+     * Batches larger than QUERY_SCAN_LIMIT clear the name searches outright.
+     */
+    void written(List<Entry> entries) {
+        generation.incrementAndGet();
+        entries.forEach(entry -> {
+            if (entry.entryId() != null) {
+                byId.invalidate(entry.entryId());
+            }
+        });
+        if (entries.size() > QUERY_SCAN_LIMIT) {
+            byName.invalidateAll();
+        } else {
+            entries.forEach(entry -> byName.asMap().keySet().removeIf(query -> query.matches(entry)));
+        }
+    }
+
+    /**
+     * Invalidates the by-id slot and every cached name search containing the entry.
+     */
+    void removed(Integer entryId) {
+        generation.incrementAndGet();
+        byId.invalidate(entryId);
+        byName.asMap().values().removeIf(entries -> entries.stream().anyMatch(e -> entryId.equals(e.entryId())));
+    }
+
+    /**
+     * Invalidates every by-id slot and cached name search touching an ID from fromId to toId, both inclusive.
+     */
+    void removedRange(int fromId, int toId) {
+        generation.incrementAndGet();
+        byId.asMap().keySet().removeIf(id -> id >= fromId && id <= toId);
+        byName.asMap().values().removeIf(entries -> entries.stream()
+                .anyMatch(e -> e.entryId() != null && e.entryId() >= fromId && e.entryId() <= toId));
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        byId.invalidateAll();
+        byName.invalidateAll();
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(Stats.of(byId), Stats.of(byName));
+    }
+}
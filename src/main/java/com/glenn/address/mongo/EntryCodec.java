@@ -0,0 +1,185 @@
+package com.glenn.address.mongo;
+
+import com.glenn.address.domain.*;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/**
+ * BSON codec for address book entries.
+ * Lets the driver decode wire bytes straight into Entry/Person/Address records (and encode them back)
+ * without building an intermediate Document or JSON string.
+ * The document layout matches what Jackson produced previously, so existing collections stay readable.
+ * Each document also carries normalized name keys under "search" (see NameKey) for indexed searches.
+ * Unknown fields, including MongoDB's _id and the search keys, are skipped on read.
+ */
+public class EntryCodec implements Codec<Entry> {
+
+    @Override
+    public void encode(BsonWriter writer, Entry entry, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        writeInteger(writer, "entryId", entry.entryId());
+
+        writer.writeName("person");
+        Person person = entry.person();
+        if (person == null) {
+            writer.writeNull();
+        } else {
+            writer.writeStartDocument();
+            writeString(writer, "firstName", person.firstName());
+            writeString(writer, "lastName", person.lastName());
+            writeInteger(writer, "age", person.age());
+            writeString(writer, "gender", person.gender() != null ? person.gender().name() : null);
+            writeString(writer, "maritalStatus", person.maritalStatus() != null ? person.maritalStatus().name() : null);
+            writer.writeEndDocument();
+        }
+
+        writer.writeName("address");
+        Address address = entry.address();
+        if (address == null) {
+            writer.writeNull();
+        } else {
+            writer.writeStartDocument();
+            writeString(writer, "street", address.street());
+            writeString(writer, "city", address.city());
+            writeString(writer, "state", address.state());
+            writeString(writer, "zip", address.zip());
+            writeString(writer, "email", address.email());
+            writeString(writer, "phone", address.phone());
+            writer.writeEndDocument();
+        }
+
+        writeString(writer, "notes", entry.notes());
+
+        // Normalized copies of the names for indexed prefix search; ignored on read
+        writer.writeStartDocument(NameKey.SEARCH);
+        writeString(writer, "firstName", person != null ? NameKey.normalize(person.firstName()) : null);
+        writeString(writer, "lastName", person != null ? NameKey.normalize(person.lastName()) : null);
+        writer.writeEndDocument();
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Entry decode(BsonReader reader, DecoderContext decoderContext) {
+        Integer entryId = null;
+        Person person = null;
+        Address address = null;
+        String notes = null;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "entryId" -> entryId = readInteger(reader);
+                case "person" -> person = readPerson(reader);
+                case "address" -> address = readAddress(reader);
+                case "notes" -> notes = readString(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return new Entry(entryId, person, address, notes);
+    }
+
+    @Override
+    public Class<Entry> getEncoderClass() {
+        return Entry.class;
+    }
+
+    private Person readPerson(BsonReader reader) {
+        if (reader.getCurrentBsonType() != BsonType.DOCUMENT) {
+            reader.skipValue();
+            return null;
+        }
+        String firstName = null;
+        String lastName = null;
+        Integer age = null;
+        String gender = null;
+        String maritalStatus = null;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "firstName" -> firstName = readString(reader);
+                case "lastName" -> lastName = readString(reader);
+                case "age" -> age = readInteger(reader);
+                case "gender" -> gender = readString(reader);
+                case "maritalStatus" -> maritalStatus = readString(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return new Person(firstName, lastName, age,
+                gender != null ? Gender.valueOf(gender) : null,
+                maritalStatus != null ? MaritalStatus.valueOf(maritalStatus) : null);
+    }
+
+    private Address readAddress(BsonReader reader) {
+        if (reader.getCurrentBsonType() != BsonType.DOCUMENT) {
+            reader.skipValue();
+            return null;
+        }
+        String street = null;
+        String city = null;
+        String state = null;
+        String zip = null;
+        String email = null;
+        String phone = null;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "street" -> street = readString(reader);
+                case "city" -> city = readString(reader);
+                case "state" -> state = readString(reader);
+                case "zip" -> zip = readString(reader);
+                case "email" -> email = readString(reader);
+                case "phone" -> phone = readString(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return new Address(street, city, state, zip, email, phone);
+    }
+
+    private static void writeString(BsonWriter writer, String name, String value) {
+        if (value == null) {
+            writer.writeNull(name);
+        } else {
+            writer.writeString(name, value);
+        }
+    }
+
+    private static void writeInteger(BsonWriter writer, String name, Integer value) {
+        if (value == null) {
+            writer.writeNull(name);
+        } else {
+            writer.writeInt32(name, value);
+        }
+    }
+
+    private static String readString(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.STRING) {
+            return reader.readString();
+        }
+        reader.skipValue();
+        return null;
+    }
+
+    /**
+     * Read a numeric field as an Integer, accepting the wider numeric types older documents may hold.
+     */
+    private static Integer readInteger(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case INT32 -> reader.readInt32();
+            case INT64 -> (int) reader.readInt64();
+            case DOUBLE -> (int) reader.readDouble();
+            default -> {
+                reader.skipValue();
+                yield null;
+            }
+        };
+    }
+}
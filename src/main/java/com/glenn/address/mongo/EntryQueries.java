@@ -0,0 +1,185 @@
+package com.glenn.address.mongo;
+
+import com.glenn.address.domain.BatchDeleteResult;
+import com.glenn.address.domain.BatchGetResult;
+import com.glenn.address.domain.Entry;
+import com.glenn.address.domain.EntryPage;
+import com.glenn.address.domain.EntrySummary;
+import com.glenn.address.domain.Person;
+import org.bson.BsonType;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.empty;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.gt;
+import static com.mongodb.client.model.Filters.gte;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Filters.lt;
+import static com.mongodb.client.model.Filters.lte;
+import static com.mongodb.client.model.Filters.or;
+import static com.mongodb.client.model.Filters.type;
+import static com.mongodb.client.model.Projections.excludeId;
+import static com.mongodb.client.model.Projections.fields;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Sorts.ascending;
+
+/**
+ * Filters and sort orders shared by the blocking and reactive MongoDB services,
+ * so both issue exactly the same queries against the same indexes.
+ */
+final class EntryQueries {
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int MAX_BATCH_SIZE = 1000;
+    static final Bson SORT_BY_ID = ascending("entryId");
+    static final Bson SORT_BY_LAST_NAME = ascending("person.lastName", "entryId");
+    static final String ENTRY_ID_INDEX = "entryId_unique";
+    static final String LAST_NAME_INDEX = "lastName_entryId";
+    static final String SEARCH_INDEX = "search_lastName_firstName";
+    static final String ENTRY_ID_COUNTER = "entryId";
+    static final String COUNTER_VALUE = "seq";
+    static final Bson SUMMARY_PROJECTION = fields(include("entryId", "person.firstName", "person.lastName"), excludeId());
+
+    private EntryQueries() {
+    }
+
+    static Bson byEntryId(Integer entryId) {
+        return eq("entryId", entryId);
+    }
+
+    static Bson byEntryIds(Collection<Integer> entryIds) {
+        return in("entryId", entryIds);
+    }
+
+    /**
+     * Entries with IDs from fromId to toId, both inclusive.
+     */
+    static Bson byEntryIdRange(int fromId, int toId) {
+        return and(gte("entryId", fromId), lte("entryId", toId));
+    }
+
+    /**
+     * Validates the IDs of a batch request.
+     *
+     * @return the IDs without duplicates, in request order
+     */
+    static List<Integer> checkBatch(List<Integer> entryIds) {
+        if (entryIds == null || entryIds.isEmpty() || entryIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch must contain between 1 and " + MAX_BATCH_SIZE + " entry IDs");
+        }
+        Set<Integer> ids = new LinkedHashSet<>(entryIds);
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("Entry IDs cannot be null");
+        }
+        return List.copyOf(ids);
+    }
+
+    static void checkRange(int fromId, int toId) {
+        if (fromId > toId) {
+            throw new IllegalArgumentException("Range start " + fromId + " is after range end " + toId);
+        }
+    }
+
+    /**
+     * Build a batch lookup result from the entries found for each ID.
+     */
+    static BatchGetResult toBatch(List<Integer> entryIds, Map<Integer, List<Entry>> byId) {
+        List<Entry> entries = new ArrayList<>();
+        List<Integer> found = new ArrayList<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : entryIds) {
+            List<Entry> matches = byId.getOrDefault(id, List.of());
+            entries.addAll(matches);
+            (matches.isEmpty() ? missing : found).add(id);
+        }
+        return new BatchGetResult(entries, found, missing);
+    }
+
+    static BatchDeleteResult toDeleteResult(List<Integer> entryIds, Collection<Integer> existing, long deleted) {
+        Set<Integer> present = new HashSet<>(existing);
+        Map<Boolean, List<Integer>> split = entryIds.stream().collect(Collectors.partitioningBy(present::contains));
+        return new BatchDeleteResult(deleted, split.get(true), split.get(false));
+    }
+
+    /**
+     * Case- and accent-insensitive prefix match on the last name, as a range on the normalized key.
+     * The input is compared literally, never interpreted as a pattern.
+     */
+    static Bson byLastName(String lastName) {
+        return prefix(NameKey.LAST_NAME, lastName);
+    }
+
+    static Bson byFirstAndLastName(String firstName, String lastName) {
+        return and(prefix(NameKey.LAST_NAME, lastName), prefix(NameKey.FIRST_NAME, firstName));
+    }
+
+    private static Bson prefix(String field, String name) {
+        String start = NameKey.normalize(name);
+        String end = NameKey.prefixEnd(start);
+        return end == null ? gte(field, start) : and(gte(field, start), lt(field, end));
+    }
+
+    static EntrySummary toSummary(Entry entry) {
+        Person person = entry.person();
+        return person == null
+                ? new EntrySummary(entry.entryId(), null, null)
+                : new EntrySummary(entry.entryId(), person.firstName(), person.lastName());
+    }
+
+    /**
+     * Range filter selecting the entries after the token in entryId order.
+     */
+    static Bson pageAfterId(String token) {
+        if (token == null) {
+            return empty();
+        }
+        PageToken after = PageToken.decode(token, PageToken.Sort.ID);
+        return gt("entryId", after.entryId());
+    }
+
+    /**
+     * Range filter selecting the entries after the token in (lastName, entryId) order.
+     * Entries without a last name sort first, matching MongoDB's null ordering.
+     */
+    static Bson pageAfterLastName(String token) {
+        if (token == null) {
+            return empty();
+        }
+        PageToken after = PageToken.decode(token, PageToken.Sort.LAST_NAME);
+        if (after.lastName() == null) {
+            return or(
+                    and(eq("person.lastName", null), gt("entryId", after.entryId())),
+                    type("person.lastName", BsonType.STRING));
+        }
+        return or(
+                gt("person.lastName", after.lastName()),
+                and(eq("person.lastName", after.lastName()), gt("entryId", after.entryId())));
+    }
+
+    static void checkPageLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    /**
+     * Build a page from a query that fetched limit + 1 entries; the extra entry only signals that more follow.
+     */
+    static EntryPage toPage(List<Entry> entries, int limit, PageToken.Sort tokenSort) {
+        String next = null;
+        if (entries.size() > limit) {
+            entries.removeLast();
+            next = PageToken.after(tokenSort, entries.getLast()).encode();
+        }
+        return new EntryPage(entries, next);
+    }
+}
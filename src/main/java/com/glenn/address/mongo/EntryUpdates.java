@@ -0,0 +1,133 @@
+package com.glenn.address.mongo;
+
+import com.glenn.address.domain.Gender;
+import com.glenn.address.domain.MaritalStatus;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Field;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Translates a partial entry (the JSON of an Entry with only the changed fields present) into an update pipeline.
+ * The single $set stage merges the given Person and Address fields into the stored subdocument with
+ * $mergeObjects, so fields that are not mentioned stay untouched, and a person or address stored as null
+ * (which a dotted-path $set cannot write into) becomes a subdocument holding just the given fields.
+ * A field given as null is stored as null. Name changes also update the normalized search keys.
+ */
+final class EntryUpdates {
+    private static final Set<String> PERSON_FIELDS = Set.of("firstName", "lastName", "age", "gender", "maritalStatus");
+    private static final Set<String> ADDRESS_FIELDS = Set.of("street", "city", "state", "zip", "email", "phone");
+
+    private EntryUpdates() {
+    }
+
+    /**
+     * @param patch parsed JSON object, e.g. {"person": {"age": 31}, "notes": "moved"}
+     * @throws IllegalArgumentException for unknown fields, wrong value types, a changed entryId or an empty patch
+     */
+    static List<Bson> fromPatch(Integer entryId, Map<String, Object> patch) {
+        // subdocument name, or "notes", to the literal values given for it
+        Map<String, Document> updates = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> field : patch.entrySet()) {
+            switch (field.getKey()) {
+                case "entryId" -> {
+                    if (field.getValue() != null && !entryId.equals(field.getValue())) {
+                        throw new IllegalArgumentException("entryId cannot be changed");
+                    }
+                }
+                case "person" -> addNested(updates, "person", PERSON_FIELDS, field.getValue());
+                case "address" -> addNested(updates, "address", ADDRESS_FIELDS, field.getValue());
+                case "notes" -> updates.put("notes", literal(string("notes", field.getValue())));
+                default -> throw new IllegalArgumentException("Unknown field: " + field.getKey());
+            }
+        }
+        if (updates.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to update");
+        }
+        List<Field<?>> fields = new ArrayList<>(updates.size());
+        updates.forEach((name, values) -> fields.add(new Field<>(name, "notes".equals(name)
+                ? values
+                : new Document("$mergeObjects", List.of("$" + name, values)))));
+        return List.of(Aggregates.set(fields));
+    }
+
+    private static Document literal(Object value) {
+        // $literal keeps a string such as "$city" from being read as a field path
+        return new Document("$literal", value);
+    }
+
+    private static void addNested(Map<String, Document> updates, String parent, Set<String> allowed, Object value) {
+        if (!(value instanceof Map<?, ?> fields)) {
+            throw new IllegalArgumentException(parent + " must be an object");
+        }
+        Document values = updates.computeIfAbsent(parent, name -> new Document());
+        for (Map.Entry<?, ?> field : fields.entrySet()) {
+            String name = String.valueOf(field.getKey());
+            if (!allowed.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + parent + "." + name);
+            }
+            String path = parent + "." + name;
+            Object fieldValue = field.getValue();
+            switch (name) {
+                case "age" -> values.append(name, literal(integer(path, fieldValue)));
+                case "gender" -> values.append(name, literal(enumName(path, fieldValue, Gender.class)));
+                case "maritalStatus" -> values.append(name, literal(enumName(path, fieldValue, MaritalStatus.class)));
+                case "firstName" -> {
+                    String firstName = string(path, fieldValue);
+                    values.append(name, literal(firstName));
+                    searchKey(updates, NameKey.FIRST_NAME, NameKey.normalize(firstName));
+                }
+                case "lastName" -> {
+                    String lastName = string(path, fieldValue);
+                    values.append(name, literal(lastName));
+                    searchKey(updates, NameKey.LAST_NAME, NameKey.normalize(lastName));
+                }
+                default -> values.append(name, literal(string(path, fieldValue)));
+            }
+        }
+        if (values.isEmpty()) {
+            updates.remove(parent);
+        }
+    }
+
+    /**
+     * Adds a normalized search key, given as its dotted path, to the merge into its subdocument
+     */
+    private static void searchKey(Map<String, Document> updates, String path, String key) {
+        int dot = path.indexOf('.');
+        updates.computeIfAbsent(path.substring(0, dot), name -> new Document())
+                .append(path.substring(dot + 1), literal(key));
+    }
+
+    private static String string(String path, Object value) {
+        if (value != null && !(value instanceof String)) {
+            throw new IllegalArgumentException(path + " must be a string");
+        }
+        return (String) value;
+    }
+
+    private static Integer integer(String path, Object value) {
+        if (value != null && !(value instanceof Integer)) {
+            throw new IllegalArgumentException(path + " must be an integer");
+        }
+        return (Integer) value;
+    }
+
+    private static <E extends Enum<E>> String enumName(String path, Object value, Class<E> type) {
+        String name = string(path, value);
+        if (name != null) {
+            try {
+                Enum.valueOf(type, name);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(path + " must be one of " + List.of(type.getEnumConstants()));
+            }
+        }
+        return name;
+    }
+}
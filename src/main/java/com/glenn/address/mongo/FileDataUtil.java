@@ -1,17 +1,38 @@
 package com.glenn.address.mongo;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.glenn.address.binary.BinaryService;
 import com.glenn.address.domain.Entry;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Arrays;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Utility class for reading and writing address book entries to/from JSON files.
@@ -19,13 +40,19 @@ import java.util.List;
  */
 public class FileDataUtil {
     private static final Logger logger = LoggerFactory.getLogger(FileDataUtil.class);
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
 
     private final String fileName;
     private final ObjectMapper objectMapper;
+    private final ObjectWriter entryWriter;
 
     public FileDataUtil(String fileName) {
         this.fileName = fileName;
         this.objectMapper = createObjectMapper();
+        // the generator owns the layout and the flushing; one flush per entry would defeat the buffer
+        this.entryWriter = objectMapper.writer()
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     private static ObjectMapper createObjectMapper() {
@@ -35,28 +62,194 @@ public class FileDataUtil {
     }
 
     public void writeData(List<Entry> entries) {
-        try {
-            String json = objectMapper.writeValueAsString(entries);
-            Files.writeString(Paths.get(fileName), json);
-            logger.info("Successfully wrote {} entries to input-data.json", entries.size());
-            logger.debug("JSON content: \n{}", StringUtils.substring(json, 0, 100));
+        long count = writeData(entries.stream(), false);
+        logger.info("Successfully wrote {} entries to {}", count, fileName);
+    }
+
+    /**
+     * Writes entries to the file one at a time through a buffered JsonGenerator, so memory use does not grow
+     * with the number of entries. The output goes to a temporary file in the same directory, which replaces
+     * the target only once complete, so a failed export never leaves a truncated file behind.
+     * The entries stream is closed afterwards (releasing a database cursor behind it).
+     *
+     * @param entries entries to write, in file order
+     * @param compact true for compact JSON, false for the pretty printed layout readData has always accepted
+     * @return number of entries written
+     */
+    public long writeData(Stream<Entry> entries, boolean compact) {
+        return writeAtomically(entries, out -> writeData(entries, compact, out));
+    }
+
+    /**
+     * Writes entries to the file in a binary format with the same temporary file and replace-on-success handling
+     * as the JSON export. Chunks of entries are encoded in parallel on the common fork-join pool and written in
+     * order. The entries stream is closed afterwards.
+     *
+     * @param entries entries to write, in file order
+     * @param format  service that encodes the entries
+     * @return number of entries written
+     */
+    public long writeData(Stream<Entry> entries, BinaryService format) {
+        return writeAtomically(entries,
+                out -> format.writeEntriesParallel(entries.iterator(), Channels.newChannel(out), ForkJoinPool.commonPool()));
+    }
+
+    private long writeAtomically(Stream<Entry> entries, StreamWriter writer) {
+        Path target = Paths.get(fileName).toAbsolutePath();
+        Path temp = null;
+        try (entries) {
+            temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+            long count;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                count = writer.write(out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.debug("Streamed {} entries to {}", count, fileName);
+            return count;
         } catch (IOException e) {
-            logger.error("Failed to write JSON to file", e);
-            throw new RuntimeException(e);
+            logger.error("Failed to write entries to file: {}", fileName, e);
+            throw new UncheckedIOException(e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    @FunctionalInterface
+    private interface StreamWriter {
+        long write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Writes entries as a JSON array to an output stream instead of the file, in the same layout.
+     * The output is buffered here and flushed at the end; the stream itself is left open.
+     *
+     * @return number of entries written
+     */
+    public long writeData(Stream<Entry> entries, boolean compact, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(
+                new BufferedOutputStream(out, WRITE_BUFFER_SIZE))) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (!compact) {
+                generator.setPrettyPrinter(new DefaultPrettyPrinter());
+            }
+            generator.writeStartArray();
+            Iterator<Entry> iterator = entries.iterator();
+            while (iterator.hasNext()) {
+                entryWriter.writeValue(generator, iterator.next());
+                count++;
+            }
+            generator.writeEndArray();
+        }
+        return count;
+    }
+
+    private void deleteQuietly(Path temp) {
+        if (temp != null) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                logger.warn("Failed to delete temporary file {}", temp, e);
+            }
         }
     }
 
     public List<Entry> readData() {
-        try {
-            String json = Files.readString(Paths.get(fileName));
-            Entry[] entriesArray = objectMapper.readValue(json, Entry[].class);
-            List<Entry> entries = Arrays.asList(entriesArray);
+        try (Stream<Entry> stream = streamData()) {
+            List<Entry> entries = stream.collect(Collectors.toCollection(ArrayList::new));
             logger.info("Successfully read {} entries from {}", entries.size(), fileName);
             logger.debug("Read entries: {}", StringUtils.substring(entries.toString(), 0, 100));
             return entries;
-        } catch (IOException e) {
+        } catch (UncheckedIOException e) {
             logger.error("Failed to read JSON from file: {}", fileName, e);
-            throw new RuntimeException(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Streams the entries of the file one at a time with a Jackson JsonParser walking the top-level array,
+     * so memory use depends on the size of one entry rather than the size of the file.
+     * The stream must be closed to release the file; read errors surface as UncheckedIOException.
+     */
+    public Stream<Entry> streamData() {
+        try {
+            JsonParser parser = objectMapper.getFactory().createParser(new File(fileName));
+            EntryIterator entries;
+            try {
+                entries = new EntryIterator(parser);
+            } catch (IOException e) {
+                parser.close();
+                throw e;
+            }
+            return StreamSupport.stream(
+                            Spliterators.spliteratorUnknownSize(entries, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                    .onClose(() -> {
+                        try {
+                            parser.close();
+                            logger.debug("Streamed {} entries from {}", entries.count, fileName);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (IOException e) {
+            logger.error("Failed to open JSON file: {}", fileName, e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Streams the entries of a file in a binary format, decoding one entry at a time through the service.
+     * The stream must be closed to release the file; read errors surface as UncheckedIOException.
+     */
+    public Stream<Entry> streamData(BinaryService format) {
+        try {
+            return format.streamEntries(fileName);
+        } catch (IOException e) {
+            logger.error("Failed to open file: {}", fileName, e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Iterates the objects of a top-level JSON array, binding each one to an Entry as it is reached.
+     */
+    private class EntryIterator implements Iterator<Entry> {
+        private final JsonParser parser;
+        private JsonToken token;
+        private long count;
+
+        EntryIterator(JsonParser parser) throws IOException {
+            this.parser = parser;
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected a JSON array of entries");
+            }
+            this.token = parser.nextToken();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (token == JsonToken.START_OBJECT) {
+                return true;
+            }
+            if (token == JsonToken.END_ARRAY) {
+                return false;
+            }
+            throw new UncheckedIOException(new JsonParseException(parser, "Expected an entry object, found " + token));
+        }
+
+        @Override
+        public Entry next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                Entry entry = objectMapper.readValue(parser, Entry.class);
+                token = parser.nextToken();
+                count++;
+                return entry;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
         }
     }
 
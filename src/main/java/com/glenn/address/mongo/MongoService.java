@@ -1,68 +1,331 @@
 package com.glenn.address.mongo;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.glenn.address.domain.BatchDeleteResult;
+import com.glenn.address.domain.BatchGetResult;
 import com.glenn.address.domain.Entry;
+import com.glenn.address.domain.EntryPage;
+import com.glenn.address.domain.EntrySummary;
+import com.glenn.address.store.EntryRepository;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoClientSettings;
 import com.mongodb.MongoException;
+import com.mongodb.MongoWriteException;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.FindOneAndReplaceOptions;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
 import org.apache.commons.lang3.StringUtils;
 import org.bson.Document;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.conversions.Bson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-
-import static com.mongodb.client.model.Filters.and;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.glenn.address.mongo.EntryQueries.COUNTER_VALUE;
+import static com.glenn.address.mongo.EntryQueries.ENTRY_ID_COUNTER;
+import static com.glenn.address.mongo.EntryQueries.ENTRY_ID_INDEX;
+import static com.glenn.address.mongo.EntryQueries.LAST_NAME_INDEX;
+import static com.glenn.address.mongo.EntryQueries.SEARCH_INDEX;
+import static com.glenn.address.mongo.EntryQueries.SORT_BY_ID;
+import static com.glenn.address.mongo.EntryQueries.SORT_BY_LAST_NAME;
 import static com.mongodb.client.model.Filters.eq;
-import static com.mongodb.client.model.Filters.regex;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Sorts.descending;
+import static com.mongodb.client.model.Updates.combine;
+import static com.mongodb.client.model.Updates.inc;
+import static com.mongodb.client.model.Updates.max;
+import static com.mongodb.client.model.Updates.set;
+import static org.bson.codecs.configuration.CodecRegistries.fromCodecs;
+import static org.bson.codecs.configuration.CodecRegistries.fromRegistries;
 
 /**
  * Service class for MongoDB operations on address book entries.
  * Provides CRUD operations and search functionality for entries stored in MongoDB.
- * Implements AutoCloseable for proper resource management of the MongoClient connection.
+ * Implements EntryRepository, and through it AutoCloseable for proper resource management of the MongoClient connection.
  */
 @Service
-public class MongoService implements AutoCloseable {
+@Profile("!reactive & !local")
+public class MongoService implements EntryRepository {
     private static final Logger logger = LoggerFactory.getLogger(MongoService.class);
     private static final String FILE_NAME = "input-data.json";
+    private static final int STREAM_BATCH_SIZE = 500;
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+    private static final int NAME_INDEX_BATCH_SIZE = 5000;
+    private static final int IMPORT_ID_BLOCK_SIZE = 1000;
 
     private String fileName;
-    private MongoClient mongoClient;
-    private MongoDatabase database;
-    private MongoCollection<Document> collection;
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    private boolean initialized = false;
+    private final MongoClient mongoClient;
+    private final boolean ownsClient;
+    private final MongoDatabase database;
+    private final MongoCollection<Entry> collection;
+    private final MongoCollection<Document> counters;
+    private final ExecutorService bulkExecutor;
+    private final BulkWriter bulkWriter;
+    private final EntryCache entryCache;
+    private final NameIndex nameIndex;
+    private final ReentrantLock setupLock = new ReentrantLock();
+    private volatile boolean setupDone = false;
 
+    /**
+     * Standalone constructor, used by main(): builds and owns a client from database.properties.
+     */
     public MongoService() {
+        this(new DatabaseConfig(), true);
+    }
+
+    private MongoService(DatabaseConfig config, boolean ownsClient) {
+        this(MongoClients.create(config.clientSettings().build()), config, new EntryCache(config), ownsClient);
+    }
+
+    /**
+     * Spring constructor: uses the application's shared MongoClient, which Spring closes on shutdown.
+     */
+    @Autowired
+    public MongoService(MongoClient mongoClient, DatabaseConfig config, EntryCache entryCache) {
+        this(mongoClient, config, entryCache, false);
+    }
+
+    private MongoService(MongoClient mongoClient, DatabaseConfig config, EntryCache entryCache, boolean ownsClient) {
+        this.mongoClient = mongoClient;
+        this.entryCache = entryCache;
+        this.nameIndex = config.isNameIndexEnabled() ? new NameIndex() : null;
+        this.ownsClient = ownsClient;
+        this.database = mongoClient.getDatabase(config.getDatabase());
+        this.collection = database.getCollection(config.getCollection(), Entry.class)
+                .withCodecRegistry(codecRegistry());
+        this.counters = database.getCollection(config.getCounters());
+        this.bulkExecutor = Executors.newFixedThreadPool(config.getBulkMaxInFlight(),
+                Thread.ofPlatform().name("bulk-writer-", 1).daemon().factory());
+        this.bulkWriter = new BulkWriter(collection, new EntryCodec(), bulkExecutor,
+                config.getBulkBatchSize(), config.getBulkMaxInFlight());
+        logger.info("Using MongoDB at {}/{}/{}",
+                config.getConnectionString(), config.getDatabase(), config.getCollection());
     }
 
     /**
-     * Lazily initializes the MongoDB connection on first use.
-     * Ensures the connection is only established when actually needed.
+     * Pre-warms the connection pool once the application is up, off the startup thread:
+     * a ping makes the driver discover the server and fill the pool to its minimum size,
+     * and the index and ID counter setup runs before the first request needs it.
+     * Search keys missing from older documents are backfilled afterwards, then the name index is built.
+     * A failure is only logged; setup is retried by the first write.
      */
-    private synchronized void ensureInitialized() {
-        if (initialized) {
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarm() {
+        Thread.ofVirtual().name("mongo-prewarm").start(() -> {
+            try {
+                long ts = System.nanoTime();
+                database.runCommand(new Document("ping", 1));
+                ensureSetup();
+                logger.info("MongoDB connection pool warmed up in {} ms", (System.nanoTime() - ts) / 1_000_000);
+                backfillSearchKeys();
+                buildNameIndex();
+            } catch (Exception e) {
+                logger.warn("Unable to pre-warm MongoDB connection pool", e);
+            }
+        });
+    }
+
+    /**
+     * Runs the one-time index and ID counter setup before the first operation that depends on it.
+     * Reads never wait on it. Once done, callers only read a volatile flag. Callers arriving during setup
+     * wait on a ReentrantLock rather than a monitor, so virtual threads unmount instead of pinning their
+     * carrier threads.
+     */
+    private void ensureSetup() {
+        if (setupDone) {
             return;
         }
+        setupLock.lock();
+        try {
+            if (!setupDone) {
+                createIndexes();
+                seedEntryIdCounter();
+                setupDone = true;
+            }
+        } catch (MongoException e) {
+            logger.error("Failed to set up MongoDB collection", e);
+            throw new RuntimeException("Failed to set up MongoDB collection", e);
+        } finally {
+            setupLock.unlock();
+        }
+    }
 
-        DatabaseConfig config = new DatabaseConfig();
+    /**
+     * Codec registry that decodes documents straight into Entry records, falling back to the
+     * driver defaults for filters, sorts and other BSON values.
+     */
+    static CodecRegistry codecRegistry() {
+        return fromRegistries(fromCodecs(new EntryCodec()), MongoClientSettings.getDefaultCodecRegistry());
+    }
 
+    /**
+     * Creates the indexes backing ID lookups, sorted reads and keyset pagination.
+     * createIndex is a no-op when the index already exists. A failure (for example duplicate
+     * entry IDs already in the collection) is logged and reads fall back to unindexed queries.
+     */
+    private void createIndexes() {
         try {
-            this.mongoClient = MongoClients.create(config.getConnectionString());
-            this.database = mongoClient.getDatabase(config.getDatabase());
-            this.collection = database.getCollection(config.getCollection());
-
-            logger.info("Connected to MongoDB at {}/{}/{}",
-                    config.getConnectionString(), config.getDatabase(), config.getCollection());
-            initialized = true;
+            collection.createIndex(Indexes.ascending("entryId"),
+                    new IndexOptions().unique(true).name(ENTRY_ID_INDEX));
         } catch (MongoException e) {
-            logger.error("Failed to connect to MongoDB", e);
-            throw new RuntimeException("Failed to connect to MongoDB", e);
+            logger.warn("Unable to create unique index on entryId", e);
+        }
+        try {
+            collection.createIndex(Indexes.ascending("person.lastName", "entryId"),
+                    new IndexOptions().name(LAST_NAME_INDEX));
+        } catch (MongoException e) {
+            logger.warn("Unable to create index on person.lastName", e);
+        }
+        try {
+            collection.createIndex(Indexes.ascending(NameKey.LAST_NAME, NameKey.FIRST_NAME),
+                    new IndexOptions().name(SEARCH_INDEX));
+        } catch (MongoException e) {
+            logger.warn("Unable to create index on search keys", e);
+        }
+    }
+
+    /**
+     * Loads every entry's ID and names into the in-memory name index, when it is enabled.
+     * Saves and deletes made while it loads are applied to the index as well.
+     */
+    public void buildNameIndex() {
+        if (nameIndex == null) {
+            return;
+        }
+        long ts = System.nanoTime();
+        collection.find()
+                .projection(EntryQueries.SUMMARY_PROJECTION)
+                .batchSize(NAME_INDEX_BATCH_SIZE)
+                .forEach(entry -> {
+                    if (entry.entryId() != null && entry.person() != null) {
+                        nameIndex.add(entry.entryId(), entry.person().firstName(), entry.person().lastName());
+                    }
+                });
+        nameIndex.markReady();
+        logger.info("Name index built with {} entries in {} ms", nameIndex.size(), (System.nanoTime() - ts) / 1_000_000);
+    }
+
+    /**
+     * Writes the normalized search keys into documents stored before they existed, or whose keys no longer
+     * match their names. Idempotent and restartable; runs in the background after startup.
+     *
+     * @return number of documents updated
+     */
+    public long backfillSearchKeys() {
+        MongoCollection<Document> documents = collection.withDocumentClass(Document.class);
+        List<UpdateOneModel<Document>> updates = new ArrayList<>(BACKFILL_BATCH_SIZE);
+        long updated = 0;
+        try (MongoCursor<Document> cursor = documents.find()
+                .projection(include("person.firstName", "person.lastName", NameKey.SEARCH))
+                .batchSize(BACKFILL_BATCH_SIZE)
+                .iterator()) {
+            while (cursor.hasNext()) {
+                Document doc = cursor.next();
+                Document person = doc.get("person", Document.class);
+                Document search = doc.get(NameKey.SEARCH, Document.class);
+                String firstKey = person != null ? NameKey.normalize(person.getString("firstName")) : null;
+                String lastKey = person != null ? NameKey.normalize(person.getString("lastName")) : null;
+                if (search != null && Objects.equals(firstKey, search.getString("firstName"))
+                        && Objects.equals(lastKey, search.getString("lastName"))) {
+                    continue;
+                }
+                updates.add(new UpdateOneModel<>(eq("_id", doc.get("_id")),
+                        combine(set(NameKey.FIRST_NAME, firstKey), set(NameKey.LAST_NAME, lastKey))));
+                if (updates.size() == BACKFILL_BATCH_SIZE) {
+                    updated += documents.bulkWrite(updates, new BulkWriteOptions().ordered(false)).getModifiedCount();
+                    updates.clear();
+                }
+            }
+        }
+        if (!updates.isEmpty()) {
+            updated += documents.bulkWrite(updates, new BulkWriteOptions().ordered(false)).getModifiedCount();
+        }
+        if (updated > 0) {
+            // cached searches were answered without the documents that had no keys yet
+            entryCache.clear();
+        }
+        logger.info("Backfilled search keys on {} documents", updated);
+        return updated;
+    }
+
+    /**
+     * Raises the entry ID counter to at least the highest entryId already stored.
+     * Uses $max with upsert, so it is idempotent and safe when several nodes start at once.
+     */
+    private void seedEntryIdCounter() {
+        Entry highest = collection.find()
+                .sort(descending("entryId"))
+                .projection(include("entryId"))
+                .limit(1)
+                .first();
+        int maxId = highest != null && highest.entryId() != null ? highest.entryId() : 0;
+        raiseEntryIdCounter(maxId);
+        logger.debug("Entry ID counter seeded at {}", maxId);
+    }
+
+    private void raiseEntryIdCounter(int entryId) {
+        try {
+            counters.updateOne(eq("_id", ENTRY_ID_COUNTER), max(COUNTER_VALUE, entryId), new UpdateOptions().upsert(true));
+        } catch (MongoWriteException e) {
+            // Two nodes raced to create the counter document; it exists now, so apply the update again
+            if (e.getError().getCategory() != ErrorCategory.DUPLICATE_KEY) {
+                throw e;
+            }
+            counters.updateOne(eq("_id", ENTRY_ID_COUNTER), max(COUNTER_VALUE, entryId));
+        }
+    }
+
+    /**
+     * Atomically reserves a contiguous block of entry IDs with a single findOneAndUpdate/$inc.
+     * Safe across threads and across application nodes sharing the database.
+     *
+     * @param count number of IDs to reserve (at least 1)
+     * @return the first ID of the reserved block; the block is [first, first + count)
+     */
+    public int reserveEntryIds(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Must reserve at least one entry ID");
         }
+        ensureSetup();
+        Document counter = counters.findOneAndUpdate(
+                eq("_id", ENTRY_ID_COUNTER),
+                inc(COUNTER_VALUE, count),
+                new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+        int last = Objects.requireNonNull(counter).getInteger(COUNTER_VALUE);
+        logger.debug("Reserved entry IDs {} to {}", last - count + 1, last);
+        return last - count + 1;
     }
 
     private List<Entry> getTestData() {
@@ -70,32 +333,105 @@ public class MongoService implements AutoCloseable {
         return fdu.readData();
     }
 
-    public void saveToDatabase(List<Entry> updates) {
-        ensureInitialized();
-        try {
-            List<Document> documents = new ArrayList<>();
-            for (Entry entry : updates) {
-                String json = objectMapper.writeValueAsString(entry);
-                Document doc = Document.parse(json);
-                documents.add(doc);
-            }
+    /**
+     * Saves a list of entries with unordered, batched bulk inserts.
+     * A duplicate entryId only rejects that entry; the rest of the list is still inserted.
+     *
+     * @return totals and per-batch results
+     */
+    public BulkWriteSummary saveToDatabase(List<Entry> updates) {
+        return saveAllToDatabase(updates.iterator());
+    }
 
-            if (!documents.isEmpty()) {
-                collection.insertMany(documents);
-                logger.debug("Successfully saved {} entries to MongoDB", documents.size());
-            }
-        } catch (Exception e) {
-            logger.error("Failed to save entries to MongoDB", e);
-            throw new RuntimeException(e);
+    /**
+     * Saves entries from an iterator with unordered, batched bulk inserts.
+     * Entries are consumed one batch at a time, so the source can be larger than the heap.
+     *
+     * @return totals and per-batch results
+     */
+    public BulkWriteSummary saveAllToDatabase(Iterator<Entry> updates) {
+        ensureSetup();
+        AtomicInteger highestId = new AtomicInteger();
+        Iterator<Entry> tracked = StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(updates, Spliterator.ORDERED), false)
+                .peek(entry -> {
+                    if (entry.entryId() != null) {
+                        highestId.accumulateAndGet(entry.entryId(), Math::max);
+                    }
+                })
+                .iterator();
+        BulkWriteSummary summary = bulkWriter.write(tracked, this::batchInserted);
+        if (summary.inserted() > 0) {
+            raiseEntryIdCounter(highestId.get());
         }
+        logger.debug("Bulk saved {} entries in {} batches ({} duplicates, {} failures)",
+                summary.inserted(), summary.batches(), summary.duplicates(), summary.failures());
+        return summary;
+    }
+
+    /**
+     * Brings the cache and name index up to date with one finished bulk batch, covering only what it inserted.
+     * Runs on the bulk worker thread, so searches see each batch as soon as it is written.
+     */
+    private void batchInserted(List<Entry> inserted) {
+        entryCache.written(inserted);
+        if (nameIndex != null) {
+            nameIndex.addAll(inserted);
+        }
+    }
+
+    /**
+     * Imports entries under newly reserved entry IDs, replacing whatever IDs they carried.
+     * IDs are reserved in blocks as the stream is consumed, so the number of entries need not be known up front.
+     * The unused tail of the last block is left as a gap: lowering the counter again could hand out an ID a
+     * concurrent save has stored in that range. The stream is consumed but not closed.
+     *
+     * @return totals and per-batch results
+     */
+    public BulkWriteSummary importEntries(Stream<Entry> entries) {
+        NextEntryId nextEntryId = new NextEntryId(this, IMPORT_ID_BLOCK_SIZE);
+        return saveAllToDatabase(entries
+                .map(entry -> new Entry(nextEntryId.next(), entry.person(), entry.address(), entry.notes()))
+                .iterator());
+    }
+
+    @Override
+    public void save(Entry entry) {
+        saveEntryToDatabase(entry);
+    }
+
+    @Override
+    public BulkWriteSummary saveAll(Iterator<Entry> entries) {
+        return saveAllToDatabase(entries);
+    }
+
+    @Override
+    public void deleteById(Integer entryId) {
+        deleteEntryById(entryId);
+    }
+
+    @Override
+    public List<Entry> readAll() {
+        return readFromDatabase();
+    }
+
+    @Override
+    public Stream<Entry> streamAll() {
+        return streamFromDatabase();
     }
 
     public void saveEntryToDatabase(Entry update) {
-        ensureInitialized();
+        ensureSetup();
         try {
-            String json = objectMapper.writeValueAsString(update);
-            Document doc = Document.parse(json);
-            collection.insertOne(doc);
+            collection.insertOne(update);
+            entryCache.written(update);
+            if (nameIndex != null && update.entryId() != null && update.person() != null) {
+                nameIndex.add(update.entryId(), update.person().firstName(), update.person().lastName());
+            }
+            if (update.entryId() != null) {
+                // Keep the counter ahead of IDs chosen by clients so reserved blocks never collide
+                raiseEntryIdCounter(update.entryId());
+            }
             logger.debug("Successfully saved 1 entry to MongoDB: {}", update.entryId());
         } catch (Exception e) {
             logger.error("Failed to save entry to MongoDB", e);
@@ -103,10 +439,69 @@ public class MongoService implements AutoCloseable {
         }
     }
 
+    /**
+     * Replaces the entry with the given ID in one round trip and returns the stored result.
+     * The entryId is taken from the argument, so a replacement cannot move the entry to another ID.
+     *
+     * @return the replaced entry, or null if no entry has the ID
+     */
+    public Entry replaceEntry(Integer entryId, Entry replacement) {
+        try {
+            Entry stored = new Entry(entryId, replacement.person(), replacement.address(), replacement.notes());
+            Entry updated = collection.findOneAndReplace(EntryQueries.byEntryId(entryId), stored,
+                    new FindOneAndReplaceOptions().returnDocument(ReturnDocument.AFTER));
+            updated(entryId, updated);
+            logger.debug("Replaced entry {}: {}", entryId, updated != null ? "found" : "not found");
+            return updated;
+        } catch (MongoException e) {
+            logger.error("Failed to replace entry with entryId: {}", entryId, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Applies a partial update to the entry with the given ID in one round trip; only the fields
+     * present in the patch are written (see EntryUpdates).
+     *
+     * @return the updated entry, or null if no entry has the ID
+     * @throws IllegalArgumentException if the patch names unknown fields or has values of the wrong type
+     */
+    public Entry patchEntry(Integer entryId, Map<String, Object> patch) {
+        List<Bson> update = EntryUpdates.fromPatch(entryId, patch);
+        try {
+            Entry updated = collection.findOneAndUpdate(EntryQueries.byEntryId(entryId), update,
+                    new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER));
+            updated(entryId, updated);
+            logger.debug("Patched entry {}: {}", entryId, updated != null ? "found" : "not found");
+            return updated;
+        } catch (MongoException e) {
+            logger.error("Failed to patch entry with entryId: {}", entryId, e);
+            throw e;
+        }
+    }
+
+    private void updated(Integer entryId, Entry updated) {
+        if (updated == null) {
+            return;
+        }
+        // drop searches holding the old name, then those the new name now matches
+        entryCache.removed(entryId);
+        entryCache.written(updated);
+        if (nameIndex != null) {
+            nameIndex.remove(entryId);
+            if (updated.person() != null) {
+                nameIndex.add(entryId, updated.person().firstName(), updated.person().lastName());
+            }
+        }
+    }
+
     public void deleteEntryById(Integer entryId) {
-        ensureInitialized();
         try {
-            var result = collection.deleteMany(eq("entryId", entryId));
+            var result = collection.deleteMany(EntryQueries.byEntryId(entryId));
+            entryCache.removed(entryId);
+            if (nameIndex != null) {
+                nameIndex.remove(entryId);
+            }
             logger.debug("Successfully deleted {} entries with entryId '{}'", result.getDeletedCount(), entryId);
         } catch (MongoException e) {
             logger.error("Failed to delete entries with entryId: {}", entryId, e);
@@ -114,17 +509,113 @@ public class MongoService implements AutoCloseable {
         }
     }
 
+    /**
+     * Looks up a batch of entry IDs with at most one $in query, whatever the batch size.
+     *
+     * @throws IllegalArgumentException if the batch is empty, too large or contains null
+     */
+    public BatchGetResult batchGet(List<Integer> entryIds) {
+        List<Integer> ids = EntryQueries.checkBatch(entryIds);
+        try {
+            return EntryQueries.toBatch(ids, lookup(ids));
+        } catch (MongoException e) {
+            logger.error("Failed to read batch of {} entry IDs", ids.size(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Deletes a batch of entry IDs in two round trips whatever the batch size: a distinct over the
+     * entryId index finds which IDs exist, then one $in delete removes exactly those.
+     *
+     * @throws IllegalArgumentException if the batch is empty, too large or contains null
+     */
+    public BatchDeleteResult batchDelete(List<Integer> entryIds) {
+        List<Integer> ids = EntryQueries.checkBatch(entryIds);
+        try {
+            List<Integer> existing = collection.distinct("entryId", EntryQueries.byEntryIds(ids), Integer.class)
+                    .into(new ArrayList<>());
+            long deleted = existing.isEmpty()
+                    ? 0
+                    : collection.deleteMany(EntryQueries.byEntryIds(existing)).getDeletedCount();
+            for (Integer id : existing) {
+                entryCache.removed(id);
+                if (nameIndex != null) {
+                    nameIndex.remove(id);
+                }
+            }
+            logger.debug("Batch deleted {} entries for {} of {} entry IDs", deleted, existing.size(), ids.size());
+            return EntryQueries.toDeleteResult(ids, existing, deleted);
+        } catch (MongoException e) {
+            logger.error("Failed to delete batch of {} entry IDs", ids.size(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Deletes every entry with an ID from fromId to toId, both inclusive, in one round trip.
+     *
+     * @return the number of entries deleted
+     */
+    public long deleteEntryIdRange(int fromId, int toId) {
+        EntryQueries.checkRange(fromId, toId);
+        try {
+            long deleted = collection.deleteMany(EntryQueries.byEntryIdRange(fromId, toId)).getDeletedCount();
+            entryCache.removedRange(fromId, toId);
+            if (nameIndex != null) {
+                nameIndex.removeRange(fromId, toId);
+            }
+            logger.debug("Deleted {} entries with entryId from {} to {}", deleted, fromId, toId);
+            return deleted;
+        } catch (MongoException e) {
+            logger.error("Failed to delete entries with entryId from {} to {}", fromId, toId, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the ID and names of every entry in ID order, projecting away addresses and notes
+     * so only a fraction of each document crosses the wire.
+     */
+    public List<EntrySummary> readSummaries() {
+        try {
+            List<EntrySummary> summaries = new ArrayList<>();
+            collection.find()
+                    .projection(EntryQueries.SUMMARY_PROJECTION)
+                    .sort(SORT_BY_ID)
+                    .batchSize(NAME_INDEX_BATCH_SIZE)
+                    .forEach(entry -> summaries.add(EntryQueries.toSummary(entry)));
+            logger.debug("Read {} entry summaries", summaries.size());
+            return summaries;
+        } catch (Exception e) {
+            logger.error("Failed to read entry summaries", e);
+            return List.of();
+        }
+    }
+
     public List<Entry> readFromDatabase() {
-        ensureInitialized();
+        return readSorted(null);
+    }
+
+    /**
+     * Reads all entries in entryId order, sorted by MongoDB using the entryId index.
+     */
+    public List<Entry> readSortedById() {
+        return readSorted(SORT_BY_ID);
+    }
+
+    /**
+     * Reads all entries in (lastName, entryId) order, sorted by MongoDB using the lastName index.
+     */
+    public List<Entry> readSortedByLastName() {
+        return readSorted(SORT_BY_LAST_NAME);
+    }
+
+    private List<Entry> readSorted(Bson sort) {
         try {
             List<Entry> entries = new ArrayList<>();
 
-            for (Document doc : collection.find()) {
-                doc.remove("_id");  // Remove MongoDB's _id field
-                String json = doc.toJson();
-                Entry entry = objectMapper.readValue(json, Entry.class);
-                entries.add(entry);
-            }
+            collection.find().sort(sort).into(entries);
 
             logger.debug("Successfully read {} entries from MongoDB", entries.size());
             return entries;
@@ -134,17 +625,68 @@ public class MongoService implements AutoCloseable {
         }
     }
 
+    /**
+     * Streams all entries straight from the driver cursor instead of collecting them into a list,
+     * so heap use stays flat regardless of collection size.
+     * The returned stream holds an open cursor and must be closed by the caller (try-with-resources).
+     */
+    public Stream<Entry> streamFromDatabase() {
+        return streamSorted(null);
+    }
+
+    /**
+     * Streams all entries in entryId order straight from an index-ordered cursor.
+     * The returned stream must be closed by the caller.
+     */
+    public Stream<Entry> streamSortedById() {
+        return streamSorted(SORT_BY_ID);
+    }
+
+    private Stream<Entry> streamSorted(Bson sort) {
+        MongoCursor<Entry> cursor = collection.find().sort(sort).batchSize(STREAM_BATCH_SIZE).iterator();
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(cursor::close);
+    }
+
+    /**
+     * Reads one page of entries ordered by entryId using keyset pagination.
+     * Each page is a range query on entryId with a limit, so deep pages cost the same as the first.
+     *
+     * @param limit maximum number of entries on the page (1 to EntryQueries.MAX_PAGE_SIZE)
+     * @param token continuation token from the previous page, or null for the first page
+     */
+    public EntryPage readPageById(int limit, String token) {
+        return readPage(EntryQueries.pageAfterId(token), SORT_BY_ID, limit, PageToken.Sort.ID);
+    }
+
+    /**
+     * Reads one page of entries ordered by (lastName, entryId) using keyset pagination.
+     *
+     * @param limit maximum number of entries on the page (1 to EntryQueries.MAX_PAGE_SIZE)
+     * @param token continuation token from the previous page, or null for the first page
+     */
+    public EntryPage readPageByLastName(int limit, String token) {
+        return readPage(EntryQueries.pageAfterLastName(token), SORT_BY_LAST_NAME, limit, PageToken.Sort.LAST_NAME);
+    }
+
+    private EntryPage readPage(Bson filter, Bson sort, int limit, PageToken.Sort tokenSort) {
+        EntryQueries.checkPageLimit(limit);
+        // Fetch one extra entry to learn whether another page follows without a second query
+        List<Entry> entries = collection.find(filter).sort(sort).limit(limit + 1).into(new ArrayList<>(limit + 1));
+        EntryPage page = EntryQueries.toPage(entries, limit, tokenSort);
+        logger.debug("Read page of {} entries, more: {}", page.entries().size(), page.next() != null);
+        return page;
+    }
+
+    /**
+     * Looks up entries by ID, served from the entry cache when the ID was read recently.
+     */
+    @Override
     public List<Entry> searchByEntryId(Integer entryId) {
-        ensureInitialized();
         try {
-            List<Entry> entries = new ArrayList<>();
-
-            for (Document doc : collection.find(eq("entryId", entryId))) {
-                doc.remove("_id");
-                String json = doc.toJson();
-                Entry entry = objectMapper.readValue(json, Entry.class);
-                entries.add(entry);
-            }
+            List<Entry> entries = entryCache.byId(entryId,
+                    id -> collection.find(EntryQueries.byEntryId(id)).into(new ArrayList<>()));
 
             logger.debug("Found {} entries with entryId '{}'", entries.size(), entryId);
             return entries;
@@ -154,17 +696,17 @@ public class MongoService implements AutoCloseable {
         }
     }
 
+    /**
+     * Prefix search on the last name. Answered from the name index and entry cache once the index is built,
+     * otherwise by an indexed range query whose result is cached.
+     */
+    @Override
     public List<Entry> searchByLastName(String lastName) {
-        ensureInitialized();
         try {
-            List<Entry> entries = new ArrayList<>();
-
-            for (Document doc : collection.find(regex("person.lastName", "^" + lastName, "i"))) {
-                doc.remove("_id");
-                String json = doc.toJson();
-                Entry entry = objectMapper.readValue(json, Entry.class);
-                entries.add(entry);
-            }
+            List<Entry> entries = useNameIndex()
+                    ? resolve(nameIndex.searchByLastName(lastName))
+                    : entryCache.byName(null, lastName,
+                            query -> collection.find(EntryQueries.byLastName(lastName)).into(new ArrayList<>()));
 
             logger.debug("Found {} entries with lastName '{}'", entries.size(), lastName);
             return entries;
@@ -174,19 +716,13 @@ public class MongoService implements AutoCloseable {
         }
     }
 
+    @Override
     public List<Entry> searchByFirstAndLastName(String firstName, String lastName) {
-        ensureInitialized();
         try {
-            List<Entry> entries = new ArrayList<>();
-
-            for (Document doc : collection.find(and(
-                    regex("person.firstName", "^" + firstName, "i"),
-                    regex("person.lastName", "^" + lastName, "i")))) {
-                doc.remove("_id");
-                String json = doc.toJson();
-                Entry entry = objectMapper.readValue(json, Entry.class);
-                entries.add(entry);
-            }
+            List<Entry> entries = useNameIndex()
+                    ? resolve(nameIndex.searchByFirstAndLastName(firstName, lastName))
+                    : entryCache.byName(firstName, lastName,
+                            query -> collection.find(EntryQueries.byFirstAndLastName(firstName, lastName)).into(new ArrayList<>()));
 
             logger.debug("Found {} entries with firstName '{}' and lastName '{}'",
                     entries.size(), firstName, lastName);
@@ -197,9 +733,47 @@ public class MongoService implements AutoCloseable {
         }
     }
 
+    private boolean useNameIndex() {
+        return nameIndex != null && nameIndex.isReady();
+    }
+
+    /**
+     * Turns name index hits into entries, in index order: cached entries directly, the rest with one $in query
+     * whose results are added to the cache. IDs no longer in the database are dropped.
+     */
+    private List<Entry> resolve(int[] entryIds) {
+        List<Integer> ids = Arrays.stream(entryIds).boxed().toList();
+        Map<Integer, List<Entry>> found = lookup(ids);
+        List<Entry> entries = new ArrayList<>(entryIds.length);
+        for (Integer id : ids) {
+            entries.addAll(found.getOrDefault(id, List.of()));
+        }
+        return entries;
+    }
+
+    /**
+     * Entries for each ID, taken from the cache where present and loaded with one $in query otherwise.
+     * IDs the query does not find are cached as empty, the same way a single by-id miss is.
+     */
+    private Map<Integer, List<Entry>> lookup(List<Integer> ids) {
+        Map<Integer, List<Entry>> found = new HashMap<>(entryCache.present(ids));
+        List<Integer> missing = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            Map<Integer, List<Entry>> loaded = collection.find(in("entryId", missing)).into(new ArrayList<>())
+                    .stream()
+                    .collect(Collectors.groupingBy(Entry::entryId));
+            for (Integer id : missing) {
+                entryCache.put(id, loaded.getOrDefault(id, List.of()));
+            }
+            found.putAll(loaded);
+        }
+        return found;
+    }
+
     @Override
     public void close() {
-        if (mongoClient != null) {
+        bulkExecutor.shutdown();
+        if (ownsClient) {
             mongoClient.close();
             logger.info("MongoDB connection closed");
         }
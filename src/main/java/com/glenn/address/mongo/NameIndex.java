@@ -0,0 +1,144 @@
+package com.glenn.address.mongo;
+
+import com.glenn.address.domain.Entry;
+import com.glenn.address.domain.Person;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory name index for typeahead search.
+ * Maps normalized "lastName\0firstName" keys (see NameKey) to the entry IDs carrying that name, kept in a
+ * sorted map so a prefix search is a range scan. IDs are stored as primitive arrays, replaced on write,
+ * so readers never lock. The index is built from the database at startup and maintained on save and delete
+ * by this node; writes made by other nodes sharing the database are not seen.
+ */
+public class NameIndex {
+    private static final char SEPARATOR = '\u0000';
+
+    private final ConcurrentSkipListMap<String, int[]> idsByName = new ConcurrentSkipListMap<>();
+    private final Map<Integer, String> nameById = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+
+    static String key(String firstName, String lastName) {
+        String last = NameKey.normalize(lastName);
+        String first = NameKey.normalize(firstName);
+        return (last != null ? last : "") + SEPARATOR + (first != null ? first : "");
+    }
+
+    /**
+     * Adds an entry under its name. An ID that is already indexed is left alone, so replaying a
+     * rejected duplicate insert does not move the existing entry.
+     */
+    public void add(int entryId, String firstName, String lastName) {
+        add(entryId, key(firstName, lastName));
+    }
+
+    private void add(int entryId, String key) {
+        if (nameById.putIfAbsent(entryId, key) != null) {
+            return;
+        }
+        idsByName.merge(key, new int[]{entryId}, NameIndex::append);
+    }
+
+    /**
+     * Adds the entries of an inserted bulk write batch; entries without an ID are skipped.
+     */
+    void addAll(List<Entry> entries) {
+        for (Entry entry : entries) {
+            if (entry.entryId() != null) {
+                Person person = entry.person();
+                add(entry.entryId(), person != null ? key(person.firstName(), person.lastName()) : key(null, null));
+            }
+        }
+    }
+
+    public void remove(int entryId) {
+        String key = nameById.remove(entryId);
+        if (key != null) {
+            idsByName.computeIfPresent(key, (name, ids) -> without(ids, entryId));
+        }
+    }
+
+    /**
+     * Removes every indexed ID from fromId to toId, both inclusive.
+     */
+    public void removeRange(int fromId, int toId) {
+        nameById.keySet().stream()
+                .filter(id -> id >= fromId && id <= toId)
+                .toList()
+                .forEach(this::remove);
+    }
+
+    /**
+     * IDs of the entries whose last name starts with the prefix, ordered by last name then first name.
+     */
+    public int[] searchByLastName(String lastName) {
+        return collect(lastNameRange(lastName), null);
+    }
+
+    /**
+     * IDs of the entries whose last and first names start with the given prefixes.
+     */
+    public int[] searchByFirstAndLastName(String firstName, String lastName) {
+        String first = NameKey.normalize(firstName);
+        return collect(lastNameRange(lastName), first != null ? first : "");
+    }
+
+    private NavigableMap<String, int[]> lastNameRange(String lastName) {
+        String start = NameKey.normalize(lastName);
+        String end = NameKey.prefixEnd(start);
+        return end == null ? idsByName.tailMap(start, true) : idsByName.subMap(start, true, end, false);
+    }
+
+    private static int[] collect(NavigableMap<String, int[]> range, String firstPrefix) {
+        IntStream.Builder ids = IntStream.builder();
+        for (Map.Entry<String, int[]> name : range.entrySet()) {
+            String key = name.getKey();
+            if (firstPrefix == null || key.startsWith(firstPrefix, key.indexOf(SEPARATOR) + 1)) {
+                for (int id : name.getValue()) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids.build().toArray();
+    }
+
+    private static int[] append(int[] ids, int[] added) {
+        int[] merged = Arrays.copyOf(ids, ids.length + added.length);
+        System.arraycopy(added, 0, merged, ids.length, added.length);
+        return merged;
+    }
+
+    private static int[] without(int[] ids, int entryId) {
+        int[] remaining = Arrays.stream(ids).filter(id -> id != entryId).toArray();
+        // returning null drops the name from the map once its last ID is gone
+        return remaining.length > 0 ? remaining : null;
+    }
+
+    public int size() {
+        return nameById.size();
+    }
+
+    /**
+     * True once the startup build has finished; until then searches go to the database.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    void markReady() {
+        this.ready = true;
+    }
+
+    public void clear() {
+        ready = false;
+        idsByName.clear();
+        nameById.clear();
+    }
+}
@@ -0,0 +1,52 @@
+package com.glenn.address.mongo;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalized search keys for names.
+ * Names are stored a second time in this form (lowercased, accents removed) under "search",
+ * so case- and accent-insensitive prefix searches become index range scans instead of regex scans.
+ */
+public final class NameKey {
+    static final String SEARCH = "search";
+    static final String FIRST_NAME = "search.firstName";
+    static final String LAST_NAME = "search.lastName";
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private NameKey() {
+    }
+
+    /**
+     * Decompose, drop combining marks and lowercase: "Zoë" and "ZOE" both become "zoe".
+     */
+    public static String normalize(String name) {
+        if (name == null) {
+            return null;
+        }
+        String decomposed = Normalizer.normalize(name.trim(), Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Smallest string greater than every string starting with the prefix, the exclusive upper
+     * bound of a prefix range. Null when no such bound exists (empty prefix or only maximal characters).
+     */
+    static String prefixEnd(String prefix) {
+        StringBuilder end = new StringBuilder(prefix);
+        while (!end.isEmpty()) {
+            int last = end.codePointBefore(end.length());
+            end.setLength(end.length() - Character.charCount(last));
+            if (last < Character.MAX_CODE_POINT) {
+                int next = last + 1;
+                // skip the surrogate range, which cannot appear on its own in a stored string
+                if (next >= Character.MIN_SURROGATE && next <= Character.MAX_SURROGATE) {
+                    next = Character.MAX_SURROGATE + 1;
+                }
+                return end.appendCodePoint(next).toString();
+            }
+        }
+        return null;
+    }
+}
@@ -1,31 +1,44 @@
 package com.glenn.address.mongo;
 
-import com.glenn.address.domain.CompareById;
-import com.glenn.address.domain.Entry;
-
-import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Helper class that tracks and generates the next available entry ID.
- * Loads the maximum entry ID from the database and provides a method to get the next sequential ID.
+ * Helper class that hands out new entry IDs from blocks reserved atomically in the database.
+ * Each block is reserved with a single round trip through MongoService.reserveEntryIds, so an import
+ * of N entries can claim a contiguous range up front, and concurrent imports never share an ID.
  */
 public class NextEntryId {
-    private Integer maxId = 0;
+    private final MongoService mongoService;
+    private final int blockSize;
+    // A lock rather than synchronized: reserving a block is a database round trip, and a monitor
+    // held across it would pin the carrier thread when called from a virtual thread
+    private final ReentrantLock lock = new ReentrantLock();
+    private int nextId;
+    private int endId;
 
-    public NextEntryId(MongoService mongoService) {
-        load(mongoService);
+    /**
+     * @param mongoService service used to reserve ID blocks
+     * @param blockSize    number of IDs reserved per round trip (at least 1)
+     */
+    public NextEntryId(MongoService mongoService, int blockSize) {
+        this.mongoService = mongoService;
+        this.blockSize = Math.max(1, blockSize);
     }
 
-    private void load(MongoService mongoService) {
-        List<Entry> entries = mongoService.readFromDatabase();
-        if (!entries.isEmpty()) {
-            entries.sort(new CompareById());
-            maxId = entries.getLast().entryId();
-        }
+    public NextEntryId(MongoService mongoService) {
+        this(mongoService, 1);
     }
 
     public Integer next() {
-        return ++maxId;
+        lock.lock();
+        try {
+            if (nextId >= endId) {
+                nextId = mongoService.reserveEntryIds(blockSize);
+                endId = nextId + blockSize;
+            }
+            return nextId++;
+        } finally {
+            lock.unlock();
+        }
     }
-
 }
@@ -0,0 +1,70 @@
+package com.glenn.address.mongo;
+
+import com.glenn.address.domain.Entry;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination.
+ * Holds the sort key of the last entry on a page: entryId for the ID order,
+ * or (lastName, entryId) for the last name order. Encoded as URL-safe Base64 so
+ * clients treat it as an opaque string.
+ *
+ * @param sort sort order the token belongs to
+ * @param lastName last name of the last entry on the page (name order only, may be null)
+ * @param entryId entry ID of the last entry on the page
+ */
+public record PageToken(Sort sort, String lastName, Integer entryId) {
+
+    /**
+     * Sort orders supported by keyset pagination.
+     */
+    public enum Sort {
+        ID("i"), LAST_NAME("n");
+
+        private final String code;
+
+        Sort(String code) {
+            this.code = code;
+        }
+    }
+
+    private static final char SEPARATOR = ':';
+    private static final String NULL_NAME = "-";
+
+    public static PageToken after(Sort sort, Entry entry) {
+        return new PageToken(sort, entry.person() != null ? entry.person().lastName() : null, entry.entryId());
+    }
+
+    public String encode() {
+        StringBuilder sb = new StringBuilder(sort.code).append(SEPARATOR).append(entryId);
+        if (sort == Sort.LAST_NAME) {
+            sb.append(SEPARATOR).append(lastName == null ? NULL_NAME : "=" + lastName);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if the token is malformed or belongs to a different sort order
+     */
+    public static PageToken decode(String token, Sort expected) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(String.valueOf(SEPARATOR), 3);
+            if (!expected.code.equals(parts[0])) {
+                throw new IllegalArgumentException("Continuation token does not match the requested sort order");
+            }
+            Integer entryId = Integer.valueOf(parts[1]);
+            if (expected == Sort.ID) {
+                return new PageToken(expected, null, entryId);
+            }
+            String name = parts[2];
+            return new PageToken(expected, NULL_NAME.equals(name) ? null : name.substring(1), entryId);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid continuation token", e);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.glenn.address.mongo;
+
+import com.glenn.address.domain.BatchDeleteResult;
+import com.glenn.address.domain.BatchGetResult;
+import com.glenn.address.domain.Entry;
+import com.glenn.address.domain.EntryPage;
+import com.glenn.address.domain.EntrySummary;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.FindOneAndReplaceOptions;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static com.glenn.address.mongo.EntryQueries.COUNTER_VALUE;
+import static com.glenn.address.mongo.EntryQueries.ENTRY_ID_COUNTER;
+import static com.glenn.address.mongo.EntryQueries.ENTRY_ID_INDEX;
+import static com.glenn.address.mongo.EntryQueries.LAST_NAME_INDEX;
+import static com.glenn.address.mongo.EntryQueries.SEARCH_INDEX;
+import static com.glenn.address.mongo.EntryQueries.SORT_BY_ID;
+import static com.glenn.address.mongo.EntryQueries.SORT_BY_LAST_NAME;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Sorts.descending;
+import static com.mongodb.client.model.Updates.inc;
+import static com.mongodb.client.model.Updates.max;
+
+/**
+ * Reactive counterpart of MongoService built on the reactive-streams MongoDB driver.
+ * Offers the same operations, returning Flux/Mono so no thread is held while waiting on the database,
+ * and cursor reads are driven by downstream demand (backpressure) all the way to the HTTP response.
+ * Active only with the "reactive" profile.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveMongoService {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveMongoService.class);
+    private static final BulkWriteOptions UNORDERED = new BulkWriteOptions().ordered(false);
+
+    private final MongoCollection<Entry> collection;
+    private final MongoCollection<Document> counters;
+    private final int bulkBatchSize;
+    private final int bulkMaxInFlight;
+    private final Mono<Void> ready;
+
+    /**
+     * Uses the application's reactive MongoClient from MongoConfig, which Spring closes on shutdown.
+     */
+    public ReactiveMongoService(MongoClient mongoClient, DatabaseConfig config) {
+        MongoDatabase database = mongoClient.getDatabase(config.getDatabase());
+        this.collection = database.getCollection(config.getCollection(), Entry.class)
+                .withCodecRegistry(MongoService.codecRegistry());
+        this.counters = database.getCollection(config.getCounters());
+        this.bulkBatchSize = Math.max(1, config.getBulkBatchSize());
+        this.bulkMaxInFlight = Math.max(1, config.getBulkMaxInFlight());
+        // Indexes and the ID counter are set up once, on first use, without blocking or locking;
+        // only success is cached, so a failed setup is retried by the next request, as in MongoService.ensureSetup
+        this.ready = createIndexes().then(seedEntryIdCounter())
+                .cache(v -> Duration.ofMillis(Long.MAX_VALUE), e -> Duration.ZERO, () -> Duration.ofMillis(Long.MAX_VALUE));
+        logger.info("Using reactive MongoDB at {}/{}/{}",
+                config.getConnectionString(), config.getDatabase(), config.getCollection());
+    }
+
+    private Mono<Void> createIndexes() {
+        Mono<String> entryIdIndex = Mono.from(collection.createIndex(Indexes.ascending("entryId"),
+                        new IndexOptions().unique(true).name(ENTRY_ID_INDEX)))
+                .doOnError(e -> logger.warn("Unable to create unique index on entryId", e))
+                .onErrorResume(e -> Mono.empty());
+        Mono<String> lastNameIndex = Mono.from(collection.createIndex(Indexes.ascending("person.lastName", "entryId"),
+                        new IndexOptions().name(LAST_NAME_INDEX)))
+                .doOnError(e -> logger.warn("Unable to create index on person.lastName", e))
+                .onErrorResume(e -> Mono.empty());
+        Mono<String> searchIndex = Mono.from(collection.createIndex(Indexes.ascending(NameKey.LAST_NAME, NameKey.FIRST_NAME),
+                        new IndexOptions().name(SEARCH_INDEX)))
+                .doOnError(e -> logger.warn("Unable to create index on search keys", e))
+                .onErrorResume(e -> Mono.empty());
+        return entryIdIndex.then(lastNameIndex).then(searchIndex).then();
+    }
+
+    private Mono<Void> seedEntryIdCounter() {
+        return Mono.from(collection.find()
+                        .sort(descending("entryId"))
+                        .projection(include("entryId"))
+                        .first())
+                .map(entry -> entry.entryId() != null ? entry.entryId() : 0)
+                .defaultIfEmpty(0)
+                .flatMap(this::raiseEntryIdCounter)
+                .doOnError(e -> logger.error("Unable to seed the entry ID counter", e));
+    }
+
+    private Mono<Void> raiseEntryIdCounter(int entryId) {
+        Bson filter = eq("_id", ENTRY_ID_COUNTER);
+        Bson update = max(COUNTER_VALUE, entryId);
+        return Mono.from(counters.updateOne(filter, update, new UpdateOptions().upsert(true)))
+                // Two nodes raced to create the counter document; it exists now, so apply the update again
+                .onErrorResume(e -> e instanceof MongoWriteException we
+                                && we.getError().getCategory() == ErrorCategory.DUPLICATE_KEY,
+                        e -> Mono.from(counters.updateOne(filter, update)))
+                .then();
+    }
+
+    /**
+     * Atomically reserves a contiguous block of entry IDs with a single findOneAndUpdate/$inc.
+     *
+     * @return the first ID of the reserved block [first, first + count)
+     */
+    public Mono<Integer> reserveEntryIds(int count) {
+        if (count < 1) {
+            return Mono.error(new IllegalArgumentException("Must reserve at least one entry ID"));
+        }
+        return ready.then(Mono.from(counters.findOneAndUpdate(
+                        eq("_id", ENTRY_ID_COUNTER),
+                        inc(COUNTER_VALUE, count),
+                        new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER))))
+                .map(counter -> counter.getInteger(COUNTER_VALUE) - count + 1);
+    }
+
+    public Flux<Entry> readFromDatabase() {
+        return ready.thenMany(collection.find());
+    }
+
+    public Flux<EntrySummary> readSummaries() {
+        return ready.thenMany(collection.find().projection(EntryQueries.SUMMARY_PROJECTION).sort(SORT_BY_ID))
+                .map(EntryQueries::toSummary);
+    }
+
+    public Flux<Entry> readSortedById() {
+        return ready.thenMany(collection.find().sort(SORT_BY_ID));
+    }
+
+    public Flux<Entry> readSortedByLastName() {
+        return ready.thenMany(collection.find().sort(SORT_BY_LAST_NAME));
+    }
+
+    public Mono<EntryPage> readPageById(int limit, String token) {
+        return Mono.fromCallable(() -> EntryQueries.pageAfterId(token))
+                .flatMap(filter -> readPage(filter, SORT_BY_ID, limit, PageToken.Sort.ID));
+    }
+
+    public Mono<EntryPage> readPageByLastName(int limit, String token) {
+        return Mono.fromCallable(() -> EntryQueries.pageAfterLastName(token))
+                .flatMap(filter -> readPage(filter, SORT_BY_LAST_NAME, limit, PageToken.Sort.LAST_NAME));
+    }
+
+    private Mono<EntryPage> readPage(Bson filter, Bson sort, int limit, PageToken.Sort tokenSort) {
+        return Mono.fromRunnable(() -> EntryQueries.checkPageLimit(limit))
+                .then(ready)
+                .thenMany(collection.find(filter).sort(sort).limit(limit + 1))
+                .collect(() -> new ArrayList<Entry>(limit + 1), List::add)
+                .map(entries -> EntryQueries.toPage(entries, limit, tokenSort));
+    }
+
+    public Flux<Entry> searchByEntryId(Integer entryId) {
+        return ready.thenMany(collection.find(EntryQueries.byEntryId(entryId)));
+    }
+
+    public Flux<Entry> searchByLastName(String lastName) {
+        return ready.thenMany(collection.find(EntryQueries.byLastName(lastName)));
+    }
+
+    public Flux<Entry> searchByFirstAndLastName(String firstName, String lastName) {
+        return ready.thenMany(collection.find(EntryQueries.byFirstAndLastName(firstName, lastName)));
+    }
+
+    public Mono<Void> saveEntryToDatabase(Entry update) {
+        Mono<Void> insert = ready.then(Mono.from(collection.insertOne(update))).then();
+        return update.entryId() == null ? insert : insert.then(raiseEntryIdCounter(update.entryId()));
+    }
+
+    /**
+     * Saves entries with unordered bulk writes, bulkBatchSize entries per batch and at most
+     * bulkMaxInFlight batches in flight, mirroring the blocking BulkWriter.
+     */
+    public Mono<BulkWriteSummary> saveToDatabase(Flux<Entry> updates) {
+        AtomicInteger batchNumber = new AtomicInteger();
+        AtomicInteger highestId = new AtomicInteger();
+        return ready.thenMany(updates
+                        .doOnNext(entry -> {
+                            if (entry.entryId() != null) {
+                                highestId.accumulateAndGet(entry.entryId(), Math::max);
+                            }
+                        })
+                        .buffer(bulkBatchSize)
+                        .flatMapSequential(batch -> insertBatch(batchNumber.incrementAndGet(), batch), bulkMaxInFlight))
+                .collectList()
+                .map(BulkWriteSummary::of)
+                .flatMap(summary -> summary.inserted() > 0
+                        ? raiseEntryIdCounter(highestId.get()).thenReturn(summary)
+                        : Mono.just(summary));
+    }
+
+    private Mono<BatchResult> insertBatch(int number, List<Entry> batch) {
+        List<InsertOneModel<Entry>> models = batch.stream().map(InsertOneModel::new).toList();
+        return Mono.from(collection.bulkWrite(models, UNORDERED))
+                .map(result -> new BatchResult(number, batch.size(), result.getInsertedCount(), 0, 0, null))
+                .onErrorResume(MongoBulkWriteException.class,
+                        e -> Mono.just(BulkWriter.partialResult(number, batch.size(), e)))
+                .onErrorResume(e -> !(e instanceof MongoBulkWriteException), e -> {
+                    logger.error("Bulk batch {} failed", number, e);
+                    return Mono.just(new BatchResult(number, batch.size(), 0, 0, batch.size(), e.getMessage()));
+                });
+    }
+
+    /**
+     * Replaces the entry with the given ID and emits the stored result; empty if no entry has the ID.
+     */
+    public Mono<Entry> replaceEntry(Integer entryId, Entry replacement) {
+        Entry stored = new Entry(entryId, replacement.person(), replacement.address(), replacement.notes());
+        return ready.then(Mono.from(collection.findOneAndReplace(EntryQueries.byEntryId(entryId), stored,
+                new FindOneAndReplaceOptions().returnDocument(ReturnDocument.AFTER))));
+    }
+
+    /**
+     * Applies a partial update (see EntryUpdates) and emits the updated entry; empty if no entry has the ID.
+     * An invalid patch is signalled as an IllegalArgumentException.
+     */
+    public Mono<Entry> patchEntry(Integer entryId, Map<String, Object> patch) {
+        return Mono.fromCallable(() -> EntryUpdates.fromPatch(entryId, patch))
+                .flatMap(update -> ready.then(Mono.from(collection.findOneAndUpdate(EntryQueries.byEntryId(entryId),
+                        update, new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER)))));
+    }
+
+    public Mono<Long> deleteEntryById(Integer entryId) {
+        return ready.then(Mono.from(collection.deleteMany(EntryQueries.byEntryId(entryId))))
+                .map(result -> result.getDeletedCount());
+    }
+
+    /**
+     * Looks up a batch of entry IDs with one $in query.
+     * An invalid batch is signalled as an IllegalArgumentException.
+     */
+    public Mono<BatchGetResult> batchGet(List<Integer> entryIds) {
+        return Mono.fromCallable(() -> EntryQueries.checkBatch(entryIds))
+                .flatMap(ids -> ready.thenMany(collection.find(EntryQueries.byEntryIds(ids)))
+                        .collect(Collectors.groupingBy(Entry::entryId))
+                        .map(byId -> EntryQueries.toBatch(ids, byId)));
+    }
+
+    /**
+     * Deletes a batch of entry IDs: a distinct finds which IDs exist, then one $in delete removes them.
+     * An invalid batch is signalled as an IllegalArgumentException.
+     */
+    public Mono<BatchDeleteResult> batchDelete(List<Integer> entryIds) {
+        return Mono.fromCallable(() -> EntryQueries.checkBatch(entryIds))
+                .flatMap(ids -> ready.thenMany(collection.distinct("entryId", EntryQueries.byEntryIds(ids), Integer.class))
+                        .collectList()
+                        .flatMap(existing -> existing.isEmpty()
+                                ? Mono.just(EntryQueries.toDeleteResult(ids, existing, 0))
+                                : Mono.from(collection.deleteMany(EntryQueries.byEntryIds(existing)))
+                                        .map(result -> EntryQueries.toDeleteResult(ids, existing, result.getDeletedCount()))));
+    }
+
+    /**
+     * Deletes every entry with an ID from fromId to toId, both inclusive, and emits the number deleted.
+     */
+    public Mono<Long> deleteEntryIdRange(int fromId, int toId) {
+        return Mono.fromRunnable(() -> EntryQueries.checkRange(fromId, toId))
+                .then(ready)
+                .then(Mono.from(collection.deleteMany(EntryQueries.byEntryIdRange(fromId, toId))))
+                .map(result -> result.getDeletedCount());
+    }
+}
@@ -0,0 +1,58 @@
+package com.glenn.address.store;
+
+import com.glenn.address.domain.Entry;
+import com.glenn.address.mongo.BulkWriteSummary;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Storage operations on address book entries that do not depend on where the entries are kept.
+ * Implemented by MongoService against a MongoDB server and by LogEntryRepository against local files,
+ * so a deployment without a database server can still save, search and delete entries.
+ * AddressApi serves its core endpoints through this interface.
+ */
+public interface EntryRepository extends AutoCloseable {
+
+    /**
+     * Stores one entry.
+     *
+     * @throws RuntimeException if an entry with the same entryId already exists: MongoWriteException from
+     *                          MongoService, IllegalStateException from LogEntryRepository
+     * @throws IllegalArgumentException if the store cannot hold the entry as given
+     */
+    void save(Entry entry);
+
+    /**
+     * Stores entries as they are pulled from the iterator. Entries whose entryId already exists are skipped.
+     *
+     * @return totals and per-batch results
+     */
+    BulkWriteSummary saveAll(Iterator<Entry> entries);
+
+    void deleteById(Integer entryId);
+
+    List<Entry> readAll();
+
+    /**
+     * Streams every entry without collecting them first.
+     * The stream may hold an open cursor and must be closed by the caller.
+     */
+    Stream<Entry> streamAll();
+
+    List<Entry> searchByEntryId(Integer entryId);
+
+    /**
+     * Case- and accent-insensitive prefix search on the last name.
+     */
+    List<Entry> searchByLastName(String lastName);
+
+    /**
+     * Case- and accent-insensitive prefix search on the last and first names.
+     */
+    List<Entry> searchByFirstAndLastName(String firstName, String lastName);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,698 @@
+package com.glenn.address.store;
+
+import com.glenn.address.binary.AvroService;
+import com.glenn.address.domain.Entry;
+import com.glenn.address.domain.Person;
+import com.glenn.address.mongo.BatchResult;
+import com.glenn.address.mongo.BulkWriteSummary;
+import com.glenn.address.mongo.NameIndex;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Embedded, log-structured entry storage for deployments without a MongoDB server.
+ * Every save appends a record holding the entry, encoded with the Avro schema in entry-schema.avsc, to the
+ * active segment file; a delete appends a tombstone. An in-memory index maps each entryId to the offset of its
+ * latest record, and a NameIndex answers name searches, so a read is one positional file read.
+ * Segments roll over at store.segmentBytes. A background compactor merges the sealed segments into one, copying
+ * only live records, once the share of dead bytes in them reaches store.compactionRatio.
+ * Records carry a length and CRC32C, so recovery replays the segments in order and cuts off a torn or corrupt tail.
+ * Writes are flushed to the operating system at once and forced to disk on roll-over, on close, or after every
+ * write with store.syncWrites.
+ */
+public class LogEntryRepository implements EntryRepository {
+    private static final Logger logger = LoggerFactory.getLogger(LogEntryRepository.class);
+    static final String SEGMENT_PREFIX = "segment-";
+    static final String SEGMENT_SUFFIX = ".log";
+    static final String COMPACTING_SUFFIX = ".compacting";
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+    // record: body length, CRC32C of the body, then the body: type, entryId and, for a put, the Avro datum
+    static final int RECORD_HEADER_SIZE = 8;
+    static final int BODY_HEADER_SIZE = 5;
+    private static final int MAX_BODY_SIZE = 16 * 1024 * 1024;
+    private static final int BATCH_BYTES = 1024 * 1024;
+    private static final int BATCH_ENTRIES = 1000;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final double compactionRatio;
+    private final long compactionIntervalSeconds;
+    private final boolean syncWrites;
+    private final AvroService avroService = new AvroService();
+    private final ConcurrentSkipListMap<Integer, Location> index = new ConcurrentSkipListMap<>();
+    private final NameIndex nameIndex = new NameIndex();
+    // segments and the index are changed under the write lock; readers hold the read lock so a compaction
+    // cannot close a segment under them
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock compactionLock = new ReentrantLock();
+    private final NavigableMap<Long, Segment> segments = new TreeMap<>();
+    private ScheduledExecutorService compactor;
+    private Segment active;
+
+    /**
+     * Where the latest record of an entry is: segment, offset of the record and its length including the header.
+     */
+    record Location(long segmentId, long offset, int length) {
+    }
+
+    /**
+     * Opens the store in the directory, creating it if needed, and recovers the index from the segments.
+     * The background compactor is not running until start is called.
+     *
+     * @param compactionIntervalSeconds how often to check whether to compact; 0 or less disables the compactor
+     */
+    public LogEntryRepository(Path directory, long segmentBytes, double compactionRatio,
+                              long compactionIntervalSeconds, boolean syncWrites) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.compactionRatio = compactionRatio;
+        this.compactionIntervalSeconds = compactionIntervalSeconds;
+        this.syncWrites = syncWrites;
+        long ts = System.nanoTime();
+        recover();
+        logger.info("Opened entry log at {} with {} entries in {} segments in {} ms",
+                directory, index.size(), segments.size(), (System.nanoTime() - ts) / 1_000_000);
+    }
+
+    /**
+     * Starts the background compactor, unless the compaction interval disables it or it is already running.
+     */
+    public synchronized void start() {
+        if (compactionIntervalSeconds > 0 && compactor == null) {
+            compactor = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("log-compactor").daemon().factory());
+            compactor.scheduleWithFixedDelay(this::compactQuietly,
+                    compactionIntervalSeconds, compactionIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void save(Entry entry) {
+        int entryId = requireValid(entry);
+        byte[] record = encode(PUT, entryId, entry);
+        lock.writeLock().lock();
+        try {
+            if (index.containsKey(entryId)) {
+                // reported like the unique index violation MongoService raises for the same save
+                throw new IllegalStateException("Duplicate Entry ID Exists");
+            }
+            Location location = append(List.of(record)).getFirst();
+            put(entryId, location, entry);
+            syncIfRequired();
+        } catch (IOException e) {
+            logger.error("Failed to save entry {} to the entry log", entryId, e);
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Appends entries in batches of up to a megabyte, one write per batch. Entries are encoded before the
+     * write lock is taken, so readers only wait for the file write itself. An entry that cannot be stored is
+     * counted as a failure of its batch rather than ending the save, as a rejected insert is in a bulk write.
+     */
+    @Override
+    public BulkWriteSummary saveAll(Iterator<Entry> entries) {
+        List<BatchResult> results = new ArrayList<>();
+        List<Entry> batch = new ArrayList<>();
+        List<byte[]> records = new ArrayList<>();
+        int batchBytes = 0;
+        int invalid = 0;
+        String invalidError = null;
+        while (entries.hasNext()) {
+            Entry entry = entries.next();
+            try {
+                byte[] record = encode(PUT, requireValid(entry), entry);
+                batch.add(entry);
+                records.add(record);
+                batchBytes += record.length;
+            } catch (IllegalArgumentException e) {
+                invalid++;
+                if (invalidError == null) {
+                    invalidError = e.getMessage();
+                }
+            }
+            if (batchBytes >= BATCH_BYTES || batch.size() + invalid >= BATCH_ENTRIES) {
+                results.add(saveBatch(results.size() + 1, batch, records, invalid, invalidError));
+                batch.clear();
+                records.clear();
+                batchBytes = 0;
+                invalid = 0;
+                invalidError = null;
+            }
+        }
+        if (!batch.isEmpty() || invalid > 0) {
+            results.add(saveBatch(results.size() + 1, batch, records, invalid, invalidError));
+        }
+        BulkWriteSummary summary = BulkWriteSummary.of(results);
+        logger.debug("Saved {} entries to the entry log ({} duplicates)", summary.inserted(), summary.duplicates());
+        return summary;
+    }
+
+    /**
+     * @param invalid      entries of the batch rejected before encoding, counted as failures
+     * @param invalidError message for the first of those, or null
+     */
+    private BatchResult saveBatch(int number, List<Entry> batch, List<byte[]> records, int invalid, String invalidError) {
+        int size = batch.size() + invalid;
+        lock.writeLock().lock();
+        try {
+            // skip IDs already stored, including repeats within the batch, as a bulk insert would
+            Set<Integer> seen = new HashSet<>();
+            List<Entry> accepted = new ArrayList<>(batch.size());
+            List<byte[]> acceptedRecords = new ArrayList<>(batch.size());
+            for (int xx = 0; xx < batch.size(); xx++) {
+                Integer entryId = batch.get(xx).entryId();
+                if (!index.containsKey(entryId) && seen.add(entryId)) {
+                    accepted.add(batch.get(xx));
+                    acceptedRecords.add(records.get(xx));
+                }
+            }
+            if (!accepted.isEmpty()) {
+                List<Location> locations = append(acceptedRecords);
+                for (int xx = 0; xx < accepted.size(); xx++) {
+                    put(accepted.get(xx).entryId(), locations.get(xx), accepted.get(xx));
+                }
+                syncIfRequired();
+            }
+            int duplicates = batch.size() - accepted.size();
+            return new BatchResult(number, size, accepted.size(), duplicates, invalid,
+                    invalidError != null ? invalidError : duplicates > 0 ? "Duplicate Entry ID Exists" : null);
+        } catch (IOException e) {
+            logger.error("Failed to save a batch of {} entries to the entry log", size, e);
+            return new BatchResult(number, size, 0, 0, size, e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteById(Integer entryId) {
+        lock.writeLock().lock();
+        try {
+            Location old = index.get(entryId);
+            if (old == null) {
+                return;
+            }
+            append(List.of(encode(DELETE, entryId, null)));
+            index.remove(entryId);
+            segments.get(old.segmentId()).addLive(-old.length());
+            nameIndex.remove(entryId);
+            syncIfRequired();
+            logger.debug("Deleted entry {} from the entry log", entryId);
+        } catch (IOException e) {
+            logger.error("Failed to delete entry {} from the entry log", entryId, e);
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reads every entry in entryId order.
+     */
+    @Override
+    public List<Entry> readAll() {
+        lock.readLock().lock();
+        try {
+            List<Entry> entries = new ArrayList<>(index.size());
+            for (Location location : index.values()) {
+                entries.add(read(location));
+            }
+            return entries;
+        } catch (IOException e) {
+            logger.error("Failed to read entries from the entry log", e);
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Streams every entry in entryId order, reading each one as it is consumed. The index is walked without a
+     * snapshot, so entries saved or deleted while the stream is open may or may not be seen.
+     */
+    @Override
+    public Stream<Entry> streamAll() {
+        return index.keySet().stream().flatMap(entryId -> searchByEntryId(entryId).stream());
+    }
+
+    @Override
+    public List<Entry> searchByEntryId(Integer entryId) {
+        lock.readLock().lock();
+        try {
+            Location location = index.get(entryId);
+            return location == null ? List.of() : List.of(read(location));
+        } catch (IOException e) {
+            logger.error("Failed to read entry {} from the entry log", entryId, e);
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Entry> searchByLastName(String lastName) {
+        return resolve(nameIndex.searchByLastName(lastName));
+    }
+
+    @Override
+    public List<Entry> searchByFirstAndLastName(String firstName, String lastName) {
+        return resolve(nameIndex.searchByFirstAndLastName(firstName, lastName));
+    }
+
+    private List<Entry> resolve(int[] entryIds) {
+        lock.readLock().lock();
+        try {
+            List<Entry> entries = new ArrayList<>(entryIds.length);
+            for (int entryId : entryIds) {
+                Location location = index.get(entryId);
+                if (location != null) {
+                    entries.add(read(location));
+                }
+            }
+            return entries;
+        } catch (IOException e) {
+            logger.error("Failed to read entries from the entry log", e);
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Merges the sealed segments into one compacted segment holding only their live records, when the share
+     * of dead bytes in them has reached the compaction ratio. Records are copied without holding the write lock;
+     * the index is switched to the copies, and the old segments removed, in one short critical section.
+     * A copy whose entry was overwritten or deleted meanwhile is left as dead bytes in the new segment.
+     * The merged segment takes the ID of the newest sealed segment and is renamed into place before the old
+     * segments are deleted, so a crash at any point recovers either the old segments or the merged one.
+     *
+     * @return true if a compaction ran
+     */
+    public boolean compact() throws IOException {
+        if (!compactionLock.tryLock()) {
+            return false;
+        }
+        try {
+            List<Segment> sealed;
+            lock.readLock().lock();
+            try {
+                sealed = new ArrayList<>(segments.headMap(active.id(), false).values());
+                long total = sealed.stream().mapToLong(segment -> segment.size() - Segment.HEADER_SIZE).sum();
+                long live = sealed.stream().mapToLong(Segment::liveBytes).sum();
+                if (total == 0 || (double) (total - live) / total < compactionRatio) {
+                    return false;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            long ts = System.nanoTime();
+            Segment newest = sealed.getLast();
+            Path target = segmentPath(newest.id());
+            Path temp = directory.resolve(target.getFileName() + COMPACTING_SUFFIX);
+            Files.deleteIfExists(temp);
+            List<Moved> moved = new ArrayList<>();
+            Segment merged = Segment.create(newest.id(), temp, true);
+            try {
+                for (Segment segment : sealed) {
+                    copyLive(segment, merged, moved);
+                }
+                merged.sync();
+            } catch (IOException | RuntimeException e) {
+                merged.close();
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            merged.close();
+            install(sealed, target, temp, moved);
+            logger.info("Compacted {} segments into {} live entries in {} ms",
+                    sealed.size(), moved.size(), (System.nanoTime() - ts) / 1_000_000);
+            return true;
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    /**
+     * A live record copied by compaction, from its old location to its location in the merged segment.
+     */
+    private record Moved(int entryId, Location from, Location to) {
+    }
+
+    private void copyLive(Segment segment, Segment merged, List<Moved> moved) throws IOException {
+        ByteArrayOutputStream pending = new ByteArrayOutputStream(BATCH_BYTES);
+        long offset = Segment.HEADER_SIZE;
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        while (offset < segment.size()) {
+            header.clear();
+            segment.read(header, offset);
+            int length = RECORD_HEADER_SIZE + header.getInt(0);
+            ByteBuffer record = ByteBuffer.allocate(length);
+            segment.read(record, offset);
+            if (record.get(RECORD_HEADER_SIZE) == PUT) {
+                int entryId = record.getInt(RECORD_HEADER_SIZE + 1);
+                Location from = new Location(segment.id(), offset, length);
+                if (from.equals(index.get(entryId))) {
+                    Location to = new Location(merged.id(), merged.size() + pending.size(), length);
+                    pending.write(record.array(), 0, length);
+                    moved.add(new Moved(entryId, from, to));
+                    if (pending.size() >= BATCH_BYTES) {
+                        merged.append(ByteBuffer.wrap(pending.toByteArray()));
+                        pending.reset();
+                    }
+                }
+            }
+            // tombstones are dropped: every older record they could hide is being merged away with them
+            offset += length;
+        }
+        if (pending.size() > 0) {
+            merged.append(ByteBuffer.wrap(pending.toByteArray()));
+        }
+    }
+
+    private void install(List<Segment> sealed, Path target, Path temp, List<Moved> moved) throws IOException {
+        lock.writeLock().lock();
+        try {
+            // the old segments stay open on their files until the index no longer points at them
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Segment installed = Segment.open(sealed.getLast().id(), target);
+            for (Moved move : moved) {
+                if (index.replace(move.entryId(), move.from(), move.to())) {
+                    installed.addLive(move.to().length());
+                }
+            }
+            for (Segment segment : sealed) {
+                segments.remove(segment.id());
+                segment.close();
+                if (segment.id() != installed.id()) {
+                    Files.deleteIfExists(segment.path());
+                }
+            }
+            segments.put(installed.id(), installed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (Exception e) {
+            logger.error("Entry log compaction failed", e);
+        }
+    }
+
+    /**
+     * Writes the records to the active segment in one write, rolling over to a new segment first if they
+     * would take it past the segment size. Called under the write lock.
+     *
+     * @return the location of each record
+     */
+    private List<Location> append(List<byte[]> records) throws IOException {
+        int total = records.stream().mapToInt(record -> record.length).sum();
+        if (active.size() > Segment.HEADER_SIZE && active.size() + total > segmentBytes) {
+            roll();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        records.forEach(buffer::put);
+        long offset = active.append(buffer.flip());
+        List<Location> locations = new ArrayList<>(records.size());
+        for (byte[] record : records) {
+            locations.add(new Location(active.id(), offset, record.length));
+            offset += record.length;
+        }
+        return locations;
+    }
+
+    private void roll() throws IOException {
+        active.sync();
+        long nextId = active.id() + 1;
+        active = Segment.create(nextId, segmentPath(nextId), false);
+        segments.put(nextId, active);
+        logger.debug("Rolled the entry log over to segment {}", nextId);
+    }
+
+    private void put(int entryId, Location location, Entry entry) {
+        Location old = index.put(entryId, location);
+        if (old != null) {
+            segments.get(old.segmentId()).addLive(-old.length());
+            nameIndex.remove(entryId);
+        }
+        segments.get(location.segmentId()).addLive(location.length());
+        index(entryId, entry);
+    }
+
+    private void index(int entryId, Entry entry) {
+        Person person = entry.person();
+        nameIndex.add(entryId, person != null ? person.firstName() : null, person != null ? person.lastName() : null);
+    }
+
+    private void syncIfRequired() throws IOException {
+        if (syncWrites) {
+            active.sync();
+        }
+    }
+
+    private byte[] encode(byte type, int entryId, Entry entry) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+            out.write(new byte[RECORD_HEADER_SIZE + BODY_HEADER_SIZE]);
+            if (entry != null) {
+                BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+                avroService.encode(entry, encoder);
+                encoder.flush();
+            }
+            byte[] record = out.toByteArray();
+            int bodyLength = record.length - RECORD_HEADER_SIZE;
+            ByteBuffer.wrap(record)
+                    .putInt(0, bodyLength)
+                    .put(RECORD_HEADER_SIZE, type)
+                    .putInt(RECORD_HEADER_SIZE + 1, entryId)
+                    .putInt(4, crc(record, RECORD_HEADER_SIZE, bodyLength));
+            return record;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads and decodes the entry at a location. Called under the read or write lock.
+     */
+    private Entry read(Location location) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(location.length());
+        if (!segments.get(location.segmentId()).read(record, location.offset())) {
+            throw new IOException("Entry log record past the end of segment " + location.segmentId());
+        }
+        int datumOffset = RECORD_HEADER_SIZE + BODY_HEADER_SIZE;
+        return avroService.decode(DecoderFactory.get().binaryDecoder(
+                record.array(), datumOffset, location.length() - datumOffset, null));
+    }
+
+    private static int crc(byte[] bytes, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Checks the fields the Avro schema requires, so a bad entry is rejected before anything is written
+     *
+     * @return the entryId
+     */
+    private static int requireValid(Entry entry) {
+        if (entry.entryId() == null) {
+            throw new IllegalArgumentException("Entries stored in the entry log need an entryId");
+        }
+        Person person = entry.person();
+        if (person == null || person.firstName() == null || person.lastName() == null) {
+            throw new IllegalArgumentException("Entries stored in the entry log need a first and last name");
+        }
+        if (entry.address() == null) {
+            throw new IllegalArgumentException("Entries stored in the entry log need an address");
+        }
+        return entry.entryId();
+    }
+
+    private Path segmentPath(long segmentId) {
+        return directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, segmentId, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Rebuilds the in-memory state from the segment files: finishes or discards an interrupted compaction,
+     * replays every segment in order and opens the segment new records go to.
+     */
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        TreeMap<Long, Path> found = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(COMPACTING_SUFFIX)) {
+                    // a compaction that never got renamed into place; the segments it was merging are intact
+                    logger.warn("Discarding unfinished compaction {}", file);
+                    Files.delete(file);
+                } else if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    found.put(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())), file);
+                }
+            }
+        }
+        for (Map.Entry<Long, Path> file : found.entrySet()) {
+            if (file.getKey().equals(found.lastKey()) && Files.size(file.getValue()) < Segment.HEADER_SIZE) {
+                // created by a roll-over that crashed before its header was written
+                logger.warn("Discarding empty segment {}", file.getValue());
+                Files.delete(file.getValue());
+            } else {
+                segments.put(file.getKey(), Segment.open(file.getKey(), file.getValue()));
+            }
+        }
+        // a compacted segment supersedes every older one; those are left over from a compaction cut short
+        segments.descendingMap().values().stream()
+                .filter(Segment::isCompacted)
+                .findFirst()
+                .ifPresent(this::discardOlderThan);
+        for (Segment segment : segments.values()) {
+            replay(segment);
+        }
+        Segment last = segments.isEmpty() ? null : segments.lastEntry().getValue();
+        if (last != null && !last.isCompacted() && last.size() < segmentBytes) {
+            active = last;
+        } else {
+            long nextId = last == null ? 1 : last.id() + 1;
+            active = Segment.create(nextId, segmentPath(nextId), false);
+            segments.put(nextId, active);
+        }
+        for (Map.Entry<Integer, Location> entry : index.entrySet()) {
+            index(entry.getKey(), read(entry.getValue()));
+        }
+    }
+
+    private void discardOlderThan(Segment compacted) {
+        for (Segment segment : new ArrayList<>(segments.headMap(compacted.id(), false).values())) {
+            try {
+                logger.warn("Discarding segment {} superseded by compacted segment {}", segment.id(), compacted.id());
+                segments.remove(segment.id());
+                segment.close();
+                Files.delete(segment.path());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Applies the records of one segment to the index, stopping at the first record that is torn or fails
+     * its checksum and cutting the segment off there.
+     */
+    private void replay(Segment segment) throws IOException {
+        long offset = Segment.HEADER_SIZE;
+        long end = segment.size();
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        while (end - offset >= RECORD_HEADER_SIZE) {
+            header.clear();
+            segment.read(header, offset);
+            int bodyLength = header.getInt(0);
+            if (bodyLength < BODY_HEADER_SIZE || bodyLength > MAX_BODY_SIZE
+                    || offset + RECORD_HEADER_SIZE + bodyLength > end) {
+                break;
+            }
+            ByteBuffer body = ByteBuffer.allocate(bodyLength);
+            segment.read(body, offset + RECORD_HEADER_SIZE);
+            if (crc(body.array(), 0, bodyLength) != header.getInt(4)) {
+                break;
+            }
+            int entryId = body.getInt(1);
+            int length = RECORD_HEADER_SIZE + bodyLength;
+            Location old = switch (body.get(0)) {
+                case PUT -> {
+                    segment.addLive(length);
+                    yield index.put(entryId, new Location(segment.id(), offset, length));
+                }
+                case DELETE -> index.remove(entryId);
+                default -> throw new IOException("Unknown record type " + body.get(0) + " in " + segment.path());
+            };
+            if (old != null) {
+                segments.get(old.segmentId()).addLive(-old.length());
+            }
+            offset += length;
+        }
+        if (offset < end) {
+            logger.warn("Cutting {} bytes of torn or corrupt records from {} at offset {}",
+                    end - offset, segment.path(), offset);
+            segment.truncate(offset);
+        }
+    }
+
+    /**
+     * @return number of entries stored
+     */
+    public int size() {
+        return index.size();
+    }
+
+    int segmentCount() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stops the compactor, waiting for a running compaction, then forces every segment to disk and closes it.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (compactor != null) {
+                compactor.shutdown();
+            }
+        }
+        compactionLock.lock();
+        lock.writeLock().lock();
+        try {
+            for (Segment segment : segments.values()) {
+                segment.sync();
+                segment.close();
+            }
+            segments.clear();
+            logger.info("Entry log at {} closed", directory);
+        } catch (IOException e) {
+            logger.error("Failed to close the entry log at {}", directory, e);
+        } finally {
+            lock.writeLock().unlock();
+            compactionLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.glenn.address.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One append-only segment file of the entry log.
+ * A segment starts with a header giving its kind; a compacted segment holds the merged live records of every
+ * segment before it, so on recovery any older segment left behind by an interrupted compaction is discarded.
+ * Records follow the header back to back. Reads are positional, so any number of readers share the channel.
+ */
+class Segment {
+    static final int MAGIC = 0x41444c47; // "ADLG"
+    static final byte VERSION = 1;
+    static final byte KIND_LOG = 0;
+    static final byte KIND_COMPACTED = 1;
+    static final int HEADER_SIZE = 8;
+
+    private final long id;
+    private final Path path;
+    private final FileChannel channel;
+    private final boolean compacted;
+    private long size;
+    private long liveBytes = 0;
+
+    private Segment(long id, Path path, FileChannel channel, boolean compacted, long size) {
+        this.id = id;
+        this.path = path;
+        this.channel = channel;
+        this.compacted = compacted;
+        this.size = size;
+    }
+
+    /**
+     * Creates a new, empty segment file with its header written.
+     */
+    static Segment create(long id, Path path, boolean compacted) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .put(VERSION)
+                .put(compacted ? KIND_COMPACTED : KIND_LOG)
+                .putShort((short) 0)
+                .flip();
+        writeFully(channel, header, 0);
+        return new Segment(id, path, channel, compacted, HEADER_SIZE);
+    }
+
+    /**
+     * Opens an existing segment file and checks its header.
+     *
+     * @throws IOException if the file is not a segment
+     */
+    static Segment open(long id, Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (channel.size() < HEADER_SIZE || !readFully(channel, header, 0)
+                    || header.getInt(0) != MAGIC || header.get(4) != VERSION) {
+                throw new IOException("Not an entry log segment: " + path);
+            }
+            return new Segment(id, path, channel, header.get(5) == KIND_COMPACTED, channel.size());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends bytes at the end of the segment.
+     *
+     * @return offset the bytes were written at
+     */
+    long append(ByteBuffer buffer) throws IOException {
+        long offset = size;
+        int length = buffer.remaining();
+        writeFully(channel, buffer, offset);
+        size += length;
+        return offset;
+    }
+
+    /**
+     * Reads into the buffer from the offset until it is full.
+     *
+     * @return false if the end of the file came first
+     */
+    boolean read(ByteBuffer buffer, long offset) throws IOException {
+        return readFully(channel, buffer, offset);
+    }
+
+    /**
+     * Cuts the segment back to the given size, dropping a torn or corrupt tail.
+     */
+    void truncate(long newSize) throws IOException {
+        channel.truncate(newSize);
+        size = newSize;
+    }
+
+    void sync() throws IOException {
+        channel.force(false);
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    long id() {
+        return id;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    boolean isCompacted() {
+        return compacted;
+    }
+
+    long size() {
+        return size;
+    }
+
+    long liveBytes() {
+        return liveBytes;
+    }
+
+    void addLive(long bytes) {
+        liveBytes += bytes;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                return false;
+            }
+            position += read;
+        }
+        return true;
+    }
+}
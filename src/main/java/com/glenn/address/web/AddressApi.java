@@ -1,90 +1,86 @@
 package com.glenn.address.web;
 
-import com.glenn.address.domain.CompareById;
-import com.glenn.address.domain.CompareByLastName;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.glenn.address.domain.Entry;
-import com.glenn.address.mongo.FileDataUtil;
-import com.glenn.address.mongo.MongoService;
-import com.glenn.address.mongo.NextEntryId;
+import com.glenn.address.mongo.BatchResult;
+import com.glenn.address.mongo.BulkWriteSummary;
+import com.glenn.address.store.EntryRepository;
 import com.mongodb.MongoWriteException;
-import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.File;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 /**
  * REST API controller for address book entry management.
  * Provides endpoints for CRUD operations and searching address entries through HTTP.
  * Handles request routing and response formatting for the address book API.
+ * Works against any EntryRepository, so the same endpoints are served from MongoDB or, with the "local"
+ * profile, from the embedded store; endpoints that need MongoDB are in MongoAddressApi.
  */
 @RestController
 @RequestMapping("/api/entries")
+@Profile("!reactive")
 public class AddressApi {
     private static final Logger logger = LoggerFactory.getLogger(AddressApi.class);
     public static final String DATABASE_ERROR = "Database Error";
-    public static final String EXPORT_DATA_FILE = "export-data.json";
-    public static final String IMPORT_DATA_FILE = "import-data.json";
-    private final MongoService mongoService;
+    private final EntryRepository entryRepository;
+    private final EntryStreamWriter entryStreamWriter = new EntryStreamWriter(new ObjectMapper());
 
     @SuppressWarnings("unused")
     @Autowired
-    public AddressApi(MongoService mongoService) {
-        this.mongoService = mongoService;
-    }
-
-    public static List<Entry> sortById(List<Entry> entries) {
-        entries.sort(new CompareById());
-        return entries;
-    }
-
-    public static List<Entry> sortByLastName(List<Entry> entries) {
-        entries.sort(new CompareByLastName());
-        return entries;
+    public AddressApi(EntryRepository entryRepository) {
+        this.entryRepository = entryRepository;
     }
 
     @GetMapping
     @SuppressWarnings("unused")
     public ResponseEntity<?> getAllEntries() {
         logger.debug("#### getAllEntries ####");
-        try {
-            return ResponseEntity.ok(mongoService.readFromDatabase());
-        } catch (Exception e) {
-            logger.error("Failed to retrieve all entries", e);
-            ErrorResponse errorResponse = new ErrorResponse(DATABASE_ERROR, e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-        }
+        return streamEntries(EntryStreamWriter.FORMAT_JSON, "Failed to retrieve all entries");
     }
 
-    @GetMapping("/sortById")
+    @GetMapping("/stream")
     @SuppressWarnings("unused")
-    public ResponseEntity<?> getAllEntriesSortedById() {
-        logger.debug("#### getAllEntriesSortedById ####");
-        try {
-            return ResponseEntity.ok(sortById(mongoService.readFromDatabase()));
-        } catch (Exception e) {
-            logger.error("Failed to retrieve and sort entries by ID", e);
-            ErrorResponse errorResponse = new ErrorResponse(DATABASE_ERROR, e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+    public ResponseEntity<?> streamAllEntries(@RequestParam(required = false, defaultValue = EntryStreamWriter.FORMAT_JSON) String format) {
+        logger.debug("#### streamAllEntries ####");
+        if (!EntryStreamWriter.isSupported(format)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("Invalid Format", "Format must be json or ndjson"));
         }
+        return streamEntries(format, "Failed to stream all entries");
     }
 
-    @GetMapping("/sortByLastName")
-    @SuppressWarnings("unused")
-    public ResponseEntity<?> getAllEntriesSortedByLastName() {
-        logger.debug("#### getAllEntriesSortedByLastName ####");
+    /**
+     * Write every entry straight from the repository's cursor, so heap stays flat however large the collection is.
+     * The cursor is opened before the response is committed, so a database error still gets an ErrorResponse.
+     */
+    private ResponseEntity<?> streamEntries(String format, String failure) {
+        Stream<Entry> entries;
         try {
-            return ResponseEntity.ok(sortByLastName(mongoService.readFromDatabase()));
+            entries = entryRepository.streamAll();
         } catch (Exception e) {
-            logger.error("Failed to retrieve and sort entries by last name", e);
+            logger.error(failure, e);
             ErrorResponse errorResponse = new ErrorResponse(DATABASE_ERROR, e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
+        StreamingResponseBody body = out -> {
+            long count = entryStreamWriter.write(entries, format, out);
+            logger.debug("Streamed {} entries as {}", count, format);
+        };
+        MediaType mediaType = EntryStreamWriter.FORMAT_NDJSON.equals(format)
+                ? MediaType.APPLICATION_NDJSON
+                : MediaType.APPLICATION_JSON;
+        return ResponseEntity.ok().contentType(mediaType).body(body);
     }
 
     @GetMapping("/{entryId}")
@@ -92,7 +88,7 @@ public class AddressApi {
     public ResponseEntity<?> getEntryById(@PathVariable Integer entryId) {
         logger.debug("#### getEntryById ####");
         try {
-            List<Entry> entries = mongoService.searchByEntryId(entryId);
+            List<Entry> entries = entryRepository.searchByEntryId(entryId);
             if (entries.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
@@ -109,7 +105,7 @@ public class AddressApi {
     public ResponseEntity<?> searchByLastName(@PathVariable String lastName) {
         logger.debug("#### searchByLastName ####");
         try {
-            return ResponseEntity.ok(mongoService.searchByLastName(lastName));
+            return ResponseEntity.ok(entryRepository.searchByLastName(lastName));
         } catch (Exception e) {
             logger.error("Failed to search by lastName: {}", lastName, e);
             ErrorResponse errorResponse = new ErrorResponse(DATABASE_ERROR, e.getMessage());
@@ -123,7 +119,7 @@ public class AddressApi {
                                                       @PathVariable String lastName) {
         logger.debug("#### searchByFirstAndLastName ####");
         try {
-            return ResponseEntity.ok(mongoService.searchByFirstAndLastName(firstName, lastName));
+            return ResponseEntity.ok(entryRepository.searchByFirstAndLastName(firstName, lastName));
         } catch (Exception e) {
             logger.error("Failed to search by firstName: {} and lastName: {}", firstName, lastName, e);
             ErrorResponse errorResponse = new ErrorResponse(DATABASE_ERROR, e.getMessage());
@@ -136,12 +132,7 @@ public class AddressApi {
     public ResponseEntity<?> saveEntries(@RequestBody List<Entry> entries) {
         logger.debug("#### saveEntries ####");
         try {
-            mongoService.saveToDatabase(entries);
-            return ResponseEntity.status(HttpStatus.CREATED).build();
-        } catch (MongoWriteException we) {
-            String msg = duplicateMsg(we);
-            ErrorResponse errorResponse = new ErrorResponse(DATABASE_ERROR, msg);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+            return bulkResponse(entryRepository.saveAll(entries.iterator()), HttpStatus.CREATED);
         } catch (Exception e) {
             logger.error("Failed to create entries", e);
             ErrorResponse errorResponse = new ErrorResponse(DATABASE_ERROR, e.getMessage());
@@ -154,12 +145,20 @@ public class AddressApi {
     public ResponseEntity<?> saveOneEntry(@RequestBody Entry entry) {
         logger.debug("#### saveOneEntry ####");
         try {
-            mongoService.saveEntryToDatabase(entry);
+            entryRepository.save(entry);
             return ResponseEntity.status(HttpStatus.CREATED).build();
         } catch (MongoWriteException we) {
             String msg = duplicateMsg(we);
             ErrorResponse errorResponse = new ErrorResponse(DATABASE_ERROR, msg);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        } catch (IllegalStateException e) {
+            // the entry log's duplicate entryId, answered as the MongoDB one above
+            logger.error("Failed to save entry - duplicate key", e);
+            ErrorResponse errorResponse = new ErrorResponse(DATABASE_ERROR, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("Invalid Entry", e.getMessage()));
         } catch (Exception e) {
             logger.error("Failed to save entry - unexpected error", e);
             ErrorResponse errorResponse = new ErrorResponse(DATABASE_ERROR, e.getMessage());
@@ -172,7 +171,7 @@ public class AddressApi {
     public ResponseEntity<?> deleteEntryById(@PathVariable Integer entryId) {
         logger.debug("#### deleteEntryById ####");
         try {
-            mongoService.deleteEntryById(entryId);
+            entryRepository.deleteById(entryId);
             return ResponseEntity.noContent().build();
         } catch (Exception e) {
             logger.error("Failed to delete entry by id: {}", entryId, e);
@@ -181,74 +180,28 @@ public class AddressApi {
         }
     }
 
-    @PostMapping("/export")
-    @SuppressWarnings("unused")
-    public ResponseEntity<?> export(@RequestParam(required = false, defaultValue = EXPORT_DATA_FILE) String fileName) {
-        logger.debug("#### export ####");
-        try {
-            ResponseEntity<?> responseEntity = fileNameCheck(fileName, false);
-            if (responseEntity != null) {
-                return responseEntity;
-            }
-            new FileDataUtil(fileName).writeData(sortById(mongoService.readFromDatabase()));
-            return ResponseEntity.status(HttpStatus.OK).build();
-        } catch (Exception e) {
-            logger.error("Failed to export - unexpected error", e);
-            ErrorResponse errorResponse = new ErrorResponse(DATABASE_ERROR, e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-        }
-    }
-
-    @PostMapping("/importData")
-    @SuppressWarnings("unused")
-    public ResponseEntity<?> importData(@RequestParam(required = false, defaultValue = IMPORT_DATA_FILE) String fileName) {
-        logger.debug("#### importData ####");
-        try {
-            ResponseEntity<?> responseEntity = fileNameCheck(fileName, true);
-            if (responseEntity != null) {
-                return responseEntity;
-            }
-            mongoService.saveToDatabase(fixNewEntryIds(new FileDataUtil(fileName).readData(),
-                    new NextEntryId(mongoService)));
-            return ResponseEntity.status(HttpStatus.OK).build();
-        } catch (MongoWriteException we) {
-            String msg = duplicateMsg(we);
-            ErrorResponse errorResponse = new ErrorResponse(DATABASE_ERROR, msg);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-        } catch (Exception e) {
-            logger.error("Failed to import - unexpected error", e);
-            ErrorResponse errorResponse = new ErrorResponse(DATABASE_ERROR, e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-        }
-    }
-
-    private List<Entry> fixNewEntryIds(List<Entry> newEntries, NextEntryId nextEntryId) {
-        return newEntries.stream()
-                .map(entry -> new Entry(nextEntryId.next(), entry.person(), entry.address(), entry.notes()))
-                .toList();
-    }
-
-    private ResponseEntity<?> fileNameCheck(String fileName, boolean mustExist) {
-        if (fileName.startsWith("/")) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ErrorResponse("Invalid File Name", "File name cannot begin with /"));
-        }
-        if (fileName.contains(":")) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ErrorResponse("Invalid File Name", "File name cannot contain :"));
-        }
-        if (!fileName.endsWith(".json")) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ErrorResponse("Invalid File Name", "File name must end with .json"));
+    /**
+     * Report a bulk insert: the success status when everything was inserted, 207 Multi-Status with the
+     * summary when only part of it was, and an error when nothing was inserted.
+     */
+    static ResponseEntity<?> bulkResponse(BulkWriteSummary summary, HttpStatus successStatus) {
+        if (summary == null || summary.complete()) {
+            return ResponseEntity.status(successStatus).body(summary);
         }
-        if (mustExist && !(new File(fileName).canRead())) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ErrorResponse("Invalid File Name", "File does not exist"));
+        if (summary.inserted() > 0) {
+            return ResponseEntity.status(HttpStatus.MULTI_STATUS).body(summary);
         }
-        return null;
+        String msg = summary.failures() == 0
+                ? "Duplicate Entry ID Exists"
+                : summary.results().stream()
+                        .map(BatchResult::error)
+                        .filter(Objects::nonNull)
+                        .findFirst()
+                        .orElse("Bulk insert failed");
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ErrorResponse(DATABASE_ERROR, msg));
     }
 
-    private String duplicateMsg(MongoWriteException we) {
+    static String duplicateMsg(MongoWriteException we) {
         logger.error("Failed to save entry - duplicate key", we);
         String msg = we.getMessage();
         if (we.getMessage().contains("duplicate key error")) {
@@ -257,11 +210,4 @@ public class AddressApi {
         return msg;
     }
 
-    @PreDestroy
-    @SuppressWarnings("unused")
-    public void cleanup() {
-        logger.info("Closing MongoDB connection");
-        mongoService.close();
-    }
-
 }
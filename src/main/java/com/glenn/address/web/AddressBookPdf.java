@@ -0,0 +1,260 @@
+package com.glenn.address.web;
+
+import com.glenn.address.domain.Entry;
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.colors.DeviceRgb;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.itextpdf.layout.Canvas;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.borders.Border;
+import com.itextpdf.layout.borders.SolidBorder;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Image;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Renders address book entries as a PDF document, two entry cards per page.
+ * Used by PrintMaster for immediate downloads and by the print job for background generation.
+ * Entries are taken from an iterator and each page is flushed once laid out, so a cursor-backed iterator can be
+ * printed without holding the whole book; the entry total is filled in on the first page when the last card is done.
+ */
+public class AddressBookPdf {
+
+    // Define colors - black and white theme
+    private static final DeviceRgb LIGHT_BG = new DeviceRgb(240, 240, 240); // Light gray background
+    private static final float TOTAL_WIDTH = 60; // room for the entry total, filled in at the end
+
+    /**
+     * Renders the entries as a PDF onto the output stream, which is left open.
+     *
+     * @param entries entries to print, in page order
+     * @param out     destination of the PDF bytes
+     * @param onEntry called after each entry card is added; may throw to abort rendering
+     * @return number of entries rendered
+     */
+    public long write(Iterator<Entry> entries, OutputStream out, Consumer<Entry> onEntry) {
+        PdfWriter writer = new PdfWriter(out);
+        writer.setCloseStream(false);
+        PdfDocument pdf = new PdfDocument(writer);
+        Document document = new Document(pdf);
+
+        // Add title
+        Paragraph title = new Paragraph("Address Book Manager")
+                .setFontSize(24)
+                .setBold()
+                .setTextAlignment(TextAlignment.CENTER)
+                .setMarginBottom(20);
+        document.add(title);
+
+        // Add entry count; the number is drawn into the placeholder once all the cards are done
+        PdfFormXObject totalPlaceholder = new PdfFormXObject(new Rectangle(0, 0, TOTAL_WIDTH, 12));
+        Paragraph count = new Paragraph("Total Entries: ")
+                .add(new Image(totalPlaceholder))
+                .setFontSize(12)
+                .setTextAlignment(TextAlignment.CENTER)
+                .setMarginBottom(20);
+        document.add(count);
+
+        // Create cards for each entry - 2 cards per page
+        int cardCount = 0;
+        while (entries.hasNext()) {
+            Entry entry = entries.next();
+            document.add(createEntryCard(entry));
+            cardCount++;
+            onEntry.accept(entry);
+
+            // Add page break after every 2 cards (but not after the last card)
+            if (cardCount % 2 == 0 && entries.hasNext()) {
+                document.add(new com.itextpdf.layout.element.AreaBreak(com.itextpdf.layout.properties.AreaBreakType.NEXT_PAGE));
+            }
+        }
+
+        new Canvas(totalPlaceholder, pdf)
+                .setFontSize(12)
+                .showTextAligned(String.valueOf(cardCount), 0, 0, TextAlignment.LEFT)
+                .close();
+        document.close();
+        return cardCount;
+    }
+
+    private Table createEntryCard(Entry entry) {
+        Table card = new Table(UnitValue.createPercentArray(new float[]{1}));
+        card.setWidth(UnitValue.createPercentValue(100));
+        card.setMarginBottom(15);
+        card.setBorder(new SolidBorder(ColorConstants.BLACK, 1));
+
+        // Header section with ID and Name - spans full width
+        Table header = new Table(UnitValue.createPercentArray(new float[]{1}));
+        header.setWidth(UnitValue.createPercentValue(100));
+        header.setBackgroundColor(LIGHT_BG);
+
+        // Entry ID
+        Cell idCell = new Cell()
+                .add(new Paragraph("ID: " + entry.entryId())
+                        .setFontSize(10)
+                        .setBold()
+                        .setFontColor(ColorConstants.BLACK))
+                .setBorder(Border.NO_BORDER)
+                .setPadding(5);
+        header.addCell(idCell);
+
+        // Name
+        String fullName = entry.person().firstName() + " " + entry.person().lastName();
+        Cell nameCell = new Cell()
+                .add(new Paragraph(fullName)
+                        .setFontSize(16)
+                        .setBold()
+                        .setFontColor(ColorConstants.BLACK))
+                .setBorder(Border.NO_BORDER)
+                .setPadding(5);
+        header.addCell(nameCell);
+
+        Cell headerContainer = new Cell()
+                .add(header)
+                .setBorder(Border.NO_BORDER)
+                .setPadding(0);
+        card.addCell(headerContainer);
+
+        // Two-column layout for Person Details (left) and Contact Information (right)
+        Table twoColumns = new Table(UnitValue.createPercentArray(new float[]{1, 1}));
+        twoColumns.setWidth(UnitValue.createPercentValue(100));
+
+        // Left column - Person Details
+        Table leftColumn = new Table(UnitValue.createPercentArray(new float[]{1}));
+        leftColumn.setWidth(UnitValue.createPercentValue(100));
+
+        if (entry.person().age() != null || entry.person().gender() != null || entry.person().maritalStatus() != null) {
+            leftColumn.addCell(createSectionTitle("Person Details"));
+
+            if (entry.person().age() != null) {
+                leftColumn.addCell(createDetailRow("Age:", String.valueOf(entry.person().age())));
+            }
+            if (entry.person().gender() != null) {
+                leftColumn.addCell(createDetailRow("Gender:", entry.person().gender().toString()));
+            }
+            if (entry.person().maritalStatus() != null) {
+                leftColumn.addCell(createDetailRow("Marital Status:", entry.person().maritalStatus().toString()));
+            }
+        }
+
+        Cell leftCell = new Cell()
+                .add(leftColumn)
+                .setBorder(Border.NO_BORDER)
+                .setPadding(0);
+        twoColumns.addCell(leftCell);
+
+        // Right column - Contact Information
+        Table rightColumn = new Table(UnitValue.createPercentArray(new float[]{1}));
+        rightColumn.setWidth(UnitValue.createPercentValue(100));
+
+        if (hasContactInfo(entry)) {
+            rightColumn.addCell(createSectionTitle("Contact Information"));
+
+            if (entry.address().street() != null) {
+                rightColumn.addCell(createDetailRow("Street:", entry.address().street()));
+            }
+            if (entry.address().city() != null || entry.address().state() != null || entry.address().zip() != null) {
+                String location = buildLocation(entry);
+                rightColumn.addCell(createDetailRow("Location:", location));
+            }
+            if (entry.address().email() != null) {
+                rightColumn.addCell(createDetailRow("Email:", entry.address().email()));
+            }
+            if (entry.address().phone() != null) {
+                rightColumn.addCell(createDetailRow("Phone:", entry.address().phone()));
+            }
+        }
+
+        Cell rightCell = new Cell()
+                .add(rightColumn)
+                .setBorder(Border.NO_BORDER)
+                .setPadding(0);
+        twoColumns.addCell(rightCell);
+
+        // Add the two-column layout to the card
+        Cell twoColumnsContainer = new Cell()
+                .add(twoColumns)
+                .setBorder(Border.NO_BORDER)
+                .setPadding(0);
+        card.addCell(twoColumnsContainer);
+
+        // Notes Section - spans full width
+        if (entry.notes() != null && !entry.notes().isEmpty()) {
+            card.addCell(createSectionTitle("Notes"));
+            Cell notesCell = new Cell()
+                    .add(new Paragraph(entry.notes())
+                            .setFontSize(10)
+                            .setItalic())
+                    .setBackgroundColor(LIGHT_BG)
+                    .setBorder(Border.NO_BORDER)
+                    .setPadding(10);
+            card.addCell(notesCell);
+        }
+
+        return card;
+    }
+
+    private Cell createSectionTitle(String title) {
+        return new Cell()
+                .add(new Paragraph(title)
+                        .setFontSize(11)
+                        .setBold()
+                        .setFontColor(ColorConstants.BLACK))
+                .setBorder(Border.NO_BORDER)
+                .setPaddingTop(10)
+                .setPaddingBottom(5)
+                .setPaddingLeft(10);
+    }
+
+    private Cell createDetailRow(String label, String value) {
+        Paragraph p = new Paragraph()
+                .add(new Paragraph(label)
+                        .setFontSize(10)
+                        .setBold()
+                        .setMarginRight(5))
+                .add(new Paragraph(value)
+                        .setFontSize(10));
+
+        return new Cell()
+                .add(p)
+                .setBorder(Border.NO_BORDER)
+                .setPaddingLeft(10)
+                .setPaddingTop(2)
+                .setPaddingBottom(2);
+    }
+
+    private boolean hasContactInfo(Entry entry) {
+        return entry.address().street() != null ||
+                entry.address().city() != null ||
+                entry.address().state() != null ||
+                entry.address().zip() != null ||
+                entry.address().email() != null ||
+                entry.address().phone() != null;
+    }
+
+    private String buildLocation(Entry entry) {
+        StringBuilder sb = new StringBuilder();
+        if (entry.address().city() != null) {
+            sb.append(entry.address().city());
+        }
+        if (entry.address().state() != null) {
+            if (!sb.isEmpty()) sb.append(", ");
+            sb.append(entry.address().state());
+        }
+        if (entry.address().zip() != null) {
+            if (!sb.isEmpty()) sb.append(", ");
+            sb.append(entry.address().zip());
+        }
+        return sb.toString();
+    }
+}
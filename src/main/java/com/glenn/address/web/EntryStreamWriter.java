@@ -0,0 +1,73 @@
+package com.glenn.address.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.glenn.address.domain.Entry;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a stream of entries to an HTTP response body one entry at a time.
+ * Supports a chunked JSON array and newline-delimited JSON (NDJSON), so only the
+ * entry currently being serialized is held in memory.
+ */
+public class EntryStreamWriter {
+    public static final String FORMAT_JSON = "json";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private final ObjectMapper objectMapper;
+
+    public EntryStreamWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public static boolean isSupported(String format) {
+        return FORMAT_JSON.equals(format) || FORMAT_NDJSON.equals(format);
+    }
+
+    /**
+     * Write the entries in the requested format and close the stream (and its cursor) afterwards.
+     *
+     * @param entries entries to write, typically backed by an open database cursor
+     * @param format  json or ndjson
+     * @param out     response output stream, left open for the container to finish
+     * @return number of entries written
+     */
+    public long write(Stream<Entry> entries, String format, OutputStream out) throws IOException {
+        try (entries;
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            return FORMAT_NDJSON.equals(format)
+                    ? writeNdjson(entries.iterator(), generator)
+                    : writeJsonArray(entries.iterator(), generator);
+        }
+    }
+
+    private long writeJsonArray(Iterator<Entry> entries, JsonGenerator generator) throws IOException {
+        long count = 0;
+        generator.writeStartArray();
+        while (entries.hasNext()) {
+            generator.writeObject(entries.next());
+            count++;
+        }
+        generator.writeEndArray();
+        return count;
+    }
+
+    private long writeNdjson(Iterator<Entry> entries, JsonGenerator generator) throws IOException {
+        long count = 0;
+        generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        while (entries.hasNext()) {
+            generator.writeObject(entries.next());
+            count++;
+        }
+        if (count > 0) {
+            generator.writeRaw('\n');
+        }
+        return count;
+    }
+}
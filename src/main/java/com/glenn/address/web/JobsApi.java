@@ -0,0 +1,137 @@
+package com.glenn.address.web;
+
+import com.glenn.address.jobs.Job;
+import com.glenn.address.jobs.JobService;
+import com.glenn.address.jobs.JobStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * REST controller for background jobs.
+ * Import, export and print are submitted here and answered at once with 202 Accepted and the job's status URL;
+ * clients poll that URL for progress and fetch export and print artifacts from its download link.
+ */
+@RestController
+@RequestMapping("/api/jobs")
+@Profile("!reactive & !local")
+public class JobsApi {
+    private static final Logger logger = LoggerFactory.getLogger(JobsApi.class);
+    private final JobService jobService;
+
+    @SuppressWarnings("unused")
+    @Autowired
+    public JobsApi(JobService jobService) {
+        this.jobService = jobService;
+    }
+
+    @PostMapping("/import")
+    @SuppressWarnings("unused")
+    public ResponseEntity<?> submitImport(@RequestParam String fileName) {
+        logger.debug("#### submitImport ####");
+        ResponseEntity<?> responseEntity = MongoAddressApi.fileNameCheck(fileName, true);
+        if (responseEntity != null) {
+            return responseEntity;
+        }
+        return accepted(() -> jobService.submitImport(fileName));
+    }
+
+    @PostMapping("/export")
+    @SuppressWarnings("unused")
+    public ResponseEntity<?> submitExport(@RequestParam(defaultValue = "false") boolean compact) {
+        logger.debug("#### submitExport ####");
+        return accepted(() -> jobService.submitExport(compact));
+    }
+
+    @PostMapping("/print")
+    @SuppressWarnings("unused")
+    public ResponseEntity<?> submitPrint() {
+        logger.debug("#### submitPrint ####");
+        return accepted(jobService::submitPrint);
+    }
+
+    @GetMapping("")
+    @SuppressWarnings("unused")
+    public ResponseEntity<List<JobStatus>> listJobs() {
+        logger.debug("#### listJobs ####");
+        return ResponseEntity.ok(jobService.list());
+    }
+
+    @GetMapping("/{jobId}")
+    @SuppressWarnings("unused")
+    public ResponseEntity<JobStatus> getJob(@PathVariable String jobId) {
+        logger.debug("#### getJob ####");
+        return ResponseEntity.of(jobService.find(jobId).map(Job::status));
+    }
+
+    @PostMapping("/{jobId}/cancel")
+    @SuppressWarnings("unused")
+    public ResponseEntity<JobStatus> cancelJob(@PathVariable String jobId) {
+        logger.debug("#### cancelJob ####");
+        return ResponseEntity.of(jobService.cancel(jobId));
+    }
+
+    @DeleteMapping("/{jobId}")
+    @SuppressWarnings("unused")
+    public ResponseEntity<?> removeJob(@PathVariable String jobId) {
+        logger.debug("#### removeJob ####");
+        Optional<Job> job = jobService.find(jobId);
+        if (job.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!jobService.remove(jobId)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ErrorResponse("Job Active", "Cancel the job before removing it"));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{jobId}/download")
+    @SuppressWarnings("unused")
+    public ResponseEntity<?> download(@PathVariable String jobId) {
+        logger.debug("#### download ####");
+        Optional<Job> found = jobService.find(jobId);
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Job job = found.get();
+        Path artifact = job.getArtifact();
+        if (artifact == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ErrorResponse("No Artifact", "Job " + job.getState() + " has nothing to download"));
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(job.getType().getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(job.getType().getArtifactName()).build().toString())
+                .body(new FileSystemResource(artifact));
+    }
+
+    private ResponseEntity<?> accepted(Supplier<JobStatus> submit) {
+        try {
+            JobStatus status = submit.get();
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/jobs/" + status.jobId()))
+                    .body(status);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Job rejected: queue is full");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ErrorResponse("Too Many Jobs", "The job queue is full, try again later"));
+        }
+    }
+}
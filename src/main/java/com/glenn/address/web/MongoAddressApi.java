@@ -0,0 +1,291 @@
+package com.glenn.address.web;
+
+import com.glenn.address.binary.BinaryFormat;
+import com.glenn.address.domain.BatchDeleteResult;
+import com.glenn.address.domain.Entry;
+import com.glenn.address.domain.EntryPage;
+import com.glenn.address.mongo.FileDataUtil;
+import com.glenn.address.mongo.MongoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static com.glenn.address.web.AddressApi.DATABASE_ERROR;
+
+/**
+ * REST API controller for the address book endpoints that need MongoDB.
+ * Provides paging, sorted reads, updates, batch operations, import and export on top of the core
+ * endpoints in AddressApi.
+ */
+@RestController
+@RequestMapping("/api/entries")
+@Profile("!reactive & !local")
+public class MongoAddressApi {
+    private static final Logger logger = LoggerFactory.getLogger(MongoAddressApi.class);
+    public static final String EXPORT_DATA_FILE = "export-data.json";
+    public static final String IMPORT_DATA_FILE = "import-data.json";
+    public static final String FORMAT_JSON = "json";
+    private static final String EXPORT_DATA_PREFIX = "export-data.";
+    private static final String IMPORT_DATA_PREFIX = "import-data.";
+    private final MongoService mongoService;
+
+    @SuppressWarnings("unused")
+    @Autowired
+    public MongoAddressApi(MongoService mongoService) {
+        this.mongoService = mongoService;
+    }
+
+    @GetMapping(params = "limit")
+    @SuppressWarnings("unused")
+    public ResponseEntity<?> getEntriesPage(@RequestParam int limit,
+                                            @RequestParam(required = false) String after) {
+        logger.debug("#### getEntriesPage ####");
+        return pageResponse(() -> mongoService.readPageById(limit, after));
+    }
+
+    @GetMapping("/summary")
+    @SuppressWarnings("unused")
+    public ResponseEntity<?> getEntrySummaries() {
+        logger.debug("#### getEntrySummaries ####");
+        try {
+            return ResponseEntity.ok(mongoService.readSummaries());
+        } catch (Exception e) {
+            logger.error("Failed to retrieve entry summaries", e);
+            ErrorResponse errorResponse = new ErrorResponse(DATABASE_ERROR, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    @GetMapping("/sortById")
+    @SuppressWarnings("unused")
+    public ResponseEntity<?> getAllEntriesSortedById() {
+        logger.debug("#### getAllEntriesSortedById ####");
+        try {
+            return ResponseEntity.ok(mongoService.readSortedById());
+        } catch (Exception e) {
+            logger.error("Failed to retrieve and sort entries by ID", e);
+            ErrorResponse errorResponse = new ErrorResponse(DATABASE_ERROR, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    @GetMapping(value = "/sortById", params = "limit")
+    @SuppressWarnings("unused")
+    public ResponseEntity<?> getEntriesPageSortedById(@RequestParam int limit,
+                                                      @RequestParam(required = false) String after) {
+        logger.debug("#### getEntriesPageSortedById ####");
+        return pageResponse(() -> mongoService.readPageById(limit, after));
+    }
+
+    @GetMapping("/sortByLastName")
+    @SuppressWarnings("unused")
+    public ResponseEntity<?> getAllEntriesSortedByLastName() {
+        logger.debug("#### getAllEntriesSortedByLastName ####");
+        try {
+            return ResponseEntity.ok(mongoService.readSortedByLastName());
+        } catch (Exception e) {
+            logger.error("Failed to retrieve and sort entries by last name", e);
+            ErrorResponse errorResponse = new ErrorResponse(DATABASE_ERROR, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    @GetMapping(value = "/sortByLastName", params = "limit")
+    @SuppressWarnings("unused")
+    public ResponseEntity<?> getEntriesPageSortedByLastName(@RequestParam int limit,
+                                                            @RequestParam(required = false) String after) {
+        logger.debug("#### getEntriesPageSortedByLastName ####");
+        return pageResponse(() -> mongoService.readPageByLastName(limit, after));
+    }
+
+    @PutMapping("/{entryId}")
+    @SuppressWarnings("unused")
+    public ResponseEntity<?> replaceEntry(@PathVariable Integer entryId, @RequestBody Entry entry) {
+        logger.debug("#### replaceEntry ####");
+        if (entry.entryId() != null && !entry.entryId().equals(entryId)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("Invalid Update", "entryId cannot be changed"));
+        }
+        try {
+            Entry updated = mongoService.replaceEntry(entryId, entry);
+            if (updated == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(updated);
+        } catch (Exception e) {
+            logger.error("Failed to replace entry by id: {}", entryId, e);
+            ErrorResponse errorResponse = new ErrorResponse(DATABASE_ERROR, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    @PatchMapping("/{entryId}")
+    @SuppressWarnings("unused")
+    public ResponseEntity<?> patchEntry(@PathVariable Integer entryId, @RequestBody Map<String, Object> patch) {
+        logger.debug("#### patchEntry ####");
+        try {
+            Entry updated = mongoService.patchEntry(entryId, patch);
+            if (updated == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(updated);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("Invalid Update", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Failed to patch entry by id: {}", entryId, e);
+            ErrorResponse errorResponse = new ErrorResponse(DATABASE_ERROR, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    @PostMapping("/batchGet")
+    @SuppressWarnings("unused")
+    public ResponseEntity<?> batchGet(@RequestBody List<Integer> entryIds) {
+        logger.debug("#### batchGet ####");
+        return batchResponse(() -> mongoService.batchGet(entryIds), "Failed to read batch of entries");
+    }
+
+    @PostMapping("/batchDelete")
+    @SuppressWarnings("unused")
+    public ResponseEntity<?> batchDelete(@RequestBody List<Integer> entryIds) {
+        logger.debug("#### batchDelete ####");
+        return batchResponse(() -> mongoService.batchDelete(entryIds), "Failed to delete batch of entries");
+    }
+
+    @DeleteMapping("/range/{fromId}/{toId}")
+    @SuppressWarnings("unused")
+    public ResponseEntity<?> deleteEntryIdRange(@PathVariable int fromId, @PathVariable int toId) {
+        logger.debug("#### deleteEntryIdRange ####");
+        return batchResponse(() -> new BatchDeleteResult(mongoService.deleteEntryIdRange(fromId, toId), null, null),
+                "Failed to delete entries from id " + fromId + " to " + toId);
+    }
+
+    @PostMapping("/export")
+    @SuppressWarnings("unused")
+    public ResponseEntity<?> export(@RequestParam(required = false) String fileName,
+                                    @RequestParam(required = false, defaultValue = "false") boolean compact,
+                                    @RequestParam(required = false, defaultValue = FORMAT_JSON) String format) {
+        logger.debug("#### export ####");
+        try {
+            if (!isSupportedFormat(format)) {
+                return invalidFormat();
+            }
+            String exportFile = fileName != null ? fileName : EXPORT_DATA_PREFIX + format;
+            ResponseEntity<?> responseEntity = fileNameCheck(exportFile, format, false);
+            if (responseEntity != null) {
+                return responseEntity;
+            }
+            // Write straight from the entryId-ordered cursor so memory stays flat however large the collection is
+            FileDataUtil fileDataUtil = new FileDataUtil(exportFile);
+            Optional<BinaryFormat> binaryFormat = BinaryFormat.of(format);
+            long count = binaryFormat.isPresent()
+                    ? fileDataUtil.writeData(mongoService.streamSortedById(), binaryFormat.get().getService())
+                    : fileDataUtil.writeData(mongoService.streamSortedById(), compact);
+            logger.debug("Exported {} entries to {}", count, exportFile);
+            return ResponseEntity.status(HttpStatus.OK).build();
+        } catch (Exception e) {
+            logger.error("Failed to export - unexpected error", e);
+            ErrorResponse errorResponse = new ErrorResponse(DATABASE_ERROR, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    @PostMapping("/importData")
+    @SuppressWarnings("unused")
+    public ResponseEntity<?> importData(@RequestParam(required = false) String fileName,
+                                        @RequestParam(required = false, defaultValue = FORMAT_JSON) String format) {
+        logger.debug("#### importData ####");
+        try {
+            if (!isSupportedFormat(format)) {
+                return invalidFormat();
+            }
+            String importFile = fileName != null ? fileName : IMPORT_DATA_PREFIX + format;
+            ResponseEntity<?> responseEntity = fileNameCheck(importFile, format, true);
+            if (responseEntity != null) {
+                return responseEntity;
+            }
+            // Stream the file into batched inserts so memory is bounded by the batch size, not the file size
+            FileDataUtil fileDataUtil = new FileDataUtil(importFile);
+            try (Stream<Entry> newEntries = BinaryFormat.of(format)
+                    .map(binaryFormat -> fileDataUtil.streamData(binaryFormat.getService()))
+                    .orElseGet(fileDataUtil::streamData)) {
+                return AddressApi.bulkResponse(mongoService.importEntries(newEntries), HttpStatus.OK);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to import - unexpected error", e);
+            ErrorResponse errorResponse = new ErrorResponse(DATABASE_ERROR, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    private static boolean isSupportedFormat(String format) {
+        return FORMAT_JSON.equals(format) || BinaryFormat.of(format).isPresent();
+    }
+
+    private static ResponseEntity<?> invalidFormat() {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse("Invalid Format", "Format must be json, avro, avrc, bson, gz or addr"));
+    }
+
+    private ResponseEntity<?> pageResponse(Supplier<EntryPage> pageReader) {
+        try {
+            return ResponseEntity.ok(pageReader.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("Invalid Page Request", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Failed to read page of entries", e);
+            ErrorResponse errorResponse = new ErrorResponse(DATABASE_ERROR, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    private ResponseEntity<?> batchResponse(Supplier<?> batch, String failure) {
+        try {
+            return ResponseEntity.ok(batch.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("Invalid Batch Request", e.getMessage()));
+        } catch (Exception e) {
+            logger.error(failure, e);
+            ErrorResponse errorResponse = new ErrorResponse(DATABASE_ERROR, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    static ResponseEntity<?> fileNameCheck(String fileName, boolean mustExist) {
+        return fileNameCheck(fileName, FORMAT_JSON, mustExist);
+    }
+
+    static ResponseEntity<?> fileNameCheck(String fileName, String extension, boolean mustExist) {
+        if (fileName.startsWith("/")) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("Invalid File Name", "File name cannot begin with /"));
+        }
+        if (fileName.contains(":")) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("Invalid File Name", "File name cannot contain :"));
+        }
+        if (!fileName.endsWith("." + extension)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("Invalid File Name", "File name must end with ." + extension));
+        }
+        if (mustExist && !(new File(fileName).canRead())) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("Invalid File Name", "File does not exist"));
+        }
+        return null;
+    }
+}
@@ -0,0 +1,274 @@
+package com.glenn.address.web;
+
+import com.glenn.address.domain.BatchDeleteResult;
+import com.glenn.address.domain.Entry;
+import com.glenn.address.domain.EntryPage;
+import com.glenn.address.domain.EntrySummary;
+import com.glenn.address.mongo.BatchResult;
+import com.glenn.address.mongo.BulkWriteSummary;
+import com.glenn.address.mongo.ReactiveMongoService;
+import com.mongodb.MongoWriteException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import static com.glenn.address.web.AddressApi.DATABASE_ERROR;
+
+/**
+ * WebFlux handler functions for address book entries, the non-blocking variant of AddressApi.
+ * List, sort and search responses are written as the database cursor produces entries, so demand from
+ * the client flows back to the driver instead of whole result sets being buffered.
+ * Active only with the "reactive" profile; see ReactiveRouter for the route table.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveAddressHandler {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveAddressHandler.class);
+    private static final ParameterizedTypeReference<List<Integer>> ENTRY_IDS = new ParameterizedTypeReference<>() {
+    };
+    private final ReactiveMongoService mongoService;
+
+    public ReactiveAddressHandler(ReactiveMongoService mongoService) {
+        this.mongoService = mongoService;
+    }
+
+    public Mono<ServerResponse> getAllEntries(ServerRequest request) {
+        logger.debug("#### getAllEntries ####");
+        if (request.queryParam("limit").isPresent()) {
+            return pageResponse(request, mongoService::readPageById);
+        }
+        return entriesResponse(mongoService.readFromDatabase(), "Failed to retrieve all entries");
+    }
+
+    public Mono<ServerResponse> streamAllEntries(ServerRequest request) {
+        logger.debug("#### streamAllEntries ####");
+        String format = request.queryParam("format").orElse(EntryStreamWriter.FORMAT_JSON);
+        if (!EntryStreamWriter.isSupported(format)) {
+            return ServerResponse.badRequest()
+                    .bodyValue(new ErrorResponse("Invalid Format", "Format must be json or ndjson"));
+        }
+        MediaType mediaType = EntryStreamWriter.FORMAT_NDJSON.equals(format)
+                ? MediaType.APPLICATION_NDJSON
+                : MediaType.APPLICATION_JSON;
+        return ServerResponse.ok().contentType(mediaType).body(mongoService.readFromDatabase(), Entry.class);
+    }
+
+    public Mono<ServerResponse> getEntrySummaries(ServerRequest request) {
+        logger.debug("#### getEntrySummaries ####");
+        return streamResponse(mongoService.readSummaries(), EntrySummary.class, "Failed to retrieve entry summaries");
+    }
+
+    public Mono<ServerResponse> getAllEntriesSortedById(ServerRequest request) {
+        logger.debug("#### getAllEntriesSortedById ####");
+        if (request.queryParam("limit").isPresent()) {
+            return pageResponse(request, mongoService::readPageById);
+        }
+        return entriesResponse(mongoService.readSortedById(), "Failed to retrieve and sort entries by ID");
+    }
+
+    public Mono<ServerResponse> getAllEntriesSortedByLastName(ServerRequest request) {
+        logger.debug("#### getAllEntriesSortedByLastName ####");
+        if (request.queryParam("limit").isPresent()) {
+            return pageResponse(request, mongoService::readPageByLastName);
+        }
+        return entriesResponse(mongoService.readSortedByLastName(), "Failed to retrieve and sort entries by last name");
+    }
+
+    public Mono<ServerResponse> getEntryById(ServerRequest request) {
+        logger.debug("#### getEntryById ####");
+        return withEntryId(request, entryId -> mongoService.searchByEntryId(entryId)
+                .collectList()
+                .flatMap(entries -> entries.isEmpty()
+                        ? ServerResponse.notFound().build()
+                        : ServerResponse.ok().bodyValue(entries))
+                .onErrorResume(e -> databaseError("Failed to retrieve entry by id: " + entryId, e)));
+    }
+
+    public Mono<ServerResponse> searchByLastName(ServerRequest request) {
+        logger.debug("#### searchByLastName ####");
+        String lastName = request.pathVariable("lastName");
+        return entriesResponse(mongoService.searchByLastName(lastName), "Failed to search by lastName: " + lastName);
+    }
+
+    public Mono<ServerResponse> searchByFirstAndLastName(ServerRequest request) {
+        logger.debug("#### searchByFirstAndLastName ####");
+        String firstName = request.pathVariable("firstName");
+        String lastName = request.pathVariable("lastName");
+        return entriesResponse(mongoService.searchByFirstAndLastName(firstName, lastName),
+                "Failed to search by firstName: " + firstName + " and lastName: " + lastName);
+    }
+
+    public Mono<ServerResponse> saveEntries(ServerRequest request) {
+        logger.debug("#### saveEntries ####");
+        return mongoService.saveToDatabase(request.bodyToFlux(Entry.class))
+                .flatMap(summary -> bulkResponse(summary, HttpStatus.CREATED))
+                .onErrorResume(e -> databaseError("Failed to create entries", e));
+    }
+
+    public Mono<ServerResponse> saveOneEntry(ServerRequest request) {
+        logger.debug("#### saveOneEntry ####");
+        return request.bodyToMono(Entry.class)
+                .flatMap(mongoService::saveEntryToDatabase)
+                .then(ServerResponse.status(HttpStatus.CREATED).build())
+                .onErrorResume(MongoWriteException.class, we -> {
+                    logger.error("Failed to save entry - duplicate key", we);
+                    String msg = we.getMessage().contains("duplicate key error")
+                            ? "Duplicate Entry ID Exists"
+                            : we.getMessage();
+                    return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .bodyValue(new ErrorResponse(DATABASE_ERROR, msg));
+                })
+                .onErrorResume(e -> !(e instanceof MongoWriteException),
+                        e -> databaseError("Failed to save entry - unexpected error", e));
+    }
+
+    public Mono<ServerResponse> replaceEntry(ServerRequest request) {
+        logger.debug("#### replaceEntry ####");
+        return withEntryId(request, entryId -> request.bodyToMono(Entry.class)
+                .flatMap(entry -> entry.entryId() != null && !entry.entryId().equals(entryId)
+                        ? ServerResponse.badRequest()
+                                .bodyValue(new ErrorResponse("Invalid Update", "entryId cannot be changed"))
+                        : updatedResponse(mongoService.replaceEntry(entryId, entry)))
+                .onErrorResume(e -> databaseError("Failed to replace entry by id: " + entryId, e)));
+    }
+
+    public Mono<ServerResponse> patchEntry(ServerRequest request) {
+        logger.debug("#### patchEntry ####");
+        return withEntryId(request, entryId -> request.bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {
+                })
+                .flatMap(patch -> updatedResponse(mongoService.patchEntry(entryId, patch)))
+                .onErrorResume(IllegalArgumentException.class, e -> ServerResponse.badRequest()
+                        .bodyValue(new ErrorResponse("Invalid Update", e.getMessage())))
+                .onErrorResume(e -> !(e instanceof IllegalArgumentException),
+                        e -> databaseError("Failed to patch entry by id: " + entryId, e)));
+    }
+
+    private Mono<ServerResponse> updatedResponse(Mono<Entry> updated) {
+        return updated.flatMap(entry -> ServerResponse.ok().bodyValue(entry))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    public Mono<ServerResponse> deleteEntryById(ServerRequest request) {
+        logger.debug("#### deleteEntryById ####");
+        return withEntryId(request, entryId -> mongoService.deleteEntryById(entryId)
+                .then(ServerResponse.noContent().build())
+                .onErrorResume(e -> databaseError("Failed to delete entry by id: " + entryId, e)));
+    }
+
+    public Mono<ServerResponse> batchGet(ServerRequest request) {
+        logger.debug("#### batchGet ####");
+        return batchResponse(request.bodyToMono(ENTRY_IDS).flatMap(mongoService::batchGet),
+                "Failed to read batch of entries");
+    }
+
+    public Mono<ServerResponse> batchDelete(ServerRequest request) {
+        logger.debug("#### batchDelete ####");
+        return batchResponse(request.bodyToMono(ENTRY_IDS).flatMap(mongoService::batchDelete),
+                "Failed to delete batch of entries");
+    }
+
+    public Mono<ServerResponse> deleteEntryIdRange(ServerRequest request) {
+        logger.debug("#### deleteEntryIdRange ####");
+        return withEntryId(request, "fromId", fromId -> withEntryId(request, "toId", toId ->
+                batchResponse(mongoService.deleteEntryIdRange(fromId, toId)
+                                .map(deleted -> new BatchDeleteResult(deleted, null, null)),
+                        "Failed to delete entries from id " + fromId + " to " + toId)));
+    }
+
+    private Mono<ServerResponse> withEntryId(ServerRequest request, Function<Integer, Mono<ServerResponse>> handler) {
+        return withEntryId(request, "entryId", handler);
+    }
+
+    /**
+     * Parses an entry ID path variable inside the reactive chain, so a malformed ID is answered with
+     * 400 Bad Request, as the servlet API does, rather than escaping the handler as a 500.
+     */
+    private Mono<ServerResponse> withEntryId(ServerRequest request, String name,
+                                             Function<Integer, Mono<ServerResponse>> handler) {
+        // every handler maps its own errors, so a NumberFormatException here can only come from the parse
+        return Mono.fromCallable(() -> Integer.valueOf(request.pathVariable(name)))
+                .flatMap(handler)
+                .onErrorResume(NumberFormatException.class, e -> ServerResponse.badRequest()
+                        .bodyValue(new ErrorResponse("Invalid Entry ID", e.getMessage())));
+    }
+
+    private Mono<ServerResponse> batchResponse(Mono<?> batch, String failure) {
+        return batch.flatMap(result -> ServerResponse.ok().bodyValue(result))
+                .onErrorResume(IllegalArgumentException.class, e -> ServerResponse.badRequest()
+                        .bodyValue(new ErrorResponse("Invalid Batch Request", e.getMessage())))
+                .onErrorResume(e -> !(e instanceof IllegalArgumentException), e -> databaseError(failure, e));
+    }
+
+    private Mono<ServerResponse> entriesResponse(Flux<Entry> entries, String failure) {
+        return streamResponse(entries, Entry.class, failure);
+    }
+
+    /**
+     * Streams the results as a JSON array, written as the cursor produces them.
+     * The response waits for the first result, so a query that fails before producing anything still becomes
+     * an ErrorResponse; once the body has started, a later error can only cut it short.
+     */
+    private <T> Mono<ServerResponse> streamResponse(Flux<T> results, Class<T> type, String failure) {
+        // the source is not cancelled when the response is emitted: the body goes on to consume it
+        return results.switchOnFirst((first, all) -> first.hasError()
+                                ? databaseError(failure, first.getThrowable())
+                                : ServerResponse.ok().body(all.doOnError(e -> logger.error(failure, e)), type),
+                        false)
+                .singleOrEmpty();
+    }
+
+    private Mono<ServerResponse> pageResponse(ServerRequest request, PageReader pageReader) {
+        return Mono.defer(() -> pageReader.read(Integer.parseInt(request.queryParam("limit").orElseThrow()),
+                        request.queryParam("after").orElse(null)))
+                .flatMap(page -> ServerResponse.ok().bodyValue(page))
+                .onErrorResume(IllegalArgumentException.class, e -> ServerResponse.badRequest()
+                        .bodyValue(new ErrorResponse("Invalid Page Request", e.getMessage())))
+                .onErrorResume(e -> !(e instanceof IllegalArgumentException),
+                        e -> databaseError("Failed to read page of entries", e));
+    }
+
+    /**
+     * Same status mapping as AddressApi: success when everything was inserted, 207 Multi-Status
+     * when only part of it was, and an error when nothing was inserted.
+     */
+    private Mono<ServerResponse> bulkResponse(BulkWriteSummary summary, HttpStatus successStatus) {
+        if (summary.complete()) {
+            return ServerResponse.status(successStatus).bodyValue(summary);
+        }
+        if (summary.inserted() > 0) {
+            return ServerResponse.status(HttpStatus.MULTI_STATUS).bodyValue(summary);
+        }
+        String msg = summary.failures() == 0
+                ? "Duplicate Entry ID Exists"
+                : summary.results().stream()
+                        .map(BatchResult::error)
+                        .filter(Objects::nonNull)
+                        .findFirst()
+                        .orElse("Bulk insert failed");
+        return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR).bodyValue(new ErrorResponse(DATABASE_ERROR, msg));
+    }
+
+    private Mono<ServerResponse> databaseError(String failure, Throwable e) {
+        logger.error(failure, e);
+        return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .bodyValue(new ErrorResponse(DATABASE_ERROR, e.getMessage()));
+    }
+
+    @FunctionalInterface
+    private interface PageReader {
+        Mono<EntryPage> read(int limit, String token);
+    }
+}
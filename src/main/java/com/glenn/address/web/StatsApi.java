@@ -0,0 +1,47 @@
+package com.glenn.address.web;
+
+import com.glenn.address.mongo.ConnectionPoolStats;
+import com.glenn.address.mongo.EntryCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller exposing runtime statistics for monitoring.
+ * Reports MongoDB connection pool usage so saturation under load can be observed,
+ * and entry cache hit, miss and eviction counts.
+ */
+@RestController
+@RequestMapping("/api/stats")
+@Profile("!local")
+public class StatsApi {
+    private static final Logger logger = LoggerFactory.getLogger(StatsApi.class);
+    private final ConnectionPoolStats connectionPoolStats;
+    private final EntryCache entryCache;
+
+    @SuppressWarnings("unused")
+    @Autowired
+    public StatsApi(ConnectionPoolStats connectionPoolStats, EntryCache entryCache) {
+        this.connectionPoolStats = connectionPoolStats;
+        this.entryCache = entryCache;
+    }
+
+    @GetMapping("/pool")
+    @SuppressWarnings("unused")
+    public ResponseEntity<ConnectionPoolStats.Snapshot> getPoolStats() {
+        logger.debug("#### getPoolStats ####");
+        return ResponseEntity.ok(connectionPoolStats.snapshot());
+    }
+
+    @GetMapping("/cache")
+    @SuppressWarnings("unused")
+    public ResponseEntity<EntryCache.Snapshot> getCacheStats() {
+        logger.debug("#### getCacheStats ####");
+        return ResponseEntity.ok(entryCache.snapshot());
+    }
+}
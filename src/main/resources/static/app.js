@@ -2,48 +2,112 @@
 'use strict';
 
 const API_BASE_URL = '/api/entries';
+const JOBS_URL = '/api/jobs';
+const JOB_POLL_INTERVAL = 1000;
 const MAX_ENTRY_ID = 999999;
 const MESSAGE_AUTO_HIDE_DELAY = 5000;
 const SCROLL_ANIMATION_DELAY = 300;
 const HIGHLIGHT_DURATION = 1000;
+const PAGE_SIZE = 100;
 
-let loadedEntryIds = []; // Sorted list of loaded entry IDs
-let nameMap = new Map();
+let loadedEntryIds = []; // Sorted list of every entry ID, from the summary listing
+let nameMap = new Map(); // entryId -> "First Last", from the summary listing
+let nextPage = null; // { url, token } for the next page of the current listing, null when done
 
 // Show loading
 function showLoading() {
     $('#results').html('<p class="loading">Loading...</p>');
     $('#resultsCount').text('');
+    setNextPage(null);
 }
 
-// Display results
-function displayResults(entries) {
-    const resultsDiv = $('#results');
-    resultsDiv.empty();
-
-    $('#resultsCount').text(`(${entries.length})`);
+// Remember where the next page comes from and show or hide the Load More button
+function setNextPage(page) {
+    nextPage = page;
+    $('#loadMoreBtn').toggleClass('hidden', nextPage === null);
+}
 
-    // Clear selected entry field
-    $('#selectedEntryId').val('');
+// Display results, optionally appending to the entries already shown
+function displayResults(entries, append) {
+    const resultsDiv = $('#results');
+    if (!append) {
+        resultsDiv.empty();
+        // Clear selected entry field
+        $('#selectedEntryId').val('');
+    }
 
-    if (entries.length === 0) {
+    if (!append && entries.length === 0) {
+        $('#resultsCount').text('(0)');
         resultsDiv.html('<p class="loading">No entries found</p>');
-        loadedEntryIds = [];
-        nameMap = new Map();
         return;
     }
 
-    // Update loadedEntryIds with sorted unique IDs
-    loadedEntryIds = entries
-        .map(entry => entry.entryId)
-        .filter(id => id !== null && id !== undefined)
-        .sort((a, b) => a - b);
-
     entries.forEach(function(entry) {
         nameMap.set(entry.entryId, entry.person.firstName + " " + entry.person.lastName);
         const card = createEntryCard(entry);
         resultsDiv.append(card);
     });
+
+    $('#resultsCount').text(`(${resultsDiv.children('.entry-card').length})`);
+}
+
+// Load the ID and name of every entry as compact [entryId, firstName, lastName] tuples,
+// so next-ID calculation and delete confirmation don't need the full entries
+function loadSummary() {
+    $.ajax({
+        url: `${API_BASE_URL}/summary`,
+        method: 'GET',
+        success: function(summaries) {
+            loadedEntryIds = summaries
+                .map(summary => summary[0])
+                .filter(id => id !== null && id !== undefined);
+            nameMap = new Map(summaries.map(summary => [summary[0], summary[1] + " " + summary[2]]));
+        },
+        error: function(xhr, status, error) {
+            const errorMsg = getErrorMessage(xhr, 'Error loading entry summary: ' + error);
+            showMessage(errorMsg, 'error');
+        }
+    });
+}
+
+// Load one page of a listing; token is null for the first page
+function loadPage(url, token, append, onLoaded, errorPrefix) {
+    const params = { limit: PAGE_SIZE };
+    if (token) {
+        params.after = token;
+    }
+    $.ajax({
+        url: url,
+        method: 'GET',
+        data: params,
+        success: function(page) {
+            displayResults(page.entries, append);
+            setNextPage(page.next ? { url: url, token: page.next } : null);
+            if (onLoaded) {
+                onLoaded(page);
+            }
+        },
+        error: function(xhr, status, error) {
+            const errorMsg = getErrorMessage(xhr, errorPrefix + error);
+            showMessage(errorMsg, 'error');
+            if (!append) {
+                $('#results').empty();
+            }
+        }
+    });
+}
+
+// Append the next page of the current listing
+function loadMoreEntries() {
+    if (nextPage) {
+        loadPage(nextPage.url, nextPage.token, true, null, 'Error loading entries: ');
+    }
+}
+
+// Describe how many entries are shown, noting when more pages remain
+function loadedCountText() {
+    const shown = $('#results').children('.entry-card').length;
+    return nextPage ? `${shown}+` : `${shown}`;
 }
 
 // Helper function to extract error message from response
@@ -283,7 +347,7 @@ function resetEditForm() {
     $('#editEntryForm')[0].reset();
 }
 
-// Save edited entry (delete old, save new)
+// Save edited entry (replace in place)
 function saveEditedEntry() {
     // Get and validate the entry ID
     const entryIdValue = $('#editEntryId').val();
@@ -315,30 +379,19 @@ function saveEditedEntry() {
         notes: $('#editNotes').val().trim() || null
     };
 
-    // First, delete the old entry
+    // Replace the entry in a single request
     $.ajax({
         url: `${API_BASE_URL}/${entryIdNum}`,
-        method: 'DELETE',
+        method: 'PUT',
+        contentType: 'application/json',
+        data: JSON.stringify(entry),
         success: function() {
-            // Then, save the new entry
-            $.ajax({
-                url: `${API_BASE_URL}/save`,
-                method: 'POST',
-                contentType: 'application/json',
-                data: JSON.stringify(entry),
-                success: function() {
-                    showMessage('Entry updated successfully!', 'success');
-                    hideEditForm();
-                    loadAllEntries(false);
-                },
-                error: function(xhr, status, error) {
-                    const errorMsg = getErrorMessage(xhr, 'Error saving updated entry: ' + error);
-                    showMessage(errorMsg, 'error');
-                }
-            });
+            showMessage('Entry updated successfully!', 'success');
+            hideEditForm();
+            loadAllEntries(false);
         },
         error: function(xhr, status, error) {
-            const errorMsg = getErrorMessage(xhr, 'Error deleting old entry: ' + error);
+            const errorMsg = getErrorMessage(xhr, 'Error saving updated entry: ' + error);
             showMessage(errorMsg, 'error');
         }
     });
@@ -358,21 +411,12 @@ function showMessage(message, type) {
 function loadAllEntries(showFoundMessage) {
     showFoundMessage = showFoundMessage !== false; // default to true
     showLoading();
-    $.ajax({
-        url: `${API_BASE_URL}/sortById`,
-        method: 'GET',
-        success: function(data) {
-            displayResults(data);
-            if (showFoundMessage) {
-                showMessage(`Found ${data.length} entries`, 'success');
-            }
-        },
-        error: function(xhr, status, error) {
-            const errorMsg = getErrorMessage(xhr, 'Error loading entries: ' + error);
-            showMessage(errorMsg, 'error');
-            $('#results').empty();
+    loadSummary();
+    loadPage(`${API_BASE_URL}/sortById`, null, false, function() {
+        if (showFoundMessage) {
+            showMessage(`Found ${loadedCountText()} entries`, 'success');
         }
-    });
+    }, 'Error loading entries: ');
 }
 
 // Save new entry
@@ -416,21 +460,9 @@ function saveEntry(keepOpen) {
         success: function() {
             showMessage('Entry saved successfully!', 'success');
 
-            // Update entries list in background
-            $.ajax({
-                url: API_BASE_URL,
-                method: 'GET',
-                success: function(data) {
-                    // Update loadedEntryIds for next ID calculation
-                    loadedEntryIds = data
-                        .map(entry => entry.entryId)
-                        .filter(id => id !== null && id !== undefined)
-                        .sort((a, b) => a - b);
-                },
-                error: function(xhr, status, error) {
-                    console.warn('Failed to update entry IDs in background:', error);
-                }
-            });
+            // Track the new ID for the next ID calculation instead of re-fetching every entry
+            loadedEntryIds = loadedEntryIds.concat([entryIdNum]).sort((a, b) => a - b);
+            nameMap.set(entryIdNum, entry.person.firstName + " " + entry.person.lastName);
 
             resetForm();
 
@@ -438,7 +470,8 @@ function saveEntry(keepOpen) {
                 // Calculate and set next ID
                 let nextId = entryIdNum + 1;
                 if (loadedEntryIds.length > 0) {
-                    const maxId = Math.max(...loadedEntryIds, entryIdNum);
+                    // loadedEntryIds is sorted, and may be too long to spread into Math.max
+                    const maxId = Math.max(loadedEntryIds[loadedEntryIds.length - 1], entryIdNum);
                     nextId = maxId + 1;
                 }
                 $('#entryId').val(nextId);
@@ -479,90 +512,80 @@ function deleteEntryById(entryId) {
 // Sort entries by ID
 function sortEntriesById() {
     showLoading();
+    loadPage(`${API_BASE_URL}/sortById`, null, false, function() {
+        showMessage(`Sorted ${loadedCountText()} entries by ID`, 'success');
+    }, 'Error sorting entries: ');
+}
+
+// Sort entries by last name
+function sortEntriesByLastName() {
+    showLoading();
+    loadPage(`${API_BASE_URL}/sortByLastName`, null, false, function() {
+        showMessage(`Sorted ${loadedCountText()} entries by Last Name`, 'success');
+    }, 'Error sorting entries: ');
+}
+
+// Submit a background job, then poll its status until it finishes
+function runJob(url, description, onSucceeded) {
     $.ajax({
-        url: `${API_BASE_URL}/sortById`,
-        method: 'GET',
-        success: function(data) {
-            displayResults(data);
-            showMessage(`Sorted ${data.length} entries by ID`, 'success');
+        url: url,
+        method: 'POST',
+        success: function(job) {
+            showMessage(`${description} queued...`, 'info');
+            pollJob(job.jobId, description, onSucceeded);
         },
         error: function(xhr, status, error) {
-            const errorMsg = getErrorMessage(xhr, 'Error sorting entries: ' + error);
+            const errorMsg = getErrorMessage(xhr, `Error starting ${description.toLowerCase()}: ` + error);
             showMessage(errorMsg, 'error');
-            $('#results').empty();
         }
     });
 }
 
-// Sort entries by last name
-function sortEntriesByLastName() {
-    showLoading();
+function pollJob(jobId, description, onSucceeded) {
     $.ajax({
-        url: `${API_BASE_URL}/sortByLastName`,
+        url: `${JOBS_URL}/${jobId}`,
         method: 'GET',
-        success: function(data) {
-            displayResults(data);
-            showMessage(`Sorted ${data.length} entries by Last Name`, 'success');
+        success: function(job) {
+            if (job.state === 'QUEUED' || job.state === 'RUNNING') {
+                if (job.state === 'RUNNING') {
+                    showMessage(`${description} running: ${job.entriesProcessed} entries processed`, 'info');
+                }
+                setTimeout(function() {
+                    pollJob(jobId, description, onSucceeded);
+                }, JOB_POLL_INTERVAL);
+            } else if (job.state === 'SUCCEEDED') {
+                onSucceeded(job);
+            } else if (job.state === 'CANCELLED') {
+                showMessage(`${description} was cancelled`, 'info');
+            } else {
+                showMessage(`${description} failed: ${job.error}`, 'error');
+            }
         },
         error: function(xhr, status, error) {
-            const errorMsg = getErrorMessage(xhr, 'Error sorting entries: ' + error);
+            const errorMsg = getErrorMessage(xhr, `Error checking ${description.toLowerCase()}: ` + error);
             showMessage(errorMsg, 'error');
-            $('#results').empty();
         }
     });
 }
 
+// Download a finished job's artifact; the attachment header keeps the page in place
+function downloadJobArtifact(job) {
+    window.location.href = `${JOBS_URL}/${job.jobId}/download`;
+}
+
 // Print all entries to PDF
 function printAllEntries() {
-    // Open the PDF in a new window/tab which will trigger download
-    window.open('/api/print', '_blank');
-    showMessage('Generating PDF document...', 'info');
+    runJob(`${JOBS_URL}/print`, 'Print', function(job) {
+        downloadJobArtifact(job);
+        showMessage(`PDF of ${job.entriesProcessed} entries generated`, 'success');
+    });
 }
 
-// Export entries to file
+// Export entries to a JSON file download
 function exportEntries() {
-    const fileName = prompt('Enter filename for export:', 'export-data.json');
-
-    // User cancelled the prompt
-    if (fileName === null) {
-        return;
-    }
-
-    // Trim and validate
-    const trimmedFileName = fileName.trim();
-    if (trimmedFileName === '') {
-        showMessage('Filename cannot be empty', 'error');
-        return;
-    }
-
-    // Check if filename starts with /
-    if (trimmedFileName.startsWith('/')) {
-        showMessage('Filename cannot begin with /', 'error');
-        return;
-    }
-
-    // Check if filename contains :
-    if (trimmedFileName.includes(':')) {
-        showMessage('Filename cannot contain :', 'error');
-        return;
-    }
-
-    // Check if filename ends with .json
-    if (!trimmedFileName.endsWith('.json')) {
-        showMessage('Filename must end with .json', 'error');
-        return;
-    }
-
-    $.ajax({
-        url: `${API_BASE_URL}/export?fileName=${encodeURIComponent(trimmedFileName)}`,
-        method: 'POST',
-        success: function() {
-            showMessage(`Entries exported successfully to ${trimmedFileName}`, 'success');
-        },
-        error: function(xhr, status, error) {
-            const errorMsg = getErrorMessage(xhr, 'Error exporting entries: ' + error);
-            showMessage(errorMsg, 'error');
-        }
+    runJob(`${JOBS_URL}/export`, 'Export', function(job) {
+        downloadJobArtifact(job);
+        showMessage(`Exported ${job.entriesProcessed} entries`, 'success');
     });
 }
 
@@ -600,18 +623,16 @@ function importEntries() {
         return;
     }
 
-    $.ajax({
-        url: `${API_BASE_URL}/importData?fileName=${encodeURIComponent(trimmedFileName)}`,
-        method: 'POST',
-        success: function() {
+    runJob(`${JOBS_URL}/import?fileName=${encodeURIComponent(trimmedFileName)}`, 'Import', function(job) {
+        const summary = job.result;
+        if (summary && (summary.duplicates > 0 || summary.failures > 0)) {
+            showMessage(`Imported ${summary.inserted} entries from ${trimmedFileName}; ` +
+                `${summary.duplicates} duplicates and ${summary.failures} failures skipped`, 'info');
+        } else {
             showMessage(`Entries imported successfully from ${trimmedFileName}`, 'success');
-            // Reload all entries to show the imported data
-            loadAllEntries(false);
-        },
-        error: function(xhr, status, error) {
-            const errorMsg = getErrorMessage(xhr, 'Error importing entries: ' + error);
-            showMessage(errorMsg, 'error');
         }
+        // Reload all entries to show the imported data
+        loadAllEntries(false);
     });
 }
 
@@ -736,6 +757,10 @@ $(document).ready(function() {
         sortEntriesByLastName();
     });
 
+    $('#loadMoreBtn').click(function() {
+        loadMoreEntries();
+    });
+
     // Form submission
     $('#addEntryForm').submit(function(e) {
         e.preventDefault();
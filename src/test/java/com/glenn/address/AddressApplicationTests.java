@@ -1,18 +1,32 @@
 package com.glenn.address;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.glenn.address.binary.BinaryFormat;
 import com.glenn.address.domain.*;
+import com.glenn.address.jobs.JobState;
+import com.glenn.address.jobs.JobStatus;
+import com.glenn.address.mongo.FileDataUtil;
 import com.glenn.address.mongo.MongoService;
+import com.glenn.address.mongo.BulkWriteSummary;
 import com.glenn.address.web.AddressApi;
+import com.glenn.address.web.MongoAddressApi;
+import com.glenn.address.web.ErrorResponse;
+import com.glenn.address.web.JobsApi;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.nio.file.Files;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static com.glenn.address.TestConfig.JOHN_SMITH;
@@ -31,11 +45,15 @@ class AddressApplicationTests {
 
     @Autowired
     MongoService mongoService;
+    @Autowired
+    JobsApi jobsApi;
     AddressApi api;
+    MongoAddressApi mongoApi;
 
     @BeforeEach
     void init() {
         api = new AddressApi(mongoService);
+        mongoApi = new MongoAddressApi(mongoService);
     }
 
     @Test
@@ -45,20 +63,54 @@ class AddressApplicationTests {
     }
 
     @Test
-    void testGetAllEntries() {
+    void testGetAllEntries() throws Exception {
         ResponseEntity<?> response = api.getAllEntries();
         assertEquals(HttpStatus.OK, response.getStatusCode());
 
-        // Get the body as Object, then cast to List<Entry>
+        // The full book is streamed as a JSON array
+        StreamingResponseBody body = (StreamingResponseBody) response.getBody();
+        assertNotNull(body);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        assertEquals(TestConfig.testEntries(), List.of(new ObjectMapper().readValue(out.toByteArray(), Entry[].class)));
+    }
+
+    @Test
+    void testStreamAllEntries() throws Exception {
+        ResponseEntity<?> response = api.streamAllEntries("ndjson");
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        StreamingResponseBody body = (StreamingResponseBody) response.getBody();
+        assertNotNull(body);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        // One line per entry
+        long lines = out.toString().lines().filter(line -> !line.isBlank()).count();
+        assertEquals(TestConfig.testEntries().size(), lines);
+
+        assertEquals(HttpStatus.BAD_REQUEST, api.streamAllEntries("xml").getStatusCode());
+    }
+
+    @Test
+    void testGetEntrySummaries() throws Exception {
+        ResponseEntity<?> response = mongoApi.getEntrySummaries();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
         @SuppressWarnings("unchecked")
-        List<Entry> body = (List<Entry>) response.getBody();
+        List<EntrySummary> body = (List<EntrySummary>) response.getBody();
         assertNotNull(body);
-        assertEquals(TestConfig.testEntries(), body);
+        assertEquals(TestConfig.testEntries().size(), body.size());
+        // Summaries serialize as compact [entryId, firstName, lastName] tuples
+        String json = new ObjectMapper().writeValueAsString(body.getFirst());
+        assertEquals(new ObjectMapper().writeValueAsString(
+                List.of(body.getFirst().entryId(), body.getFirst().firstName(), body.getFirst().lastName())), json);
+        assertTrue(new ObjectMapper().writeValueAsString(body).length()
+                < new ObjectMapper().writeValueAsString(TestConfig.testEntries()).length() / 3);
     }
 
     @Test
     void testGetAllEntriesSortedById() {
-        ResponseEntity<?> response = api.getAllEntriesSortedById();
+        ResponseEntity<?> response = mongoApi.getAllEntriesSortedById();
         assertEquals(HttpStatus.OK, response.getStatusCode());
 
         @SuppressWarnings("unchecked")
@@ -74,7 +126,7 @@ class AddressApplicationTests {
 
     @Test
     void testGetAllEntriesSortedByLastName() {
-        ResponseEntity<?> response = api.getAllEntriesSortedByLastName();
+        ResponseEntity<?> response = mongoApi.getAllEntriesSortedByLastName();
         assertEquals(HttpStatus.OK, response.getStatusCode());
 
         @SuppressWarnings("unchecked")
@@ -89,6 +141,20 @@ class AddressApplicationTests {
         }
     }
 
+    @Test
+    void testGetEntriesPage() {
+        ResponseEntity<?> response = mongoApi.getEntriesPageSortedByLastName(10, null);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        EntryPage page = (EntryPage) response.getBody();
+        assertNotNull(page);
+        assertEquals(List.of(JOHN_SMITH), page.entries());
+        assertNull(page.next());
+
+        assertEquals(HttpStatus.OK, mongoApi.getEntriesPageSortedById(10, null).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, mongoApi.getEntriesPage(0, null).getStatusCode());
+    }
+
     @Test
     void testGetEntryById() {
         int entryId = JOHN_SMITH.entryId();
@@ -144,6 +210,21 @@ class AddressApplicationTests {
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
     }
 
+    @Test
+    void testSaveEntriesWithDuplicates() {
+        ResponseEntity<?> response = api.saveEntries(List.of(JOHN_SMITH));
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals("Duplicate Entry ID Exists", ((ErrorResponse) response.getBody()).message());
+
+        Entry other = new Entry(99902, JOHN_SMITH.person(), JOHN_SMITH.address(), null);
+        response = api.saveEntries(List.of(other, JOHN_SMITH));
+        assertEquals(HttpStatus.MULTI_STATUS, response.getStatusCode());
+        BulkWriteSummary summary = (BulkWriteSummary) response.getBody();
+        assertNotNull(summary);
+        assertEquals(1, summary.inserted());
+        assertEquals(1, summary.duplicates());
+    }
+
     @Test
     void testSaveOneEntry() {
         Entry entryToSave = new Entry(
@@ -156,6 +237,61 @@ class AddressApplicationTests {
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
     }
 
+    @Test
+    void testReplaceEntry() {
+        Entry replacement = new Entry(null, new Person("John", "Smith", 41, Gender.MALE, MaritalStatus.MARRIED),
+                JOHN_SMITH.address(), "Moved");
+        ResponseEntity<?> response = mongoApi.replaceEntry(JOHN_SMITH.entryId(), replacement);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Entry updated = (Entry) response.getBody();
+        assertNotNull(updated);
+        assertEquals(JOHN_SMITH.entryId(), updated.entryId());
+        assertEquals("Moved", updated.notes());
+    }
+
+    @Test
+    void testReplaceEntryNotFound() {
+        ResponseEntity<?> response = mongoApi.replaceEntry(999, JOHN_SMITH);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        response = mongoApi.replaceEntry(999, new Entry(null, JOHN_SMITH.person(), null, null));
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void testPatchEntry() {
+        ResponseEntity<?> response = mongoApi.patchEntry(JOHN_SMITH.entryId(), Map.of("notes", "Moved"));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(JOHN_SMITH, response.getBody());
+        response = mongoApi.patchEntry(999, Map.of("notes", "Moved"));
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        response = mongoApi.patchEntry(JOHN_SMITH.entryId(), Map.of());
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void testBatchGet() {
+        ResponseEntity<?> response = mongoApi.batchGet(List.of(JOHN_SMITH.entryId(), 999));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        BatchGetResult result = (BatchGetResult) response.getBody();
+        assertNotNull(result);
+        assertEquals(List.of(JOHN_SMITH), result.entries());
+        assertEquals(List.of(999), result.missing());
+
+        response = mongoApi.batchGet(List.of());
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void testBatchDelete() {
+        ResponseEntity<?> response = mongoApi.batchDelete(List.of(1, 2));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(new BatchDeleteResult(2, List.of(1, 2), List.of()), response.getBody());
+
+        response = mongoApi.deleteEntryIdRange(1, 3);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(3, ((BatchDeleteResult) response.getBody()).deleted());
+    }
+
     @Test
     void testDeleteEntryById() {
         int entryId = 1;
@@ -165,22 +301,87 @@ class AddressApplicationTests {
 
     @Test
     void testImportData() {
-        ResponseEntity<?> response = api.importData("unit-test-import-data.json");
+        ResponseEntity<?> response = mongoApi.importData("unit-test-import-data.json", MongoAddressApi.FORMAT_JSON);
         assertEquals(HttpStatus.OK, response.getStatusCode());
+        BulkWriteSummary summary = (BulkWriteSummary) response.getBody();
+        assertNotNull(summary);
+        assertEquals(new FileDataUtil("unit-test-import-data.json").readData().size(), summary.inserted());
     }
 
     @Test
     void testExport() {
         String fileName = "unit-test-export-data.json";
-        ResponseEntity<?> response = api.export(fileName);
+        ResponseEntity<?> response = mongoApi.export(fileName, false, MongoAddressApi.FORMAT_JSON);
         assertEquals(HttpStatus.OK, response.getStatusCode());
 
         // Verify the file was created
         File exportedFile = new File(fileName);
         assertTrue(exportedFile.exists(), "Exported file should exist");
+        assertEquals(TestConfig.TEST_ENTRIES.stream().sorted(new CompareById()).toList(),
+                new FileDataUtil(fileName).readData());
 
         // Clean up - delete the test export file
         assertTrue(exportedFile.delete(), "Failed to delete test export file");
     }
 
+    @Test
+    void testExportCompact() throws Exception {
+        String fileName = "unit-test-export-compact.json";
+        ResponseEntity<?> response = mongoApi.export(fileName, true, MongoAddressApi.FORMAT_JSON);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        File exportedFile = new File(fileName);
+        assertFalse(Files.readString(exportedFile.toPath()).contains("\n"), "Compact export should be one line");
+        assertEquals(TestConfig.TEST_ENTRIES.size(), new FileDataUtil(fileName).readData().size());
+        assertTrue(exportedFile.delete(), "Failed to delete test export file");
+    }
+
+    @Test
+    void testExportAndImportBinaryFormats() {
+        List<Entry> sorted = TestConfig.TEST_ENTRIES.stream().sorted(new CompareById()).toList();
+        for (BinaryFormat format : BinaryFormat.values()) {
+            String fileName = "unit-test-export-data." + format.getExtension();
+            ResponseEntity<?> response = mongoApi.export(fileName, false, format.getExtension());
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(sorted, format.getService().readEntries(fileName), format.name());
+
+            response = mongoApi.importData(fileName, format.getExtension());
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(sorted.size(), ((BulkWriteSummary) response.getBody()).inserted());
+            assertTrue(new File(fileName).delete(), "Failed to delete test export file");
+        }
+
+        assertEquals(HttpStatus.BAD_REQUEST, mongoApi.export(null, false, "xml").getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, mongoApi.export("unit-test-export-data.json", false, "avro").getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, mongoApi.importData("missing-data.bson", "bson").getStatusCode());
+    }
+
+    @Test
+    void testExportJob() throws Exception {
+        ResponseEntity<?> response = jobsApi.submitExport(false);
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        JobStatus submitted = (JobStatus) response.getBody();
+        assertNotNull(submitted);
+        assertEquals("/api/jobs/" + submitted.jobId(), response.getHeaders().getLocation().toString());
+
+        JobStatus status = submitted;
+        for (int i = 0; i < 500 && !status.state().isFinished(); i++) {
+            Thread.sleep(10);
+            status = jobsApi.getJob(submitted.jobId()).getBody();
+            assertNotNull(status);
+        }
+        assertEquals(JobState.SUCCEEDED, status.state());
+
+        ResponseEntity<?> download = jobsApi.download(submitted.jobId());
+        assertEquals(HttpStatus.OK, download.getStatusCode());
+        Resource artifact = (Resource) download.getBody();
+        assertNotNull(artifact);
+        Entry[] exported = new ObjectMapper().readValue(artifact.getInputStream(), Entry[].class);
+        assertEquals(TestConfig.TEST_ENTRIES.size(), exported.length);
+
+        assertEquals(HttpStatus.NO_CONTENT, jobsApi.removeJob(submitted.jobId()).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, jobsApi.getJob(submitted.jobId()).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, jobsApi.submitImport("/etc/passwd").getStatusCode());
+    }
+
 }
@@ -0,0 +1,199 @@
+package com.glenn.address;
+
+import com.glenn.address.config.ReactiveRouter;
+import com.glenn.address.domain.BatchDeleteResult;
+import com.glenn.address.domain.BatchGetResult;
+import com.glenn.address.domain.Entry;
+import com.glenn.address.domain.EntryPage;
+import com.glenn.address.mongo.BatchResult;
+import com.glenn.address.mongo.BulkWriteSummary;
+import com.glenn.address.mongo.ReactiveMongoService;
+import com.glenn.address.web.ErrorResponse;
+import com.glenn.address.web.ReactiveAddressHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.glenn.address.TestConfig.JOHN_SMITH;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the WebFlux routes used with the "reactive" profile.
+ * Binds the router directly to a WebTestClient with a mocked ReactiveMongoService.
+ */
+class ReactiveRouterTest {
+    private WebTestClient client;
+
+    @BeforeEach
+    void init() {
+        ReactiveMongoService mongoService = mock(ReactiveMongoService.class);
+        List<Entry> entries = TestConfig.TEST_ENTRIES;
+        when(mongoService.readFromDatabase()).thenAnswer(invocation -> Flux.fromIterable(entries));
+        when(mongoService.readSortedById()).thenReturn(Flux.error(new IllegalStateException("Database down")));
+        when(mongoService.readPageById(anyInt(), any())).thenReturn(Mono.just(new EntryPage(List.of(JOHN_SMITH), null)));
+        when(mongoService.readPageById(eq(0), any())).thenReturn(Mono.error(new IllegalArgumentException("Page limit must be between 1 and 1000")));
+        when(mongoService.searchByEntryId(any())).thenReturn(Flux.empty());
+        when(mongoService.searchByEntryId(JOHN_SMITH.entryId())).thenReturn(Flux.just(JOHN_SMITH));
+        when(mongoService.saveToDatabase(any())).thenAnswer(invocation -> {
+            Flux<Entry> updates = invocation.getArgument(0);
+            return updates.collectList().map(list -> BulkWriteSummary.of(
+                    List.of(new BatchResult(1, list.size(), list.size(), 0, 0, null))));
+        });
+        when(mongoService.deleteEntryById(any())).thenReturn(Mono.just(1L));
+        when(mongoService.batchGet(any())).thenReturn(Mono.just(
+                new BatchGetResult(List.of(JOHN_SMITH), List.of(JOHN_SMITH.entryId()), List.of(999))));
+        when(mongoService.deleteEntryIdRange(anyInt(), anyInt())).thenReturn(Mono.just(3L));
+        when(mongoService.deleteEntryIdRange(eq(5), eq(4))).thenReturn(Mono.error(
+                new IllegalArgumentException("Range start 5 is after range end 4")));
+        when(mongoService.replaceEntry(any(), any())).thenReturn(Mono.empty());
+        when(mongoService.replaceEntry(eq(JOHN_SMITH.entryId()), any())).thenReturn(Mono.just(JOHN_SMITH));
+        when(mongoService.patchEntry(any(), any())).thenReturn(Mono.just(JOHN_SMITH));
+        when(mongoService.patchEntry(any(), eq(Map.of()))).thenReturn(Mono.error(new IllegalArgumentException("Nothing to update")));
+        client = WebTestClient.bindToRouterFunction(new ReactiveRouter().entryRoutes(new ReactiveAddressHandler(mongoService)))
+                .build();
+    }
+
+    @Test
+    void testGetAllEntries() {
+        client.get().uri("/api/entries")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Entry.class).isEqualTo(TestConfig.TEST_ENTRIES);
+    }
+
+    @Test
+    void testQueryErrorBeforeBody() {
+        client.get().uri("/api/entries/sortById")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR)
+                .expectBody(ErrorResponse.class)
+                .value(error -> assertEquals("Database down", error.message()));
+    }
+
+    @Test
+    void testStreamNdjson() {
+        List<Entry> streamed = client.get().uri("/api/entries/stream?format=ndjson")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Entry.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+        assertEquals(TestConfig.TEST_ENTRIES, streamed);
+
+        client.get().uri("/api/entries/stream?format=xml")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testGetEntriesPage() {
+        client.get().uri("/api/entries/sortById?limit=10")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(EntryPage.class).isEqualTo(new EntryPage(List.of(JOHN_SMITH), null));
+
+        client.get().uri("/api/entries?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(ErrorResponse.class)
+                .value(error -> assertEquals("Invalid Page Request", error.error()));
+    }
+
+    @Test
+    void testGetEntryById() {
+        client.get().uri("/api/entries/{entryId}", JOHN_SMITH.entryId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Entry.class).isEqualTo(List.of(JOHN_SMITH));
+
+        client.get().uri("/api/entries/{entryId}", 1)
+                .exchange()
+                .expectStatus().isNotFound();
+
+        client.get().uri("/api/entries/{entryId}", "abc")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(ErrorResponse.class)
+                .value(error -> assertEquals("Invalid Entry ID", error.error()));
+
+        client.delete().uri("/api/entries/{entryId}", "abc")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testSaveEntries() {
+        client.post().uri("/api/entries/saveList")
+                .bodyValue(TestConfig.TEST_ENTRIES)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CREATED)
+                .expectBody(BulkWriteSummary.class)
+                .value(summary -> assertEquals(TestConfig.TEST_ENTRIES.size(), summary.inserted()));
+    }
+
+    @Test
+    void testDeleteEntry() {
+        client.delete().uri("/api/entries/{entryId}", JOHN_SMITH.entryId())
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+
+    @Test
+    void testReplaceAndPatchEntry() {
+        client.put().uri("/api/entries/{entryId}", JOHN_SMITH.entryId())
+                .bodyValue(JOHN_SMITH)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Entry.class).isEqualTo(JOHN_SMITH);
+
+        client.put().uri("/api/entries/{entryId}", 999)
+                .bodyValue(new Entry(null, JOHN_SMITH.person(), null, null))
+                .exchange()
+                .expectStatus().isNotFound();
+
+        client.patch().uri("/api/entries/{entryId}", JOHN_SMITH.entryId())
+                .bodyValue(Map.of("notes", "Moved"))
+                .exchange()
+                .expectStatus().isOk();
+
+        client.patch().uri("/api/entries/{entryId}", JOHN_SMITH.entryId())
+                .bodyValue(Map.of())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(ErrorResponse.class).value(error -> assertEquals("Nothing to update", error.message()));
+    }
+
+    @Test
+    void testBatchRoutes() {
+        client.post().uri("/api/entries/batchGet")
+                .bodyValue(List.of(JOHN_SMITH.entryId(), 999))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BatchGetResult.class)
+                .value(result -> assertEquals(List.of(999), result.missing()));
+
+        client.delete().uri("/api/entries/range/{fromId}/{toId}", 1, 3)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BatchDeleteResult.class)
+                .value(result -> assertEquals(3, result.deleted()));
+
+        client.delete().uri("/api/entries/range/{fromId}/{toId}", 5, 4)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
@@ -1,6 +1,8 @@
 package com.glenn.address;
 
 import com.glenn.address.domain.*;
+import com.glenn.address.mongo.BatchResult;
+import com.glenn.address.mongo.BulkWriteSummary;
 import com.glenn.address.mongo.FileDataUtil;
 import com.glenn.address.mongo.MongoService;
 import org.slf4j.Logger;
@@ -9,9 +11,15 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -49,9 +57,62 @@ public class TestConfig {
     public MongoService mongoService() {
         MongoService mockService = mock(MongoService.class);
         when(mockService.readFromDatabase()).thenReturn(TEST_ENTRIES);
+        when(mockService.readSortedById()).thenReturn(TEST_ENTRIES.stream().sorted(new CompareById()).toList());
+        when(mockService.readSortedByLastName()).thenReturn(TEST_ENTRIES.stream().sorted(new CompareByLastName()).toList());
+        when(mockService.readSummaries()).thenReturn(TEST_ENTRIES.stream()
+                .sorted(new CompareById())
+                .map(entry -> new EntrySummary(entry.entryId(), entry.person().firstName(), entry.person().lastName()))
+                .toList());
+        when(mockService.streamFromDatabase()).thenAnswer(invocation -> TEST_ENTRIES.stream());
+        when(mockService.streamAll()).thenAnswer(invocation -> TEST_ENTRIES.stream());
+        when(mockService.streamSortedById()).thenAnswer(invocation -> TEST_ENTRIES.stream().sorted(new CompareById()));
+        when(mockService.readPageById(anyInt(), any())).thenReturn(new EntryPage(List.of(JOHN_SMITH), null));
+        when(mockService.readPageByLastName(anyInt(), any())).thenReturn(new EntryPage(List.of(JOHN_SMITH), null));
+        when(mockService.readPageById(eq(0), any())).thenThrow(new IllegalArgumentException("Page limit must be between 1 and 1000"));
         when(mockService.searchByEntryId(any())).thenReturn(List.of(JOHN_SMITH));
         when(mockService.searchByLastName(any())).thenReturn(List.of(JOHN_SMITH));
         when(mockService.searchByFirstAndLastName(any(), any())).thenReturn(List.of(JOHN_SMITH));
+        when(mockService.replaceEntry(eq(JOHN_SMITH.entryId()), any())).thenAnswer(invocation -> {
+            Entry entry = invocation.getArgument(1);
+            return new Entry(JOHN_SMITH.entryId(), entry.person(), entry.address(), entry.notes());
+        });
+        when(mockService.patchEntry(eq(JOHN_SMITH.entryId()), any())).thenReturn(JOHN_SMITH);
+        when(mockService.patchEntry(any(), eq(Map.of()))).thenThrow(new IllegalArgumentException("Nothing to update"));
+        when(mockService.batchGet(any())).thenAnswer(invocation -> {
+            List<Integer> ids = invocation.getArgument(0);
+            if (ids.isEmpty()) {
+                throw new IllegalArgumentException("Batch must contain between 1 and 1000 entry IDs");
+            }
+            boolean found = ids.contains(JOHN_SMITH.entryId());
+            return new BatchGetResult(found ? List.of(JOHN_SMITH) : List.of(),
+                    found ? List.of(JOHN_SMITH.entryId()) : List.of(),
+                    ids.stream().filter(id -> !id.equals(JOHN_SMITH.entryId())).toList());
+        });
+        when(mockService.batchDelete(any())).thenAnswer(invocation -> {
+            List<Integer> ids = invocation.getArgument(0);
+            return new BatchDeleteResult(ids.size(), ids, List.of());
+        });
+        when(mockService.deleteEntryIdRange(anyInt(), anyInt())).thenReturn(3L);
+        when(mockService.importEntries(any())).thenAnswer(invocation -> {
+            Stream<Entry> entries = invocation.getArgument(0);
+            int count = (int) entries.count();
+            return BulkWriteSummary.of(List.of(new BatchResult(1, count, count, 0, 0, null)));
+        });
+        when(mockService.saveToDatabase(any())).thenAnswer(invocation -> {
+            List<Entry> entries = invocation.getArgument(0);
+            if (entries.contains(JOHN_SMITH)) {
+                // JOHN_SMITH already exists, so saving him again is a duplicate
+                return BulkWriteSummary.of(List.of(new BatchResult(1, entries.size(), entries.size() - 1, 1, 0,
+                        "E11000 duplicate key error")));
+            }
+            return BulkWriteSummary.of(List.of(new BatchResult(1, entries.size(), entries.size(), 0, 0, null)));
+        });
+        when(mockService.saveAll(any())).thenAnswer(invocation -> {
+            Iterator<Entry> entries = invocation.getArgument(0);
+            List<Entry> saved = new ArrayList<>();
+            entries.forEachRemaining(saved::add);
+            return mockService.saveToDatabase(saved);
+        });
         return mockService;
     }
 }
@@ -0,0 +1,90 @@
+package com.glenn.address;
+
+import com.glenn.address.mongo.MongoService;
+import com.glenn.address.web.AddressApi;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static com.glenn.address.TestConfig.JOHN_SMITH;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Load benchmark comparing platform and virtual request threads.
+ * Drives AddressApi at high concurrency against a MongoService stand-in that blocks for a fixed
+ * latency on every call, the way a synchronous driver call does. The platform run is sized like
+ * Tomcat's default pool (200 threads); the virtual run is what spring.threads.virtual.enabled uses.
+ * Timings are only reported, as wall-clock results depend on the machine the suite runs on.
+ */
+public class VirtualThreadLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadLoadTest.class);
+    private static final int REQUESTS = 4000;
+    private static final int PLATFORM_THREADS = 200;
+    private static final long LATENCY_MILLIS = 20;
+
+    private static void simulateLatency() throws InterruptedException {
+        Thread.sleep(LATENCY_MILLIS);
+    }
+
+    /**
+     * Mocked MongoService that never connects; each read sleeps for the simulated database latency.
+     */
+    private static MongoService slowMongoService() {
+        MongoService mockService = mock(MongoService.class);
+        when(mockService.streamAll()).thenAnswer(invocation -> {
+            simulateLatency();
+            return Stream.of(JOHN_SMITH);
+        });
+        when(mockService.searchByEntryId(any())).thenAnswer(invocation -> {
+            simulateLatency();
+            return List.of(JOHN_SMITH);
+        });
+        return mockService;
+    }
+
+    private long runLoad(ExecutorService executor, AddressApi api) throws Exception {
+        long ts = System.nanoTime();
+        try (executor) {
+            List<Future<HttpStatus>> futures = new ArrayList<>(REQUESTS);
+            for (int xx = 0; xx < REQUESTS; xx++) {
+                boolean byId = xx % 2 == 0;
+                futures.add(executor.submit(() -> (HttpStatus) (byId
+                        ? api.getEntryById(JOHN_SMITH.entryId())
+                        : api.getAllEntries()).getStatusCode()));
+            }
+            for (Future<HttpStatus> future : futures) {
+                Assertions.assertEquals(HttpStatus.OK, future.get());
+            }
+        }
+        return System.nanoTime() - ts;
+    }
+
+    @Test
+    void runLoadReport() throws Exception {
+        AddressApi api = new AddressApi(slowMongoService());
+
+        // warm up both executors before measuring
+        runLoad(Executors.newFixedThreadPool(PLATFORM_THREADS), api);
+        runLoad(Executors.newVirtualThreadPerTaskExecutor(), api);
+
+        long platformNanos = runLoad(Executors.newFixedThreadPool(PLATFORM_THREADS), api);
+        long virtualNanos = runLoad(Executors.newVirtualThreadPerTaskExecutor(), api);
+
+        logger.info("##### load report: {} requests, {} ms simulated latency #####", REQUESTS, LATENCY_MILLIS);
+        logger.info(String.format("%-8s: %6d ms %8.0f req/s", "Platform",
+                platformNanos / 1_000_000, REQUESTS * 1e9 / platformNanos));
+        logger.info(String.format("%-8s: %6d ms %8.0f req/s", "Virtual",
+                virtualNanos / 1_000_000, REQUESTS * 1e9 / virtualNanos));
+    }
+}
@@ -2,12 +2,26 @@ package com.glenn.address.binary;
 
 import com.glenn.address.domain.Entry;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 public class BinaryValidTest extends TestBase {
     private static final Logger logger = LoggerFactory.getLogger(BinaryValidTest.class);
@@ -71,4 +85,142 @@ public class BinaryValidTest extends TestBase {
             );
         }
     }
+
+    @ParameterizedTest(name = "Stream entries through {0}")
+    @MethodSource("binaryServiceProvider")
+    void testStreamingRoundTrip(Parameters param) throws Exception {
+        logger.info("Testing streaming write and read with {}", param.name());
+        String outputFile = param.outputFile(outputFilePrefix);
+        try (OutputStream out = new FileOutputStream(outputFile)) {
+            Assertions.assertEquals(testEntries.size(), param.tester().writeEntries(testEntries.iterator(), out));
+        }
+
+        // the list reader accepts what the streaming writer produced
+        Assertions.assertTrue(entriesMatch(testEntries, param.tester().readEntries(outputFile)));
+        try (Stream<Entry> stream = param.tester().streamEntries(new FileInputStream(outputFile))) {
+            Assertions.assertTrue(entriesMatch(testEntries, stream.toList()),
+                    String.format("Streaming round trip failed for %s", param.name()));
+        }
+    }
+
+    @ParameterizedTest(name = "Sink and iterate entries through {0}")
+    @MethodSource("binaryServiceProvider")
+    void testSinkAndIterator(Parameters param) throws Exception {
+        logger.info("Testing sink write and iterator read with {}", param.name());
+        String outputFile = param.outputFile(outputFilePrefix);
+        try (OutputStream out = new FileOutputStream(outputFile);
+             EntrySink sink = param.tester().openSink(out)) {
+            testEntries.stream().forEach(sink);
+            Assertions.assertEquals(testEntries.size(), sink.count());
+        }
+
+        List<Entry> readEntries = new ArrayList<>();
+        try (CloseableIterator<Entry> entries = param.tester().iterateEntries(outputFile)) {
+            entries.forEachRemaining(readEntries::add);
+        }
+        Assertions.assertTrue(entriesMatch(testEntries, readEntries),
+                String.format("Sink and iterator round trip failed for %s", param.name()));
+
+        // closing part way through releases the file
+        try (CloseableIterator<Entry> entries = param.tester().iterateEntries(outputFile)) {
+            Assertions.assertEquals(testEntries.getFirst(), entries.next());
+        }
+        try (Stream<Entry> stream = param.tester().streamEntries(outputFile)) {
+            Assertions.assertEquals(testEntries.size(), stream.count());
+        }
+    }
+
+    @ParameterizedTest(name = "Write entries in parallel with {0}")
+    @MethodSource("binaryServiceProvider")
+    void testParallelWrite(Parameters param) throws Exception {
+        logger.info("Testing parallel write with {}", param.name());
+        String serialFile = param.outputFile(outputFilePrefix);
+        String parallelFile = param.inputFile(inputFilePrefix);
+        param.tester().writeEntries(testEntries.iterator(), serialFile);
+        // one thread keeps only two chunks in flight, so the writer waits on the pool as well as draining it
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try (FileChannel channel = FileChannel.open(Path.of(parallelFile),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Assertions.assertEquals(testEntries.size(), param.tester().writeEntriesParallel(testEntries.iterator(), channel, pool));
+        } finally {
+            pool.shutdown();
+        }
+
+        if ("gz".equals(param.extension())) {
+            // concatenated gzip members decompress to the same JSON array
+            try (InputStream serial = new GZIPInputStream(new FileInputStream(serialFile));
+                 InputStream parallel = new GZIPInputStream(new FileInputStream(parallelFile))) {
+                Assertions.assertArrayEquals(serial.readAllBytes(), parallel.readAllBytes());
+            }
+        } else if (!"avrc".equals(param.extension())) {
+            // chunks of bare records concatenate to the serial output; container files each get a random sync marker
+            Assertions.assertArrayEquals(Files.readAllBytes(Path.of(serialFile)), Files.readAllBytes(Path.of(parallelFile)),
+                    String.format("Parallel output differs from serial output for %s", param.name()));
+        }
+        Assertions.assertTrue(entriesMatch(testEntries, param.tester().readEntries(parallelFile)));
+
+        param.tester().writeEntriesParallel(List.<Entry>of().iterator(), parallelFile);
+        Assertions.assertTrue(param.tester().readEntries(parallelFile).isEmpty());
+    }
+
+    @Test
+    void testBsonMappedWindows() throws Exception {
+        logger.info("Testing BSON reads across small mapping windows");
+        // windows smaller than one document force a remap for every document
+        for (long window : List.of(64L, 1000L)) {
+            BsonService service = new BsonService(window);
+            String outputFile = "bson-window-" + outputFilePrefix + ".bson";
+            try {
+                service.writeEntries(testEntries, outputFile);
+                Assertions.assertTrue(entriesMatch(testEntries, service.readEntries(outputFile)),
+                        String.format("Mapped read failed with a %d byte window", window));
+
+                // a document cut short at the end of the file fails the read, as it does for the stream reader
+                try (RandomAccessFile file = new RandomAccessFile(outputFile, "rw")) {
+                    file.setLength(file.length() - 1);
+                }
+                Assertions.assertThrows(RuntimeException.class, () -> service.readEntries(outputFile));
+                try (Stream<Entry> stream = service.streamEntries(new FileInputStream(outputFile))) {
+                    Assertions.assertThrows(RuntimeException.class, stream::toList);
+                }
+
+                // and so do trailing bytes too short to hold a document size
+                service.writeEntries(testEntries, outputFile);
+                Files.write(Path.of(outputFile), new byte[]{1, 2}, StandardOpenOption.APPEND);
+                Assertions.assertThrows(RuntimeException.class, () -> service.readEntries(outputFile));
+            } finally {
+                deleteFile(outputFile);
+            }
+        }
+    }
+
+    @Test
+    void testAvroContainerParallelRead() throws Exception {
+        logger.info("Testing parallel reads of Avro container files");
+        String containerFile = "avro-parallel-" + outputFilePrefix + ".avrc";
+        String rawFile = "avro-parallel-" + outputFilePrefix + ".avro";
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // small blocks give many sync markers to split at
+            AvroService service = new AvroService(1024, 6);
+            AvroService raw = new AvroService();
+            service.writeEntries(testEntries, containerFile);
+            raw.writeEntries(testEntries, rawFile);
+            Assertions.assertTrue(Files.size(Path.of(containerFile)) < Files.size(Path.of(rawFile)),
+                    "Deflated container file should be smaller than bare datums");
+
+            for (long splitBytes : List.of(100L, 4096L, Long.MAX_VALUE / 2)) {
+                Assertions.assertEquals(testEntries, service.readEntriesParallel(containerFile, pool, splitBytes),
+                        String.format("Parallel read failed with %d byte splits", splitBytes));
+            }
+            Assertions.assertEquals(testEntries, service.readEntriesParallel(containerFile));
+            // either service reads either layout
+            Assertions.assertEquals(testEntries, raw.readEntries(containerFile));
+            Assertions.assertEquals(testEntries, service.readEntriesParallel(rawFile, pool));
+        } finally {
+            pool.shutdown();
+            deleteFile(containerFile);
+            deleteFile(rawFile);
+        }
+    }
 }
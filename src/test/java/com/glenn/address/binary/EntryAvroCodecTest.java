@@ -0,0 +1,152 @@
+package com.glenn.address.binary;
+
+import com.glenn.address.domain.*;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test class for EntryAvroCodec.
+ * Checks that it writes the same bytes as the GenericRecord path and reads what that path writes, and
+ * reports throughput and bytes allocated per entry for both paths.
+ */
+public class EntryAvroCodecTest extends TestBase {
+    private static final Logger logger = LoggerFactory.getLogger(EntryAvroCodecTest.class);
+    private static final int ROUNDS = 10;
+
+    private final AvroService avroService = new AvroService();
+    private final com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private interface EntryWrite {
+        void write(Entry entry, BinaryEncoder encoder) throws IOException;
+    }
+
+    private interface EntryRead {
+        Entry read(BinaryDecoder decoder) throws IOException;
+    }
+
+    private byte[] encode(List<Entry> entries, EntryWrite writer) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        for (Entry entry : entries) {
+            writer.write(entry, encoder);
+        }
+        encoder.flush();
+        return out.toByteArray();
+    }
+
+    private List<Entry> decode(byte[] bytes, EntryRead reader) throws IOException {
+        BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(bytes, null);
+        List<Entry> entries = new ArrayList<>();
+        while (!decoder.isEnd()) {
+            entries.add(reader.read(decoder));
+        }
+        return entries;
+    }
+
+    @Test
+    void testWireCompatible() throws Exception {
+        EntryAvroCodec codec = new EntryAvroCodec();
+        List<Entry> entries = new ArrayList<>(testEntries);
+        entries.add(new Entry(null, new Person("Zoë", "Ångström 😀", null, null, null),
+                new Address(null, null, null, null, null, null), null));
+        entries.add(new Entry(-1, new Person("", "broken \uD800 pair", 0, Gender.OTHER, MaritalStatus.WIDOWED),
+                new Address("東京", "", "", "", "", ""), ""));
+
+        byte[] generic = encode(entries, avroService::encodeGeneric);
+        byte[] specific = encode(entries, codec::write);
+        Assertions.assertArrayEquals(generic, specific, "Codec output differs from the GenericRecord path");
+
+        List<Entry> expected = decode(generic, avroService::decodeGeneric);
+        Assertions.assertEquals(expected, decode(generic, codec::read));
+        Assertions.assertEquals(testEntries, expected.subList(0, testEntries.size()));
+    }
+
+    @Test
+    void testRequiredFields() {
+        EntryAvroCodec codec = new EntryAvroCodec();
+        Entry noLastName = new Entry(1, new Person("First", null, 20, null, null),
+                new Address(null, null, null, null, null, null), null);
+        Assertions.assertThrows(NullPointerException.class, () -> encode(List.of(noLastName), codec::write));
+    }
+
+    record Measure(String name, long nanos, long bytes) {
+    }
+
+    private Measure measureWrite(String name, EntryWrite writer) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 * 1024 * 1024);
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        long threadId = Thread.currentThread().threadId();
+        long allocated = threadBean.getThreadAllocatedBytes(threadId);
+        long ts = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            out.reset();
+            for (Entry entry : testEntries) {
+                writer.write(entry, encoder);
+            }
+            encoder.flush();
+        }
+        return new Measure(name, System.nanoTime() - ts, threadBean.getThreadAllocatedBytes(threadId) - allocated);
+    }
+
+    private Measure measureRead(String name, byte[] bytes, EntryRead reader) throws IOException {
+        BinaryDecoder decoder = null;
+        long threadId = Thread.currentThread().threadId();
+        long allocated = threadBean.getThreadAllocatedBytes(threadId);
+        long ts = System.nanoTime();
+        int count = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            decoder = DecoderFactory.get().binaryDecoder(bytes, decoder);
+            while (!decoder.isEnd()) {
+                reader.read(decoder);
+                count++;
+            }
+        }
+        Assertions.assertEquals(testEntries.size() * ROUNDS, count);
+        return new Measure(name, System.nanoTime() - ts, threadBean.getThreadAllocatedBytes(threadId) - allocated);
+    }
+
+    private void report(Measure measure) {
+        long entries = (long) testEntries.size() * ROUNDS;
+        logger.info(String.format("%-14s: %8d entries/s, %6d bytes allocated/entry",
+                measure.name(), entries * 1_000_000_000L / Math.max(1, measure.nanos()), measure.bytes() / entries));
+    }
+
+    @Test
+    void runCodecBenchmark() throws Exception {
+        logger.info("##### runCodecBenchmark #####");
+        Assumptions.assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+        EntryAvroCodec codec = new EntryAvroCodec();
+        byte[] bytes = encode(testEntries, codec::write);
+
+        // warm up both paths before measuring
+        for (int xx = 0; xx < 3; xx++) {
+            measureWrite("generic", avroService::encodeGeneric);
+            measureWrite("codec", codec::write);
+            measureRead("generic", bytes, avroService::decodeGeneric);
+            measureRead("codec", bytes, codec::read);
+        }
+        Measure genericWrite = measureWrite("generic write", avroService::encodeGeneric);
+        Measure codecWrite = measureWrite("codec write", codec::write);
+        Measure genericRead = measureRead("generic read", bytes, avroService::decodeGeneric);
+        Measure codecRead = measureRead("codec read", bytes, codec::read);
+
+        logger.info("##### codec report #####");
+        List.of(genericWrite, codecWrite, genericRead, codecRead).forEach(this::report);
+        Assertions.assertTrue(codecWrite.bytes() < genericWrite.bytes(), "Codec should allocate less when writing");
+        Assertions.assertTrue(codecRead.bytes() < genericRead.bytes(), "Codec should allocate less when reading");
+    }
+}
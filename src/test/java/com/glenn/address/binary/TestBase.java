@@ -21,6 +21,7 @@ public class TestBase {
 
     protected static final List<Parameters> PARAMETERS_LIST = List.of(
             new Parameters(new AvroService(), "Avro", "avro"),
+            new Parameters(new AvroService(AvroService.DEFAULT_BLOCK_BYTES, 6), "AvroFile", "avrc"),
             new Parameters(new BsonService(), "Bson", "bson"),
             new Parameters(new EncodedService(), "Encoded", "addr"),
             new Parameters(new GzipService(), "Gzip", "gz")
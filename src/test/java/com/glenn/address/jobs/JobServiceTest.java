@@ -0,0 +1,120 @@
+package com.glenn.address.jobs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.glenn.address.TestConfig;
+import com.glenn.address.domain.Entry;
+import com.glenn.address.mongo.MongoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for JobService.
+ * Runs export and print jobs against a mocked MongoService and checks their artifacts, cancellation and
+ * rejection once the bounded queue is full.
+ */
+public class JobServiceTest {
+    // a few entries keep the jobs quick; the PDF job renders two entries per page
+    private static final List<Entry> ENTRIES = TestConfig.TEST_ENTRIES.subList(0, 20);
+
+    @TempDir
+    Path directory;
+    MongoService mongoService;
+    JobService jobService;
+
+    @BeforeEach
+    void init() throws Exception {
+        mongoService = mock(MongoService.class);
+        when(mongoService.streamSortedById()).thenAnswer(invocation -> ENTRIES.stream());
+        jobService = new JobService(mongoService, 1, 1, 10, directory.toString());
+    }
+
+    @AfterEach
+    void shutdown() {
+        jobService.shutdown();
+    }
+
+    private JobStatus await(String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (System.nanoTime() < deadline) {
+            JobStatus status = jobService.find(jobId).orElseThrow().status();
+            if (status.state().isFinished()) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        fail("Job " + jobId + " did not finish");
+        return null;
+    }
+
+    @Test
+    void testExportWritesArtifact() throws Exception {
+        JobStatus submitted = jobService.submitExport(false);
+        assertEquals(JobType.EXPORT, submitted.type());
+
+        JobStatus status = await(submitted.jobId());
+        assertEquals(JobState.SUCCEEDED, status.state());
+        assertTrue(status.downloadable());
+        assertEquals(ENTRIES.size(), status.entriesProcessed());
+
+        Path artifact = jobService.find(submitted.jobId()).orElseThrow().getArtifact();
+        assertEquals(Files.size(artifact), status.bytesWritten());
+        List<Entry> exported = List.of(new ObjectMapper().readValue(artifact.toFile(), Entry[].class));
+        assertEquals(ENTRIES, exported);
+    }
+
+    @Test
+    void testPrintWritesPdf() throws Exception {
+        JobStatus status = await(jobService.submitPrint().jobId());
+        assertEquals(JobState.SUCCEEDED, status.state());
+        assertEquals(ENTRIES.size(), status.entriesProcessed());
+
+        Path artifact = jobService.find(status.jobId()).orElseThrow().getArtifact();
+        assertEquals("%PDF", new String(Files.readAllBytes(artifact), 0, 4));
+
+        assertTrue(jobService.remove(status.jobId()));
+        assertFalse(Files.exists(artifact));
+        assertTrue(jobService.find(status.jobId()).isEmpty());
+    }
+
+    @Test
+    void testCancelQueuedAndRejectWhenFull() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // the print job blocks on its cursor; later calls stream straight away
+        when(mongoService.streamSortedById()).thenAnswer(invocation -> {
+            running.countDown();
+            release.await();
+            return ENTRIES.stream();
+        }).thenAnswer(invocation -> ENTRIES.stream());
+
+        // one job running, one queued, and no room for a third
+        JobStatus blocking = jobService.submitPrint();
+        assertTrue(running.await(10, TimeUnit.SECONDS));
+        JobStatus queued = jobService.submitExport(true);
+        assertThrows(RejectedExecutionException.class, () -> jobService.submitExport(true));
+
+        JobStatus cancelled = jobService.cancel(queued.jobId()).orElseThrow();
+        assertEquals(JobState.CANCELLED, cancelled.state());
+        assertFalse(jobService.remove(blocking.jobId()));
+
+        // cancelling the queued job freed its slot
+        JobStatus next = jobService.submitExport(true);
+        release.countDown();
+        assertEquals(JobState.SUCCEEDED, await(blocking.jobId()).state());
+        assertEquals(JobState.SUCCEEDED, await(next.jobId()).state());
+        verify(mongoService, times(2)).streamSortedById();
+        assertTrue(jobService.cancel("missing").isEmpty());
+    }
+}
@@ -0,0 +1,62 @@
+package com.glenn.address.mongo;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ReadPreference;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test class for ConnectionPoolStats and the client settings built by DatabaseConfig.
+ */
+public class ConnectionPoolStatsTest {
+    private final ServerId serverId = new ServerId(new ClusterId(), new ServerAddress());
+    private final ConnectionId connectionId = new ConnectionId(serverId);
+
+    @Test
+    void testCounters() {
+        ConnectionPoolStats stats = new ConnectionPoolStats();
+        stats.connectionCreated(new ConnectionCreatedEvent(connectionId));
+        stats.connectionCreated(new ConnectionCreatedEvent(connectionId));
+
+        stats.connectionCheckOutStarted(new ConnectionCheckOutStartedEvent(serverId, 1));
+        stats.connectionCheckOutStarted(new ConnectionCheckOutStartedEvent(serverId, 2));
+        stats.connectionCheckOutStarted(new ConnectionCheckOutStartedEvent(serverId, 3));
+        ConnectionPoolStats.Snapshot busy = stats.snapshot();
+        Assertions.assertEquals(3, busy.waiting());
+
+        stats.connectionCheckedOut(new ConnectionCheckedOutEvent(connectionId, 1, TimeUnit.MICROSECONDS.toNanos(100)));
+        stats.connectionCheckedOut(new ConnectionCheckedOutEvent(connectionId, 2, TimeUnit.MICROSECONDS.toNanos(300)));
+        stats.connectionCheckOutFailed(new ConnectionCheckOutFailedEvent(serverId, 3,
+                ConnectionCheckOutFailedEvent.Reason.TIMEOUT, TimeUnit.MILLISECONDS.toNanos(2000)));
+        ConnectionPoolStats.Snapshot saturated = stats.snapshot();
+        Assertions.assertEquals(new ConnectionPoolStats.Snapshot(2, 2, 0, 2, 1, 1, 200, 300), saturated);
+
+        stats.connectionCheckedIn(new ConnectionCheckedInEvent(connectionId, 1));
+        stats.connectionClosed(new ConnectionClosedEvent(connectionId, ConnectionClosedEvent.Reason.IDLE));
+        ConnectionPoolStats.Snapshot idle = stats.snapshot();
+        Assertions.assertEquals(1, idle.open());
+        Assertions.assertEquals(1, idle.inUse());
+    }
+
+    @Test
+    void testClientSettings() {
+        DatabaseConfig config = new DatabaseConfig();
+        MongoClientSettings settings = config.clientSettings().build();
+        Assertions.assertEquals(config.getPoolMinSize(), settings.getConnectionPoolSettings().getMinSize());
+        Assertions.assertEquals(config.getPoolMaxSize(), settings.getConnectionPoolSettings().getMaxSize());
+        Assertions.assertEquals(config.getCompressors().size(), settings.getCompressorList().size());
+        Assertions.assertEquals(ReadPreference.valueOf(config.getReadPreference()), settings.getReadPreference());
+    }
+}
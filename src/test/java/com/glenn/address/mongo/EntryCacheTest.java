@@ -0,0 +1,150 @@
+package com.glenn.address.mongo;
+
+import com.glenn.address.domain.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.glenn.address.TestConfig.JOHN_SMITH;
+
+/**
+ * Test class for EntryCache.
+ * Verifies read-through loading, precise invalidation on writes and deletes, and reports hot by-id read latency.
+ */
+public class EntryCacheTest {
+    private static final Logger logger = LoggerFactory.getLogger(EntryCacheTest.class);
+    private static final Entry JANE_DOE = new Entry(99902,
+            new Person("Jane", "Doe", 41, Gender.FEMALE, MaritalStatus.MARRIED),
+            new Address("9 Elm St", "Reno", "NV", "12345", "jane@example.com", "888-555-9876"), null);
+
+    private final EntryCache cache = new EntryCache(100, 100, Duration.ofMinutes(5));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private List<Entry> load(List<Entry> result) {
+        loads.incrementAndGet();
+        return result;
+    }
+
+    @Test
+    void testReadThrough() {
+        Assertions.assertEquals(List.of(JOHN_SMITH), cache.byId(JOHN_SMITH.entryId(), id -> load(List.of(JOHN_SMITH))));
+        Assertions.assertEquals(List.of(JOHN_SMITH), cache.byId(JOHN_SMITH.entryId(), id -> load(List.of())));
+        Assertions.assertEquals(1, loads.get());
+        // search keys are case-insensitive, like the regex the query uses
+        cache.byName(null, "Smi", query -> load(List.of(JOHN_SMITH)));
+        cache.byName(null, "sMI", query -> load(List.of()));
+        Assertions.assertEquals(2, loads.get());
+
+        EntryCache.Snapshot snapshot = cache.snapshot();
+        Assertions.assertEquals(1, snapshot.byId().hits());
+        Assertions.assertEquals(1, snapshot.byName().hits());
+    }
+
+    @Test
+    void testLoaderFailureIsNotCached() {
+        Assertions.assertThrows(IllegalStateException.class, () -> cache.byId(1, id -> {
+            throw new IllegalStateException("database down");
+        }));
+        Assertions.assertEquals(List.of(JOHN_SMITH), cache.byId(1, id -> load(List.of(JOHN_SMITH))));
+    }
+
+    @Test
+    void testWriteInvalidatesMatchingQueries() {
+        cache.byId(JANE_DOE.entryId(), id -> load(List.of()));
+        cache.byName(null, "do", query -> load(List.of()));
+        cache.byName("jo", "smith", query -> load(List.of(JOHN_SMITH)));
+        cache.written(JANE_DOE);
+
+        // the empty by-id result and the "do" search are stale now; the Smith search is not
+        cache.byId(JANE_DOE.entryId(), id -> load(List.of(JANE_DOE)));
+        cache.byName(null, "do", query -> load(List.of(JANE_DOE)));
+        cache.byName("jo", "smith", query -> load(List.of()));
+        Assertions.assertEquals(5, loads.get());
+    }
+
+    @Test
+    void testDeleteInvalidatesQueriesContainingEntry() {
+        cache.byId(JOHN_SMITH.entryId(), id -> load(List.of(JOHN_SMITH)));
+        cache.byName(null, "s", query -> load(List.of(JOHN_SMITH)));
+        cache.byName(null, "d", query -> load(List.of(JANE_DOE)));
+        cache.removed(JOHN_SMITH.entryId());
+
+        Assertions.assertEquals(List.of(), cache.byId(JOHN_SMITH.entryId(), id -> load(List.of())));
+        Assertions.assertEquals(List.of(), cache.byName(null, "s", query -> load(List.of())));
+        Assertions.assertEquals(List.of(JANE_DOE), cache.byName(null, "d", query -> load(List.of())));
+        Assertions.assertEquals(5, loads.get());
+    }
+
+    @Test
+    void testRangeDeleteInvalidatesIdsInRange() {
+        cache.byId(JOHN_SMITH.entryId(), id -> load(List.of(JOHN_SMITH)));
+        cache.byId(JANE_DOE.entryId(), id -> load(List.of(JANE_DOE)));
+        cache.byName(null, "s", query -> load(List.of(JOHN_SMITH)));
+        cache.byName(null, "d", query -> load(List.of(JANE_DOE)));
+        cache.removedRange(JOHN_SMITH.entryId(), JOHN_SMITH.entryId());
+
+        Assertions.assertEquals(List.of(), cache.byId(JOHN_SMITH.entryId(), id -> load(List.of())));
+        Assertions.assertEquals(List.of(JANE_DOE), cache.byId(JANE_DOE.entryId(), id -> load(List.of())));
+        Assertions.assertEquals(List.of(), cache.byName(null, "s", query -> load(List.of())));
+        Assertions.assertEquals(List.of(JANE_DOE), cache.byName(null, "d", query -> load(List.of())));
+        Assertions.assertEquals(6, loads.get());
+    }
+
+    @Test
+    void testWriteDuringLoadIsNotCached() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        // the search reads the collection before Jane Doe is written, and publishes after the write's invalidation
+        CompletableFuture<List<Entry>> search = CompletableFuture.supplyAsync(() ->
+                cache.byName(null, "do", query -> {
+                    loading.countDown();
+                    try {
+                        written.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return load(List.of());
+                }));
+        Assertions.assertTrue(loading.await(5, TimeUnit.SECONDS));
+        cache.written(JANE_DOE);
+        written.countDown();
+        Assertions.assertEquals(List.of(), search.get(5, TimeUnit.SECONDS));
+
+        Assertions.assertEquals(List.of(JANE_DOE), cache.byName(null, "do", query -> load(List.of(JANE_DOE))));
+        Assertions.assertEquals(2, loads.get());
+        Assertions.assertEquals(List.of(JANE_DOE), cache.byName(null, "do", query -> load(List.of())));
+    }
+
+    @Test
+    void testLargeBulkWriteClearsQueries() {
+        cache.byName(null, "zz", query -> load(List.of()));
+        List<Entry> batch = new ArrayList<>();
+        for (int xx = 0; xx <= EntryCache.QUERY_SCAN_LIMIT; xx++) {
+            batch.add(new Entry(xx, JANE_DOE.person(), JANE_DOE.address(), null));
+        }
+        cache.written(batch);
+        Assertions.assertEquals(0, cache.snapshot().byName().size());
+    }
+
+    @Test
+    void runHotReadReport() {
+        int reads = 1_000_000;
+        cache.byId(JOHN_SMITH.entryId(), id -> load(List.of(JOHN_SMITH)));
+        long ts = System.nanoTime();
+        for (int xx = 0; xx < reads; xx++) {
+            cache.byId(JOHN_SMITH.entryId(), id -> load(List.of()));
+        }
+        long nanos = System.nanoTime() - ts;
+        logger.info("##### hot by-id cache read: {} ns/read #####", nanos / reads);
+        Assertions.assertEquals(1, loads.get());
+    }
+}
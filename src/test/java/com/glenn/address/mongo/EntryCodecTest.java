@@ -0,0 +1,145 @@
+package com.glenn.address.mongo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.glenn.address.GenerateData;
+import com.glenn.address.domain.*;
+import org.bson.BsonBinaryReader;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test class for EntryCodec.
+ * Verifies round trips, compatibility with documents written through the old Jackson path,
+ * and reports allocations per document for the codec versus the toJson/Jackson round trip.
+ */
+public class EntryCodecTest {
+    private static final Logger logger = LoggerFactory.getLogger(EntryCodecTest.class);
+    private static final int DOCUMENT_COUNT = 2000;
+    private static final int ROUNDS = 5;
+
+    private final EntryCodec codec = new EntryCodec();
+    private final DocumentCodec documentCodec = new DocumentCodec();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DecoderContext decoderContext = DecoderContext.builder().build();
+    private final List<Entry> entries = new ArrayList<>();
+    private final List<byte[]> encoded = new ArrayList<>();
+
+    @BeforeEach
+    void init() {
+        GenerateData generator = new GenerateData();
+        for (int xx = 0; xx < DOCUMENT_COUNT; xx++) {
+            Entry entry = generator.createEntry();
+            entries.add(entry);
+            encoded.add(jacksonDocumentBytes(entry));
+        }
+    }
+
+    /**
+     * Encode an entry the way the previous implementation stored it: Jackson JSON parsed into a Document,
+     * plus the _id the server adds on insert.
+     */
+    private byte[] jacksonDocumentBytes(Entry entry) {
+        try {
+            Document doc = new Document("_id", new ObjectId());
+            doc.putAll(Document.parse(objectMapper.writeValueAsString(entry)));
+            return new RawBsonDocument(doc, documentCodec).getByteBuffer().array();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private Entry decodeWithCodec(byte[] bytes) {
+        return codec.decode(new BsonBinaryReader(ByteBuffer.wrap(bytes)), decoderContext);
+    }
+
+    private Entry decodeWithJackson(byte[] bytes) throws Exception {
+        Document doc = documentCodec.decode(new BsonBinaryReader(ByteBuffer.wrap(bytes)), decoderContext);
+        doc.remove("_id");
+        return objectMapper.readValue(doc.toJson(), Entry.class);
+    }
+
+    @Test
+    void testRoundTrip() {
+        for (Entry entry : entries) {
+            RawBsonDocument raw = new RawBsonDocument(entry, codec);
+            Assertions.assertEquals(entry, decodeWithCodec(raw.getByteBuffer().array()));
+        }
+    }
+
+    @Test
+    void testNullFields() {
+        Entry sparse = new Entry(7, new Person("Ann", null, null, null, null),
+                new Address(null, null, null, null, null, null), null);
+        RawBsonDocument raw = new RawBsonDocument(sparse, codec);
+        Assertions.assertEquals(sparse, decodeWithCodec(raw.getByteBuffer().array()));
+    }
+
+    @Test
+    void testWritesSearchKeys() {
+        Entry entry = new Entry(8, new Person("Zoë", "Ångström", null, null, null), null, null);
+        RawBsonDocument raw = new RawBsonDocument(entry, codec);
+        Assertions.assertEquals("zoe", raw.getDocument("search").getString("firstName").getValue());
+        Assertions.assertEquals("angstrom", raw.getDocument("search").getString("lastName").getValue());
+        Assertions.assertEquals(entry, decodeWithCodec(raw.getByteBuffer().array()));
+    }
+
+    @Test
+    void testReadsJacksonDocuments() {
+        for (int xx = 0; xx < entries.size(); xx++) {
+            Assertions.assertEquals(entries.get(xx), decodeWithCodec(encoded.get(xx)));
+        }
+    }
+
+    @Test
+    void runAllocationReport() throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        // warm up both paths before measuring
+        for (byte[] bytes : encoded) {
+            decodeWithCodec(bytes);
+            decodeWithJackson(bytes);
+        }
+
+        long codecBytes = 0;
+        long jacksonBytes = 0;
+        long codecNanos = 0;
+        long jacksonNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            long ts = System.nanoTime();
+            for (byte[] bytes : encoded) {
+                decodeWithCodec(bytes);
+            }
+            codecNanos += System.nanoTime() - ts;
+            codecBytes += threads.getThreadAllocatedBytes(threadId) - before;
+
+            before = threads.getThreadAllocatedBytes(threadId);
+            ts = System.nanoTime();
+            for (byte[] bytes : encoded) {
+                decodeWithJackson(bytes);
+            }
+            jacksonNanos += System.nanoTime() - ts;
+            jacksonBytes += threads.getThreadAllocatedBytes(threadId) - before;
+        }
+
+        long documents = (long) DOCUMENT_COUNT * ROUNDS;
+        logger.info("##### decode allocation report #####");
+        logger.info(String.format("%-8s: %6d bytes/doc %6d ns/doc", "Codec", codecBytes / documents, codecNanos / documents));
+        logger.info(String.format("%-8s: %6d bytes/doc %6d ns/doc", "Jackson", jacksonBytes / documents, jacksonNanos / documents));
+        Assertions.assertTrue(codecBytes < jacksonBytes, "Codec should allocate less than the JSON round trip");
+    }
+}
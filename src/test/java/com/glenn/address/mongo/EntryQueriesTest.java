@@ -0,0 +1,47 @@
+package com.glenn.address.mongo;
+
+import com.glenn.address.domain.BatchDeleteResult;
+import com.glenn.address.domain.BatchGetResult;
+import com.glenn.address.domain.Entry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static com.glenn.address.TestConfig.JOHN_SMITH;
+
+/**
+ * Test class for the batch helpers in EntryQueries.
+ */
+public class EntryQueriesTest {
+
+    @Test
+    void testCheckBatch() {
+        Assertions.assertEquals(List.of(3, 1, 2), EntryQueries.checkBatch(List.of(3, 1, 3, 2, 1)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> EntryQueries.checkBatch(null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> EntryQueries.checkBatch(List.of()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> EntryQueries.checkBatch(Arrays.asList(1, null)));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> EntryQueries.checkBatch(Collections.nCopies(EntryQueries.MAX_BATCH_SIZE + 1, 1)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> EntryQueries.checkRange(5, 4));
+    }
+
+    @Test
+    void testToBatchKeepsRequestOrder() {
+        Entry other = new Entry(7, JOHN_SMITH.person(), null, null);
+        BatchGetResult result = EntryQueries.toBatch(List.of(7, 8, JOHN_SMITH.entryId()),
+                Map.of(JOHN_SMITH.entryId(), List.of(JOHN_SMITH), 7, List.of(other)));
+        Assertions.assertEquals(List.of(other, JOHN_SMITH), result.entries());
+        Assertions.assertEquals(List.of(7, JOHN_SMITH.entryId()), result.found());
+        Assertions.assertEquals(List.of(8), result.missing());
+    }
+
+    @Test
+    void testToDeleteResult() {
+        BatchDeleteResult result = EntryQueries.toDeleteResult(List.of(1, 2, 3), List.of(3, 1), 2);
+        Assertions.assertEquals(new BatchDeleteResult(2, List.of(1, 3), List.of(2)), result);
+    }
+}
@@ -0,0 +1,107 @@
+package com.glenn.address.mongo;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonNull;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test class for EntryUpdates, the translation of partial entries into $set pipeline updates.
+ */
+public class EntryUpdatesTest {
+
+    private static BsonDocument setOf(Map<String, Object> patch) {
+        List<Bson> pipeline = EntryUpdates.fromPatch(7, patch);
+        Assertions.assertEquals(1, pipeline.size());
+        return pipeline.getFirst().toBsonDocument().getDocument("$set");
+    }
+
+    /**
+     * The literal values merged into a subdocument, checking they are merged over the stored one
+     */
+    private static BsonDocument merged(BsonDocument set, String parent) {
+        BsonArray operands = set.getDocument(parent).getArray("$mergeObjects");
+        Assertions.assertEquals(new BsonString("$" + parent), operands.get(0));
+        return operands.get(1).asDocument();
+    }
+
+    private static BsonValue literal(BsonDocument values, String name) {
+        return values.getDocument(name).get("$literal");
+    }
+
+    @Test
+    void testSetsOnlyGivenFields() {
+        BsonDocument set = setOf(Map.of(
+                "person", Map.of("age", 31, "gender", "FEMALE"),
+                "address", Map.of("city", "Reno"),
+                "notes", "moved"));
+        Assertions.assertEquals(3, set.size());
+        BsonDocument person = merged(set, "person");
+        Assertions.assertEquals(2, person.size());
+        Assertions.assertEquals(new BsonInt32(31), literal(person, "age"));
+        Assertions.assertEquals(new BsonString("FEMALE"), literal(person, "gender"));
+        Assertions.assertEquals(new BsonString("Reno"), literal(merged(set, "address"), "city"));
+        Assertions.assertEquals(new BsonString("moved"), set.getDocument("notes").get("$literal"));
+    }
+
+    @Test
+    void testMergesIntoNullParent() {
+        // {"person": {"age": 31}} on an entry stored with "person": null; a dotted "person.age" path
+        // cannot be created inside null, but $mergeObjects ignores a null operand and builds the subdocument
+        BsonDocument set = setOf(Map.of("person", Map.of("age", 31)));
+        BsonDocument person = merged(set, "person");
+        Assertions.assertEquals(new BsonInt32(31), literal(person, "age"));
+        Assertions.assertTrue(set.keySet().stream().noneMatch(name -> name.contains(".")),
+                "No dotted paths into a parent that may be null");
+    }
+
+    @Test
+    void testNameChangeUpdatesSearchKeys() {
+        BsonDocument set = setOf(Map.of("person", Map.of("lastName", "Ångström")));
+        Assertions.assertEquals(new BsonString("Ångström"), literal(merged(set, "person"), "lastName"));
+        BsonDocument search = merged(set, "search");
+        Assertions.assertEquals(new BsonString("angstrom"), literal(search, "lastName"));
+        Assertions.assertFalse(search.containsKey("firstName"));
+    }
+
+    @Test
+    void testNullClearsField() {
+        Map<String, Object> address = new HashMap<>();
+        address.put("phone", null);
+        BsonDocument set = setOf(Map.of("address", address, "entryId", 7));
+        Assertions.assertEquals(BsonNull.VALUE, literal(merged(set, "address"), "phone"));
+        Assertions.assertEquals(1, set.size());
+    }
+
+    @Test
+    void testValuesAreLiterals() {
+        BsonDocument set = setOf(Map.of("address", Map.of("street", "$notes")));
+        Assertions.assertEquals(new BsonString("$notes"), literal(merged(set, "address"), "street"));
+    }
+
+    @Test
+    void testRejectsInvalidPatches() {
+        List<Map<String, Object>> invalid = List.of(
+                Map.of(),
+                Map.of("entryId", 8),
+                Map.of("unknown", "x"),
+                Map.of("person", "x"),
+                Map.of("person", Map.of("nickname", "x")),
+                Map.of("person", Map.of("age", "thirty")),
+                Map.of("person", Map.of("gender", "UNKNOWN")),
+                Map.of("address", Map.of("zip", 12345)));
+        for (Map<String, Object> patch : invalid) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> EntryUpdates.fromPatch(7, patch),
+                    patch::toString);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.glenn.address.mongo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.glenn.address.GenerateData;
+import com.glenn.address.domain.Entry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Test class for FileDataUtil.
+ * Verifies the streaming writer and reader round trip entries, keep the file layout, and reject malformed files.
+ */
+public class FileDataUtilTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testStreamMatchesWrittenEntries() {
+        GenerateData generator = new GenerateData();
+        List<Entry> entries = new ArrayList<>();
+        for (int xx = 0; xx < 500; xx++) {
+            entries.add(generator.createEntry());
+        }
+        FileDataUtil fileUtil = new FileDataUtil(tempDir.resolve("entries.json").toString());
+        fileUtil.writeData(entries);
+
+        try (Stream<Entry> stream = fileUtil.streamData()) {
+            Assertions.assertEquals(entries, stream.toList());
+        }
+        Assertions.assertEquals(entries, fileUtil.readData());
+    }
+
+    @Test
+    void testStreamingWriteKeepsPrettyLayout() throws Exception {
+        GenerateData generator = new GenerateData();
+        List<Entry> entries = List.of(generator.createEntry(), generator.createEntry());
+        Path pretty = tempDir.resolve("pretty.json");
+        Path compact = tempDir.resolve("compact.json");
+
+        Assertions.assertEquals(2, new FileDataUtil(pretty.toString()).writeData(entries.stream(), false));
+        new FileDataUtil(compact.toString()).writeData(entries.stream(), true);
+
+        ObjectMapper mapper = new ObjectMapper();
+        Assertions.assertEquals(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(entries), Files.readString(pretty));
+        Assertions.assertEquals(mapper.writeValueAsString(entries), Files.readString(compact));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            Assertions.assertEquals(2, files.count(), "No temporary files should be left behind");
+        }
+    }
+
+    @Test
+    void testFailedWriteKeepsExistingFile() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("existing.json"), "[ ]");
+        Stream<Entry> failing = Stream.generate(() -> {
+            throw new IllegalStateException("cursor failed");
+        });
+        Assertions.assertThrows(IllegalStateException.class, () -> new FileDataUtil(file.toString()).writeData(failing, true));
+        Assertions.assertEquals("[ ]", Files.readString(file));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            Assertions.assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void testEmptyArray() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("empty.json"), "[ ]");
+        try (Stream<Entry> stream = new FileDataUtil(file.toString()).streamData()) {
+            Assertions.assertEquals(0, stream.count());
+        }
+    }
+
+    @Test
+    void testMalformedFiles() throws Exception {
+        Path notArray = Files.writeString(tempDir.resolve("object.json"), "{\"entryId\": 1}");
+        Assertions.assertThrows(UncheckedIOException.class, () -> new FileDataUtil(notArray.toString()).streamData());
+
+        Path badElement = Files.writeString(tempDir.resolve("bad.json"), "[{\"entryId\": 1}, 2]");
+        try (Stream<Entry> stream = new FileDataUtil(badElement.toString()).streamData()) {
+            Assertions.assertThrows(UncheckedIOException.class, stream::toList);
+        }
+
+        Path missing = tempDir.resolve("missing.json");
+        Assertions.assertThrows(UncheckedIOException.class, () -> new FileDataUtil(missing.toString()).streamData());
+    }
+}
@@ -0,0 +1,115 @@
+package com.glenn.address.mongo;
+
+import com.glenn.address.GenerateData;
+import com.glenn.address.domain.Entry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test class for NameIndex.
+ * Checks prefix searches against a brute-force scan and reports typeahead search latency.
+ */
+public class NameIndexTest {
+    private static final Logger logger = LoggerFactory.getLogger(NameIndexTest.class);
+    private static final int ENTRY_COUNT = 100_000;
+
+    private static int[] sorted(int[] ids) {
+        int[] copy = ids.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    @Test
+    void testAddRemoveSearch() {
+        NameIndex index = new NameIndex();
+        index.add(1, "John", "Smith");
+        index.add(2, "Jane", "Smithers");
+        index.add(3, "Zoë", "Smith");
+        index.add(4, "Ann", "Jones");
+        // a replayed duplicate ID keeps its original name
+        index.add(1, "Other", "Person");
+
+        Assertions.assertArrayEquals(new int[]{1, 3, 2}, index.searchByLastName("SMI"));
+        Assertions.assertArrayEquals(new int[]{1, 2}, index.searchByFirstAndLastName("j", "smith"));
+        Assertions.assertArrayEquals(new int[]{3}, index.searchByFirstAndLastName("zoe", "smith"));
+        Assertions.assertArrayEquals(new int[0], index.searchByLastName("person"));
+
+        index.remove(1);
+        Assertions.assertArrayEquals(new int[]{3, 2}, index.searchByLastName("smith"));
+        Assertions.assertEquals(3, index.size());
+    }
+
+    @Test
+    void testRemoveRange() {
+        NameIndex index = new NameIndex();
+        for (int id = 1; id <= 10; id++) {
+            index.add(id, "John", "Smith");
+        }
+        index.removeRange(3, 8);
+        Assertions.assertArrayEquals(new int[]{1, 2, 9, 10}, sorted(index.searchByLastName("smith")));
+        Assertions.assertEquals(4, index.size());
+    }
+
+    @Test
+    void testAddAllIndexesBatch() {
+        NameIndex index = new NameIndex();
+        index.add(1, "John", "Smith");
+        GenerateData generator = new GenerateData();
+        Entry entry = generator.createEntry();
+        index.addAll(List.of(new Entry(1, entry.person(), entry.address(), null),
+                new Entry(2, entry.person(), entry.address(), null),
+                new Entry(null, entry.person(), entry.address(), null)));
+        Assertions.assertArrayEquals(new int[]{1}, index.searchByLastName("smith"));
+        Assertions.assertEquals(2, index.size());
+    }
+
+    @Test
+    void runTypeaheadReport() {
+        GenerateData generator = new GenerateData();
+        NameIndex index = new NameIndex();
+        List<Entry> entries = new ArrayList<>(ENTRY_COUNT);
+        for (int xx = 0; xx < ENTRY_COUNT; xx++) {
+            Entry entry = generator.createEntry();
+            entries.add(entry);
+            index.add(xx, entry.person().firstName(), entry.person().lastName());
+        }
+
+        // compare against a scan for prefixes of real names, as typed one key at a time
+        List<String> prefixes = new ArrayList<>();
+        for (int xx = 0; xx < 200; xx++) {
+            String lastName = entries.get(xx * 37).person().lastName();
+            for (int len = 1; len <= Math.min(4, lastName.length()); len++) {
+                prefixes.add(lastName.substring(0, len));
+            }
+        }
+        for (String prefix : prefixes.subList(0, 20)) {
+            String key = NameKey.normalize(prefix);
+            int[] expected = new int[ENTRY_COUNT];
+            int count = 0;
+            for (int xx = 0; xx < ENTRY_COUNT; xx++) {
+                if (NameKey.normalize(entries.get(xx).person().lastName()).startsWith(key)) {
+                    expected[count++] = xx;
+                }
+            }
+            Assertions.assertArrayEquals(Arrays.copyOf(expected, count), sorted(index.searchByLastName(prefix)));
+        }
+
+        long hits = 0;
+        long ts = System.nanoTime();
+        for (int round = 0; round < 5; round++) {
+            for (String prefix : prefixes) {
+                hits += index.searchByLastName(prefix).length;
+            }
+        }
+        long nanos = System.nanoTime() - ts;
+        int searches = prefixes.size() * 5;
+        logger.info("##### name index: {} entries, {} searches, {} us/search, {} ids/search #####",
+                ENTRY_COUNT, searches, nanos / searches / 1000, hits / searches);
+    }
+}
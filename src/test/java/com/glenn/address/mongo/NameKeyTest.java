@@ -0,0 +1,40 @@
+package com.glenn.address.mongo;
+
+import org.bson.BsonDocument;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for NameKey normalization and the prefix range filters built from it.
+ */
+public class NameKeyTest {
+
+    @Test
+    void testNormalize() {
+        Assertions.assertEquals("zoe", NameKey.normalize("Zoë"));
+        Assertions.assertEquals("zoe", NameKey.normalize(" ZOE "));
+        Assertions.assertEquals("muller", NameKey.normalize("Müller"));
+        Assertions.assertEquals("o'brien", NameKey.normalize("O'Brien"));
+        Assertions.assertNull(NameKey.normalize(null));
+    }
+
+    @Test
+    void testPrefixEnd() {
+        Assertions.assertEquals("smiu", NameKey.prefixEnd("smit"));
+        Assertions.assertEquals("b", NameKey.prefixEnd("a"));
+        Assertions.assertNull(NameKey.prefixEnd(""));
+        // the successor of U+D7FF skips the surrogate range
+        Assertions.assertEquals("\uE000", NameKey.prefixEnd("\uD7FF"));
+        String maximal = new String(Character.toChars(Character.MAX_CODE_POINT));
+        Assertions.assertEquals("b", NameKey.prefixEnd("a" + maximal));
+    }
+
+    @Test
+    void testFilterIsLiteralRange() {
+        Bson filter = EntryQueries.byLastName("Sm.*");
+        BsonDocument doc = filter.toBsonDocument();
+        Assertions.assertEquals(BsonDocument.parse(
+                "{$and: [{'search.lastName': {$gte: 'sm.*'}}, {'search.lastName': {$lt: 'sm.+'}}]}"), doc);
+    }
+}
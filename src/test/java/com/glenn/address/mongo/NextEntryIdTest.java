@@ -0,0 +1,38 @@
+package com.glenn.address.mongo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for NextEntryId block reservation.
+ * Verifies that IDs are handed out from reserved blocks and a new block is reserved only when one runs out.
+ */
+public class NextEntryIdTest {
+
+    @Test
+    void testHandsOutReservedBlocks() {
+        MongoService mongoService = mock(MongoService.class);
+        when(mongoService.reserveEntryIds(3)).thenReturn(10, 50);
+
+        NextEntryId nextEntryId = new NextEntryId(mongoService, 3);
+        assertEquals(10, nextEntryId.next());
+        assertEquals(11, nextEntryId.next());
+        assertEquals(12, nextEntryId.next());
+        assertEquals(50, nextEntryId.next());
+        verify(mongoService, times(2)).reserveEntryIds(3);
+    }
+
+    @Test
+    void testSingleBlockForKnownSize() {
+        MongoService mongoService = mock(MongoService.class);
+        when(mongoService.reserveEntryIds(100)).thenReturn(1);
+
+        NextEntryId nextEntryId = new NextEntryId(mongoService, 100);
+        for (int expected = 1; expected <= 100; expected++) {
+            assertEquals(expected, nextEntryId.next());
+        }
+        verify(mongoService, times(1)).reserveEntryIds(anyInt());
+    }
+}
@@ -0,0 +1,46 @@
+package com.glenn.address.mongo;
+
+import com.glenn.address.domain.*;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the opaque keyset pagination token.
+ * Verifies round trips for both sort orders and rejection of foreign or malformed tokens.
+ */
+public class PageTokenTest {
+
+    private static final Entry ENTRY = new Entry(
+            42,
+            new Person("Ann", "O:Brien", 30, Gender.FEMALE, MaritalStatus.SINGLE),
+            new Address("1 Main St", "Reno", "NV", "12345", "ann@example.com", "5551234"),
+            null
+    );
+
+    @Test
+    void testIdTokenRoundTrip() {
+        String token = PageToken.after(PageToken.Sort.ID, ENTRY).encode();
+        PageToken decoded = PageToken.decode(token, PageToken.Sort.ID);
+        assertEquals(42, decoded.entryId());
+        assertNull(decoded.lastName());
+    }
+
+    @Test
+    void testLastNameTokenRoundTrip() {
+        String token = PageToken.after(PageToken.Sort.LAST_NAME, ENTRY).encode();
+        PageToken decoded = PageToken.decode(token, PageToken.Sort.LAST_NAME);
+        assertEquals(42, decoded.entryId());
+        assertEquals("O:Brien", decoded.lastName());
+
+        PageToken noName = new PageToken(PageToken.Sort.LAST_NAME, null, 7);
+        assertNull(PageToken.decode(noName.encode(), PageToken.Sort.LAST_NAME).lastName());
+    }
+
+    @Test
+    void testRejectsBadTokens() {
+        String idToken = PageToken.after(PageToken.Sort.ID, ENTRY).encode();
+        assertThrows(IllegalArgumentException.class, () -> PageToken.decode(idToken, PageToken.Sort.LAST_NAME));
+        assertThrows(IllegalArgumentException.class, () -> PageToken.decode("not a token!", PageToken.Sort.ID));
+    }
+}
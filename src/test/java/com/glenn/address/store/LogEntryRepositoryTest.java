@@ -0,0 +1,247 @@
+package com.glenn.address.store;
+
+import com.glenn.address.GenerateData;
+import com.glenn.address.domain.Address;
+import com.glenn.address.domain.Entry;
+import com.glenn.address.domain.Gender;
+import com.glenn.address.domain.MaritalStatus;
+import com.glenn.address.domain.Person;
+import com.glenn.address.mongo.BulkWriteSummary;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Test class for LogEntryRepository.
+ * Checks saves, searches and deletes, and that reopening the store recovers the same state after a clean close,
+ * a torn or corrupt final record, and a compaction cut short at each step.
+ */
+public class LogEntryRepositoryTest {
+    private static final long SEGMENT_BYTES = 16 * 1024;
+
+    @TempDir
+    Path directory;
+
+    private LogEntryRepository open() throws IOException {
+        return new LogEntryRepository(directory, SEGMENT_BYTES, 0.5, 0, false);
+    }
+
+    private static List<Entry> createEntries(int count) {
+        GenerateData generator = new GenerateData();
+        List<Entry> entries = new ArrayList<>();
+        for (int xx = 0; xx < count; xx++) {
+            entries.add(generator.createEntry());
+        }
+        return entries;
+    }
+
+    /**
+     * Saves in small batches; a batch is written in one piece, so the segments only roll over between batches.
+     */
+    private static long saveInBatches(LogEntryRepository repository, List<Entry> entries) {
+        long saved = 0;
+        for (int xx = 0; xx < entries.size(); xx += 50) {
+            saved += repository.saveAll(entries.subList(xx, Math.min(xx + 50, entries.size())).iterator()).inserted();
+        }
+        return saved;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(LogEntryRepository.SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    @Test
+    void testSaveSearchDelete() throws Exception {
+        Entry zoe = new Entry(7, new Person("Zoë", "Smith", 30, Gender.FEMALE, MaritalStatus.SINGLE),
+                new Address("1 Main St", "Reno", "NV", "89501", null, null), null);
+        Entry john = new Entry(8, new Person("John", "Smithers", 40, Gender.MALE, MaritalStatus.MARRIED),
+                new Address(null, null, null, null, "john@example.com", null), "notes");
+        try (LogEntryRepository repository = open()) {
+            repository.save(zoe);
+            BulkWriteSummary summary = repository.saveAll(List.of(john, zoe).iterator());
+            Assertions.assertEquals(1, summary.inserted());
+            Assertions.assertEquals(1, summary.duplicates(), "Duplicate ID is skipped");
+            Assertions.assertThrows(IllegalStateException.class, () -> repository.save(zoe));
+
+            Assertions.assertEquals(List.of(zoe, john), repository.readAll());
+            try (Stream<Entry> streamed = repository.streamAll()) {
+                Assertions.assertEquals(List.of(zoe, john), streamed.toList());
+            }
+            Assertions.assertEquals(List.of(john), repository.searchByEntryId(8));
+            Assertions.assertEquals(List.of(zoe, john), repository.searchByLastName("SMITH"));
+            Assertions.assertEquals(List.of(zoe), repository.searchByFirstAndLastName("zoe", "smith"));
+
+            repository.deleteById(7);
+            repository.deleteById(99);
+            Assertions.assertTrue(repository.searchByEntryId(7).isEmpty());
+            Assertions.assertEquals(List.of(john), repository.searchByLastName("smith"));
+        }
+        try (LogEntryRepository repository = open()) {
+            Assertions.assertEquals(List.of(john), repository.readAll());
+            Assertions.assertEquals(List.of(john), repository.searchByLastName("smith"));
+            repository.save(zoe);
+            Assertions.assertEquals(List.of(zoe), repository.searchByEntryId(7));
+        }
+    }
+
+    @Test
+    void testRejectsIncompleteEntries() throws Exception {
+        Entry noPerson = new Entry(1, null, new Address(null, null, null, null, null, null), null);
+        Entry noLastName = new Entry(2, new Person("Ann", null, null, null, null),
+                new Address(null, null, null, null, null, null), null);
+        Entry noAddress = new Entry(3, new Person("Ann", "Lee", null, null, null), null, null);
+        List<Entry> entries = createEntries(3);
+        try (LogEntryRepository repository = open()) {
+            for (Entry entry : List.of(noPerson, noLastName, noAddress)) {
+                Assertions.assertThrows(IllegalArgumentException.class, () -> repository.save(entry));
+            }
+
+            // the bad entries are counted as failures and the rest of the save goes on
+            List<Entry> mixed = List.of(entries.get(0), noPerson, entries.get(1), noAddress, entries.get(2));
+            BulkWriteSummary summary = repository.saveAll(mixed.iterator());
+            Assertions.assertEquals(3, summary.inserted());
+            Assertions.assertEquals(2, summary.failures());
+            Assertions.assertNotNull(summary.results().getFirst().error());
+            Assertions.assertEquals(entries, repository.readAll());
+        }
+    }
+
+    @Test
+    void testReopenAcrossSegments() throws Exception {
+        List<Entry> entries = createEntries(500);
+        try (LogEntryRepository repository = open()) {
+            Assertions.assertEquals(500, saveInBatches(repository, entries));
+            Assertions.assertTrue(repository.segmentCount() > 1, "Writes should roll over to new segments");
+        }
+        try (LogEntryRepository repository = open()) {
+            Assertions.assertEquals(entries, repository.readAll());
+        }
+    }
+
+    @Test
+    void testRecoversFromTornWrite() throws Exception {
+        List<Entry> entries = createEntries(20);
+        try (LogEntryRepository repository = open()) {
+            repository.saveAll(entries.iterator());
+        }
+        // a crash in the middle of an append leaves part of a record behind
+        Path last = segmentFiles().getLast();
+        long size = Files.size(last);
+        Files.write(last, new byte[]{0, 0, 1, 0, 12, 34, 56}, StandardOpenOption.APPEND);
+
+        try (LogEntryRepository repository = open()) {
+            Assertions.assertEquals(entries, repository.readAll());
+            Assertions.assertEquals(size, Files.size(last), "The torn tail should be cut off");
+            Entry next = createEntries(21).getLast();
+            repository.save(next);
+            Assertions.assertEquals(List.of(next), repository.searchByEntryId(next.entryId()));
+        }
+        try (LogEntryRepository repository = open()) {
+            Assertions.assertEquals(21, repository.size());
+        }
+    }
+
+    @Test
+    void testDropsRecordFailingChecksum() throws Exception {
+        List<Entry> entries = createEntries(10);
+        try (LogEntryRepository repository = open()) {
+            repository.saveAll(entries.iterator());
+        }
+        // flip a byte inside the last record, as a write that only partly reached the disk would
+        Path last = segmentFiles().getLast();
+        try (RandomAccessFile file = new RandomAccessFile(last.toFile(), "rw")) {
+            file.seek(file.length() - 3);
+            int value = file.read();
+            file.seek(file.length() - 3);
+            file.write(value ^ 0xff);
+        }
+        try (LogEntryRepository repository = open()) {
+            Assertions.assertEquals(entries.subList(0, 9), repository.readAll());
+        }
+    }
+
+    @Test
+    void testCompactionKeepsLiveEntries() throws Exception {
+        List<Entry> entries = createEntries(400);
+        try (LogEntryRepository repository = open()) {
+            saveInBatches(repository, entries);
+            for (Entry entry : entries.subList(0, 300)) {
+                repository.deleteById(entry.entryId());
+            }
+            int before = repository.segmentCount();
+            Assertions.assertTrue(repository.compact());
+            Assertions.assertTrue(repository.segmentCount() < before);
+            Assertions.assertEquals(entries.subList(300, 400), repository.readAll());
+            Assertions.assertFalse(repository.compact(), "Nothing left to reclaim");
+        }
+        try (LogEntryRepository repository = open()) {
+            Assertions.assertEquals(entries.subList(300, 400), repository.readAll());
+            Assertions.assertTrue(repository.searchByEntryId(entries.getFirst().entryId()).isEmpty());
+        }
+    }
+
+    @Test
+    void testRecoversFromInterruptedCompaction() throws Exception {
+        List<Entry> entries = createEntries(400);
+        List<Path> before;
+        try (LogEntryRepository repository = open()) {
+            saveInBatches(repository, entries);
+            for (Entry entry : entries.subList(0, 300)) {
+                repository.deleteById(entry.entryId());
+            }
+            before = segmentFiles();
+        }
+        // keep the segments as they were, so a crash after the merged segment was renamed into place
+        // but before the old segments were deleted can be staged
+        Path saved = Files.createDirectory(directory.resolve("saved"));
+        for (Path segment : before) {
+            Files.copy(segment, saved.resolve(segment.getFileName()));
+        }
+        try (LogEntryRepository repository = open()) {
+            Assertions.assertTrue(repository.compact());
+        }
+        for (Path segment : before) {
+            if (!Files.exists(segment)) {
+                Files.copy(saved.resolve(segment.getFileName()), segment);
+            }
+        }
+        // and a later compaction that crashed before its merged segment was renamed
+        Files.write(directory.resolve(before.getFirst().getFileName() + LogEntryRepository.COMPACTING_SUFFIX),
+                new byte[]{1, 2, 3});
+
+        try (LogEntryRepository repository = open()) {
+            Assertions.assertEquals(entries.subList(300, 400), repository.readAll(),
+                    "Deleted entries in superseded segments must not come back");
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            Assertions.assertTrue(files.noneMatch(file -> file.toString().endsWith(LogEntryRepository.COMPACTING_SUFFIX)));
+        }
+
+        // a crash before the rename leaves the old segments untouched, and the merge is simply redone
+        for (Path segment : segmentFiles()) {
+            Files.delete(segment);
+        }
+        for (Path segment : before) {
+            Files.copy(saved.resolve(segment.getFileName()), segment, StandardCopyOption.REPLACE_EXISTING);
+        }
+        try (LogEntryRepository repository = open()) {
+            Assertions.assertEquals(entries.subList(300, 400), repository.readAll());
+            Assertions.assertTrue(repository.compact());
+            Assertions.assertEquals(entries.subList(300, 400), repository.readAll());
+        }
+    }
+}